@@ -2,21 +2,29 @@ package com.project.plaque.plaque_calculator.controller;
 
 import com.google.gson.Gson;
 import com.project.plaque.plaque_calculator.model.FD;
+import com.project.plaque.plaque_calculator.service.BcnfCheckService;
+import com.project.plaque.plaque_calculator.service.CompiledSchema;
+import com.project.plaque.plaque_calculator.service.FDDiscoveryService;
 import com.project.plaque.plaque_calculator.service.FDService;
 import com.project.plaque.plaque_calculator.service.RicService;
 import com.project.plaque.plaque_calculator.service.DecomposeService;
 import com.project.plaque.plaque_calculator.service.LogService;
+import com.project.plaque.plaque_calculator.service.ProgressStreamRegistry;
+import com.project.plaque.plaque_calculator.service.RicRefinementService;
+import com.project.plaque.plaque_calculator.service.SpeculationService;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
-import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.concurrent.CompletableFuture;
@@ -30,14 +38,29 @@ public class ComputeController {
 	private final RicService ricService;
 	private final LogService logService;
 	private final DecomposeService decomposeService;
+	private final ProgressStreamRegistry progressStreams;
+	private final RicRefinementService refinementService;
+	private final FDDiscoveryService discoveryService;
+	private final SpeculationService speculationService;
+	private final BcnfCheckService bcnfCheckService;
 	private final Gson gson = new Gson();
+	// Upper bound for the FD discovery time budget a client can ask for
+	private static final long MAX_DISCOVERY_BUDGET_MS = 30_000;
 
 	// Adding RicService in addition to FDService
-	public ComputeController(FDService fdService, RicService ricService, LogService logService, DecomposeService decomposeService) {
+	public ComputeController(FDService fdService, RicService ricService, LogService logService, DecomposeService decomposeService,
+							 ProgressStreamRegistry progressStreams, RicRefinementService refinementService,
+							 FDDiscoveryService discoveryService, SpeculationService speculationService,
+							 BcnfCheckService bcnfCheckService) {
 		this.fdService = fdService;
 		this.ricService = ricService;
 		this.logService = logService;
 		this.decomposeService = decomposeService;
+		this.progressStreams = progressStreams;
+		this.refinementService = refinementService;
+		this.discoveryService = discoveryService;
+		this.speculationService = speculationService;
+		this.bcnfCheckService = bcnfCheckService;
 	}
 
 	@PostMapping
@@ -51,6 +74,7 @@ public class ComputeController {
 	) {
 
 		clearNormalizationSessionState(session);
+		cancelRefinement(session);
 
 		// Converting user's input to safe strings
 		String safeManual = sanitizeManualData(manualData);
@@ -61,11 +85,13 @@ public class ComputeController {
 		double[][] ricArr = new double[0][0];
 		List<String> ricSteps = new ArrayList<>();
 		String finalStrategy = null;
+		boolean refine = false;
 		try {
 			RicService.RicComputationResult result = ricService.computeRicAdaptive(safeManual, safeFds, monteCarlo, samples);
 			ricArr = result.matrix();
 			ricSteps = result.steps();
 			finalStrategy = result.finalStrategy();
+			refine = !monteCarlo && result.isApproximation();
 		} catch (RicService.RicComputationException adaptiveEx) {
 			ricSteps = adaptiveEx.getSteps();
 			model.addAttribute("ricError", "Error while calculating information content: " + adaptiveEx.getMessage());
@@ -81,6 +107,9 @@ public class ComputeController {
 		session.setAttribute("ricFinalStrategy", finalStrategy);
 
 		persistResults(session, model, safeManual, safeFds, ricArr, ricSteps, finalStrategy, monteCarlo, samples);
+		if (refine) {
+			model.addAttribute("ricRefinementPending", scheduleRefinement(session, safeManual, safeFds));
+		}
 		return "calc-results";
 	}
 
@@ -91,18 +120,31 @@ public class ComputeController {
 			@RequestParam(required = false) String fds,
 			@RequestParam(required = false, defaultValue = "false") boolean monteCarlo,
 			@RequestParam(required = false, defaultValue = "100000") int samples,
+			@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
 			HttpSession session
 	) {
-		clearNormalizationSessionState(session);
-
 		String safeManual = sanitizeManualData(manualData);
 		String safeFds = sanitizeFds(fds);
 
 		SseEmitter emitter = new SseEmitter(0L);
 
+		// A reconnecting EventSource re-attaches to the running (or just finished) computation
+		String streamKey = computeStreamKey(session, safeManual, safeFds, monteCarlo, samples);
+		ProgressStreamRegistry.ProgressStream existing = progressStreams.find(streamKey);
+		if (lastEventId != null && existing != null) {
+			existing.attach(emitter, ProgressStreamRegistry.parseLastEventId(lastEventId));
+			return emitter;
+		}
+
+		clearNormalizationSessionState(session);
+		cancelRefinement(session);
+
+		ProgressStreamRegistry.ProgressStream stream = progressStreams.open(streamKey);
+		stream.attach(emitter, 0L);
+
 		if (safeManual.isEmpty()) {
-			sendEvent(emitter, "error", Map.of("message", "Table data is required for computation."));
-			emitter.complete();
+			stream.emit("error", Map.of("message", "Table data is required for computation."));
+			stream.finish();
 			return emitter;
 		}
 
@@ -110,7 +152,7 @@ public class ComputeController {
 			List<String> progressSteps = new ArrayList<>();
 			Consumer<String> progressCallback = step -> {
 				progressSteps.add(step);
-				sendEvent(emitter, "progress", Map.of("message", step));
+				stream.emit("progress", Map.of("message", step));
 			};
 
 			try {
@@ -124,25 +166,141 @@ public class ComputeController {
 
 				List<String> finalSteps = result.steps() != null ? result.steps() : progressSteps;
 				persistResults(session, null, safeManual, safeFds, result.matrix(), finalSteps, result.finalStrategy(), monteCarlo, samples);
-				sendEvent(emitter, "complete", Map.of(
+				if (!monteCarlo && result.isApproximation() && scheduleRefinement(session, safeManual, safeFds)) {
+					stream.emit("progress", Map.of("message", "Exact values will keep computing in the background."));
+				}
+				stream.emit("complete", Map.of(
 						"finalStrategy", result.finalStrategy(),
 						"redirectUrl", "/calc-results"
 				));
-				emitter.complete();
 			} catch (RicService.RicComputationException adaptiveEx) {
 				List<String> steps = adaptiveEx.getSteps() != null ? adaptiveEx.getSteps() : progressSteps;
-				steps.forEach(step -> sendEvent(emitter, "progress", Map.of("message", step)));
-				sendEvent(emitter, "error", Map.of("message", adaptiveEx.getMessage()));
-				emitter.complete();
+				steps.forEach(step -> stream.emit("progress", Map.of("message", step)));
+				stream.emit("error", Map.of("message", adaptiveEx.getMessage()));
 			} catch (Exception ex) {
-				sendEvent(emitter, "error", Map.of("message", ex.getMessage() == null ? "Unexpected error" : ex.getMessage()));
-				emitter.complete();
+				stream.emit("error", Map.of("message", ex.getMessage() == null ? "Unexpected error" : ex.getMessage()));
+			} finally {
+				stream.finish();
 			}
 		});
 
 		return emitter;
 	}
 
+	/**
+	 * Notifies the results page when the background exact computation upgraded the stored matrix.
+	 * Emits "refine-idle" when nothing is (or was recently) refining for this session.
+	 */
+	@GetMapping(value = "/refinement-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	@ResponseBody
+	public SseEmitter refinementStream(
+			@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+			HttpSession session
+	) {
+		SseEmitter emitter = new SseEmitter(0L);
+		ProgressStreamRegistry.ProgressStream stream = progressStreams.find(RicRefinementService.streamKey(session.getId()));
+		if (stream == null) {
+			ProgressStreamRegistry.ProgressStream idle = progressStreams.open(RicRefinementService.streamKey(session.getId()));
+			idle.emit("refine-idle", Map.of("message", "No background computation is running."));
+			idle.finish();
+			stream = idle;
+		}
+		stream.attach(emitter, ProgressStreamRegistry.parseLastEventId(lastEventId));
+		return emitter;
+	}
+
+	/**
+	 * Discovers the FDs that hold in the entered table (TANE), for the calc page's FD list.
+	 * The "fds" field holds the exact FDs in the same format as the form's FD input, so it can be sent to /compute
+	 * as is; FDs within maxError that do not hold on every row are listed apart under "approximate".
+	 */
+	@PostMapping("/discover-fds")
+	@ResponseBody
+	public ResponseEntity<?> discoverFds(
+			@RequestParam String manualData,
+			@RequestParam(required = false, defaultValue = "0") double maxError,
+			@RequestParam(required = false, defaultValue = "5000") long timeBudgetMs
+	) {
+		String safeManual = sanitizeManualData(manualData);
+		if (safeManual.isEmpty()) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Table data is required for FD discovery."));
+		}
+		try {
+			FDDiscoveryService.Result result = discoveryService.discover(safeManual, maxError,
+					Math.min(Math.max(timeBudgetMs, 100), MAX_DISCOVERY_BUDGET_MS));
+			Map<String, Object> body = new LinkedHashMap<>();
+			List<Map<String, Object>> approximate = new ArrayList<>();
+			for (FDDiscoveryService.DiscoveredFD fd : result.approximateFds()) {
+				approximate.add(Map.of("fd", fd.format(), "error", fd.error()));
+			}
+			body.put("fds", result.fdString());
+			body.put("count", result.fds().size() - approximate.size());
+			body.put("approximate", approximate);
+			body.put("levels", result.levels());
+			body.put("timedOut", result.timedOut());
+			body.put("elapsedMillis", result.elapsedMillis());
+			return ResponseEntity.ok(body);
+		} catch (IllegalArgumentException ex) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
+		}
+	}
+
+	// BCNF status of the session's input: PENDING while the background subset check runs
+	@GetMapping("/bcnf-status")
+	@ResponseBody
+	public Map<String, Object> bcnfStatus(HttpSession session) {
+		return Map.of("status", BcnfCheckService.status(session).name());
+	}
+
+	// Starts the exact computation in the background, the session result is upgraded only if it still belongs to the same input
+	boolean scheduleRefinement(HttpSession session, String safeManual, String safeFds) {
+		return refinementService.schedule(session.getId(), safeManual, safeFds, exact -> {
+			try {
+				if (!safeManual.equals(session.getAttribute("calcResultsInputData"))
+						|| !safeFds.equals(session.getAttribute("calcResultsFdList"))) {
+					return;
+				}
+				upgradeToExact(session, exact);
+			} catch (IllegalStateException invalidated) {
+				// Session expired while the refinement was running
+			}
+		});
+	}
+
+	// A new computation also ends the speculation and the BCNF check for the previous input
+	private void cancelRefinement(HttpSession session) {
+		if (session == null) return;
+		refinementService.cancel(session.getId());
+		speculationService.cancel(session.getId());
+		bcnfCheckService.cancel(session.getId());
+	}
+
+	private void upgradeToExact(HttpSession session, double[][] exact) {
+		List<String[]> matrix = convertMatrixToStrings(exact);
+		String json = gson.toJson(matrix);
+		String finalStrategy = RicService.EXACT_STRATEGY;
+		@SuppressWarnings("unchecked")
+		List<String> previousSteps = (List<String>) session.getAttribute("calcResultsRicSteps");
+		List<String> steps = new ArrayList<>(previousSteps == null ? List.of() : previousSteps);
+		steps.add("Exact values computed in the background replaced the approximation.");
+		List<String> safeSteps = List.copyOf(steps);
+
+		session.setAttribute("originalTableJson", json);
+		session.setAttribute("calcResultsRicMatrix", matrix);
+		session.setAttribute("calcResultsRicColCount", matrix.isEmpty() ? 0 : matrix.get(0).length);
+		session.setAttribute("calcResultsRicJson", json);
+		session.setAttribute("ricComputationSteps", safeSteps);
+		session.setAttribute("ricFinalStrategy", finalStrategy);
+		session.setAttribute("calcResultsRicSteps", safeSteps);
+		session.setAttribute("calcResultsRicFinalStrategy", finalStrategy);
+	}
+
+	// Identifies one computation of a session, so a reconnect with the same parameters finds it again
+	private String computeStreamKey(HttpSession session, String safeManual, String safeFds, boolean monteCarlo, int samples) {
+		int paramsHash = Objects.hash(safeManual, safeFds, monteCarlo, samples);
+		return "compute:" + session.getId() + ":" + Integer.toHexString(paramsHash);
+	}
+
 	// Convert (and parsing) a string like "A->B;C->D;E->F,G" to List<FD>
 	private List<FD> parseFdsString(String fds) {
 		// Delegate to FDService
@@ -200,10 +358,14 @@ public class ComputeController {
 		int ricColCount = matrixForModel.isEmpty() ? 0 : matrixForModel.get(0).length;
 		List<FD> originalFDs = parseFdsString(safeFds);
 		List<String> originalAttrOrder = extractAttrOrder(safeManual);
-		Set<String> attributeSet = new LinkedHashSet<>(originalAttrOrder);
-		boolean alreadyBcnf = attributeSet.isEmpty()
+		// Dependency analysis of the input table, built once and shared via the session
+		CompiledSchema compiledSchema = fdService.compile(originalAttrOrder, originalFDs);
+		// FDs over the table itself: polynomial superkey test. FDs naming other columns need the
+		// exhaustive subset check, which runs in the background (BcnfCheckService, PENDING until then)
+		boolean exhaustiveBcnf = !originalAttrOrder.isEmpty() && !compiledSchema.fdsInsideRelation();
+		boolean alreadyBcnf = originalAttrOrder.isEmpty()
 			? originalFDs.isEmpty()
-			: decomposeService.checkBCNF(attributeSet, originalFDs, fdService);
+			: !exhaustiveBcnf && decomposeService.checkBCNF(compiledSchema);
 
 		List<String> safeSteps = steps == null ? List.of() : List.copyOf(steps);
 
@@ -220,7 +382,7 @@ public class ComputeController {
 		session.setAttribute("calcResultsRicFinalStrategy", finalStrategy);
 		session.setAttribute("calcResultsMonteCarloSelected", monteCarlo);
 		session.setAttribute("calcResultsMonteCarloSamples", samples);
-		session.setAttribute("alreadyBcnf", alreadyBcnf);
+		BcnfCheckService.store(session, alreadyBcnf);
 
 		if (model != null) {
 			model.addAttribute("ricMatrix", matrixForModel);
@@ -246,8 +408,12 @@ public class ComputeController {
 		session.setAttribute("originalAttrIndices", createAttrIndices(originalAttrOrder.size()));
 
 		session.setAttribute("originalFDs", originalFDs);
+		session.setAttribute(CompiledSchema.SESSION_KEY, compiledSchema);
+		if (exhaustiveBcnf) {
+			bcnfCheckService.start(session, compiledSchema);
+		}
 
-		List<FD> transitiveFDs = fdService.findTransitiveFDs(originalFDs);
+		List<FD> transitiveFDs = compiledSchema.transitiveFds();
 		List<String> originalFdStrings = originalFDs.stream().map(FD::toString).sorted().collect(Collectors.toList());
 		List<String> transitiveFdStrings = transitiveFDs.stream().map(FD::toString).sorted().collect(Collectors.toList());
 		List<String> distinctSortedList = new ArrayList<>(new LinkedHashSet<>(combineLists(originalFdStrings, transitiveFdStrings)));
@@ -329,12 +495,4 @@ public class ComputeController {
 		combined.addAll(second);
 		return combined;
 	}
-
-	private void sendEvent(SseEmitter emitter, String eventName, Object data) {
-		try {
-			emitter.send(SseEmitter.event().name(eventName).data(data));
-		} catch (IOException ex) {
-			emitter.completeWithError(ex);
-		}
-	}
 }
@@ -6,21 +6,23 @@ import com.project.plaque.plaque_calculator.dto.DecomposeRequest;
 import com.project.plaque.plaque_calculator.dto.DecomposeResponse;
 import com.project.plaque.plaque_calculator.dto.DecomposeStreamInitResponse;
 import com.project.plaque.plaque_calculator.service.DecomposeService;
+import com.project.plaque.plaque_calculator.service.DecompositionSearchService;
 import com.project.plaque.plaque_calculator.service.LogService;
+import com.project.plaque.plaque_calculator.service.ProgressStreamRegistry;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
-import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/normalize")
@@ -28,13 +30,18 @@ public class DecomposeController {
 
 	private final DecomposeService decomposeService;
 	private final LogService logService;
+	private final ProgressStreamRegistry progressStreams;
+	private final DecompositionSearchService decompositionSearchService;
 	private static final String ATTEMPT_COUNT_SESSION_KEY = "attemptCount";
 	private static final String NORMALIZATION_START_TIME_KEY = "normalizationStartTime";
 	private static final String STREAM_REQUESTS_SESSION_KEY = "decomposeStreamRequests";
 
-	public DecomposeController(DecomposeService decomposeService, LogService logService) {
+	public DecomposeController(DecomposeService decomposeService, LogService logService, ProgressStreamRegistry progressStreams,
+							   DecompositionSearchService decompositionSearchService) {
 		this.decomposeService = decomposeService;
 		this.logService = logService;
+		this.progressStreams = progressStreams;
+		this.decompositionSearchService = decompositionSearchService;
 	}
 
 	@PostMapping("/decompose-stream/start")
@@ -53,16 +60,28 @@ public class DecomposeController {
 	}
 
 	@GetMapping(value = "/decompose-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-	public SseEmitter decomposeStream(@RequestParam("token") String token, HttpSession session) {
+	public SseEmitter decomposeStream(@RequestParam("token") String token,
+									  @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+									  HttpSession session) {
 		SseEmitter emitter = new SseEmitter(0L);
-		CompletableFuture.runAsync(() -> {
-			DecomposeAllRequest req = consumeStagedRequest(session, token);
-			if (req == null) {
-				emitError(emitter, "Stream token is invalid or expired.");
-				return;
-			}
-			streamDecomposition(req, session, emitter);
-		});
+
+		// The token keeps identifying the computation after its request was consumed, reconnects re-attach to it
+		String streamKey = streamKey(session, token);
+		ProgressStreamRegistry.ProgressStream existing = progressStreams.find(streamKey);
+		if (existing != null) {
+			existing.attach(emitter, ProgressStreamRegistry.parseLastEventId(lastEventId));
+			return emitter;
+		}
+
+		DecomposeAllRequest req = consumeStagedRequest(session, token);
+		ProgressStreamRegistry.ProgressStream stream = progressStreams.open(streamKey);
+		stream.attach(emitter, 0L);
+		if (req == null) {
+			emitError(stream, "Stream token is invalid or expired.");
+			stream.finish();
+			return emitter;
+		}
+		CompletableFuture.runAsync(() -> streamDecomposition(req, session, stream));
 		return emitter;
 	}
 
@@ -93,6 +112,50 @@ public class DecomposeController {
 		}
 	}
 
+	// POST /normalize/analyze (projected FDs, normal forms and global checks for all tables at once, no RIC)
+	@PostMapping("/analyze")
+	public ResponseEntity<?> analyze(@RequestBody DecomposeAllRequest req, HttpSession session) {
+		try {
+			return ResponseEntity.ok(decomposeService.analyzeRelations(req, session));
+		} catch (IllegalStateException | IllegalArgumentException ex) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
+		}
+	}
+
+	// POST /normalize/synthesize-3nf (reference 3NF decomposition, baseColumns optional for nested relations)
+	@PostMapping("/synthesize-3nf")
+	public ResponseEntity<?> synthesize3NF(@RequestBody(required = false) DecomposeAllRequest req, HttpSession session) {
+		try {
+			return ResponseEntity.ok(decomposeService.synthesize3NF(req == null ? null : req.getBaseColumns(), session));
+		} catch (IllegalStateException | IllegalArgumentException ex) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
+		}
+	}
+
+	// POST /normalize/bcnf-search (top-k BCNF decompositions ranked by mean RIC, within req.timeLimit seconds)
+	// Answered asynchronously, the request thread is released while the search runs
+	@PostMapping("/bcnf-search")
+	public DeferredResult<ResponseEntity<?>> bcnfSearch(@RequestBody DecomposeAllRequest req,
+														@RequestParam(defaultValue = "5") int topK,
+														HttpSession session) {
+		// The search stops at its own time limit; the slack covers the last RIC runs being cancelled
+		long timeoutMillis = TimeUnit.SECONDS.toMillis(decompositionSearchService.timeLimitSeconds(req) + 30L);
+		DeferredResult<ResponseEntity<?>> result = new DeferredResult<>(timeoutMillis, () -> ResponseEntity
+				.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "The decomposition search did not finish in time.")));
+		decompositionSearchService.searchAsync(req, topK, session).whenComplete((resp, failure) -> {
+			if (failure == null) {
+				result.setResult(ResponseEntity.ok(resp));
+				return;
+			}
+			Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+			HttpStatus status = cause instanceof IllegalStateException || cause instanceof IllegalArgumentException
+					? HttpStatus.BAD_REQUEST
+					: HttpStatus.INTERNAL_SERVER_ERROR;
+			result.setResult(ResponseEntity.status(status).body(Map.of("error", String.valueOf(cause.getMessage()))));
+		});
+		return result;
+	}
+
 	// POST /normalize/decompose-all (processing multiple decomposed-tables)
 	@PostMapping("/decompose-all")
 	public ResponseEntity<?> decomposeAll(@RequestBody DecomposeAllRequest req, HttpSession session) {
@@ -142,69 +205,45 @@ public class DecomposeController {
 		return ResponseEntity.ok(response);
 	}
 
-	private void streamDecomposition(DecomposeAllRequest req, HttpSession session, SseEmitter emitter) {
+	private void streamDecomposition(DecomposeAllRequest req, HttpSession session, ProgressStreamRegistry.ProgressStream stream) {
 		long overallStartNs = System.nanoTime();
 		try {
 			var tables = req.getTables();
 			if (tables == null || tables.isEmpty()) {
-				emitError(emitter, "No decomposed tables were provided.");
+				emitError(stream, "No decomposed tables were provided.");
 				return;
 			}
 
-			AtomicInteger index = new AtomicInteger(1);
-			tables.forEach(table -> {
-				int current = index.getAndIncrement();
-				String label = "Decomposed Table " + current;
-				long startNs = System.nanoTime();
-				try {
-					emitProgress(emitter, label + ": Starting computations.");
-					decomposeService.decomposeWithProgress(table, session, message -> emitProgress(emitter, message), label);
-					long elapsedMs = Math.max(0, (System.nanoTime() - startNs) / 1_000_000);
-					emitProgress(emitter, label + ": Completed in " + formatDuration(elapsedMs) + ".");
-				} catch (Exception ex) {
-					long elapsedMs = Math.max(0, (System.nanoTime() - startNs) / 1_000_000);
-					String reason = ex.getMessage() == null ? "Computation failed." : ex.getMessage();
-					emitProgress(emitter, label + ": " + reason + " (after " + formatDuration(elapsedMs) + ").");
-				}
-			});
-
-			emitProgress(emitter, "Running global preservation checks (lossless-join & dependency-preserving).");
-			long globalStartNs = System.nanoTime();
-			DecomposeAllResponse aggregate = decomposeService.decomposeAll(req, session);
-			long globalElapsedMs = Math.max(0, (System.nanoTime() - globalStartNs) / 1_000_000);
-			emitProgress(emitter, "Global preservation checks completed in " + formatDuration(globalElapsedMs) + ".");
+			// Tables, their RIC and the global RIC run concurrently; the aggregate reuses the per-table results
+			DecomposeAllResponse aggregate = decomposeService.decomposeAllWithProgress(req, session,
+					message -> emitProgress(stream, message));
 			long totalElapsedMs = Math.max(0, (System.nanoTime() - overallStartNs) / 1_000_000);
-			emitProgress(emitter, "Normalization stream finished in " + formatDuration(totalElapsedMs) + ".");
-			emitComplete(emitter, aggregate);
+			emitProgress(stream, "Normalization stream finished in " + DecomposeService.formatDuration(totalElapsedMs) + ".");
+			emitComplete(stream, aggregate);
 		} catch (Exception ex) {
-			emitError(emitter, ex.getMessage() == null ? "Normalization failed." : ex.getMessage());
+			emitError(stream, ex.getMessage() == null ? "Normalization failed." : ex.getMessage());
 		} finally {
-			emitter.complete();
+			stream.finish();
 		}
 	}
 
-	private void emitProgress(SseEmitter emitter, String message) {
-		try {
-			emitter.send(SseEmitter.event().name("progress").data(Map.of("message", message)));
-		} catch (IOException ignored) {
-		}
+	private void emitProgress(ProgressStreamRegistry.ProgressStream stream, String message) {
+		stream.emit("progress", Map.of("message", message));
 	}
 
-	private void emitError(SseEmitter emitter, String message) {
-		try {
-			emitter.send(SseEmitter.event().name("stream-error").data(Map.of("message", message)));
-		} catch (IOException ignored) {
-		}
+	private void emitError(ProgressStreamRegistry.ProgressStream stream, String message) {
+		stream.emit("stream-error", Map.of("message", message));
 	}
 
-	private void emitComplete(SseEmitter emitter, DecomposeAllResponse payload) {
-		try {
-			emitter.send(SseEmitter.event().name("complete").data(Map.of(
-				"status", "done",
-				"payload", payload
-			)));
-		} catch (IOException ignored) {
-		}
+	private void emitComplete(ProgressStreamRegistry.ProgressStream stream, DecomposeAllResponse payload) {
+		stream.emit("complete", Map.of(
+			"status", "done",
+			"payload", payload
+		));
+	}
+
+	private String streamKey(HttpSession session, String token) {
+		return "decompose:" + session.getId() + ":" + (token == null ? "" : token.trim());
 	}
 
 	@SuppressWarnings("unchecked")
@@ -225,11 +264,4 @@ public class DecomposeController {
 		Map<String, DecomposeAllRequest> staged = getOrCreateStreamRequests(session);
 		return staged.remove(token);
 	}
-
-	private String formatDuration(long elapsedMs) {
-		if (elapsedMs < 1000) {
-			return elapsedMs + " ms";
-		}
-		return String.format(Locale.US, "%.2f s", elapsedMs / 1000.0);
-	}
 }
@@ -2,8 +2,12 @@ package com.project.plaque.plaque_calculator.controller;
 
 import com.google.gson.Gson;
 import com.project.plaque.plaque_calculator.model.FD;
+import com.project.plaque.plaque_calculator.service.BcnfCheckService;
 import com.project.plaque.plaque_calculator.service.FDService;
+import com.project.plaque.plaque_calculator.service.CompiledSchema;
 import com.project.plaque.plaque_calculator.service.NormalFormChecker;
+import com.project.plaque.plaque_calculator.service.RicRefinementService;
+import com.project.plaque.plaque_calculator.service.SpeculationService;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -21,14 +25,19 @@ public class PageController {
 	private final NormalizationController normalizationController;
 	private final FDService fdService;
 	private final NormalFormChecker normalFormChecker;
+	private final RicRefinementService refinementService;
+	private final SpeculationService speculationService;
 	private final Gson gson = new Gson();
 	private static final String RESTORE_SESSION_KEY = "normalizationRestoreState";
 	private static final String RESET_SESSION_KEY = "normalizationReset";
 
-	public PageController(NormalizationController normalizationController, FDService fdService, NormalFormChecker normalFormChecker) {
+	public PageController(NormalizationController normalizationController, FDService fdService, NormalFormChecker normalFormChecker,
+						  RicRefinementService refinementService, SpeculationService speculationService) {
 		this.normalizationController = normalizationController;
 		this.fdService = fdService;
 		this.normalFormChecker = normalFormChecker;
+		this.refinementService = refinementService;
+		this.speculationService = speculationService;
 	}
 
 	// Home page redirect
@@ -102,6 +111,7 @@ public class PageController {
 		model.addAttribute("monteCarloSamples", monteCarloSamples != null ? monteCarloSamples : 100000);
 		model.addAttribute("allFdStringsToShow", allFdStrings != null ? allFdStrings : List.of());
 		model.addAttribute("transitiveFdStrings", transitiveFds != null ? transitiveFds : List.of());
+		model.addAttribute("ricRefinementPending", refinementService.isPending(session.getId()));
 
 		return "calc-results";
 	}
@@ -120,8 +130,9 @@ public class PageController {
 		Long startTime = normalizationController.setAndGetNormalizationStartTime(session);
 		model.addAttribute("normalizationStartTimeMs", startTime);
 
-		Boolean alreadyBcnfFlag = (Boolean) session.getAttribute("alreadyBcnf");
-		model.addAttribute("alreadyBcnf", alreadyBcnfFlag != null && alreadyBcnfFlag);
+		BcnfCheckService.Status bcnfStatus = BcnfCheckService.status(session);
+		model.addAttribute("alreadyBcnf", bcnfStatus == BcnfCheckService.Status.BCNF);
+		model.addAttribute("bcnfCheckPending", bcnfStatus == BcnfCheckService.Status.PENDING);
 
 		@SuppressWarnings("unchecked")
 		// Get history list from session
@@ -134,6 +145,8 @@ public class PageController {
 		Map<String, Object> restoreState = (Map<String, Object>) session.getAttribute(RESTORE_SESSION_KEY);
 		Object restoreFlag = session.getAttribute("usingDecomposedAsOriginal");
 		boolean restoreRequested = restoreFlag instanceof Boolean && (Boolean) restoreFlag && restoreState != null;
+		// Relations shown on the page (none: the input relation), their likely splits are precomputed below
+		Object currentRelations = null;
 		if (Boolean.TRUE.equals(resetRequested)) {
 			populateInitialNormalization(session, model);
 			session.removeAttribute(RESET_SESSION_KEY);
@@ -154,6 +167,7 @@ public class PageController {
 			// Calculate normal forms for each relation
 			List<String> normalForms = calculateNormalFormsForRelations(restoreState, session);
 			model.addAttribute("currentRelationsNormalFormsJson", gson.toJson(normalForms));
+			currentRelations = restoreState.get("columnsPerTable");
 
 			model.addAttribute("initialCalcTableJson", "[]");
 			model.addAttribute("ricJson", "[]");
@@ -178,6 +192,7 @@ public class PageController {
 			// Calculate normal forms for each relation
 			List<String> normalForms = calculateNormalFormsForRelations(currentState, session);
 			model.addAttribute("currentRelationsNormalFormsJson", gson.toJson(normalForms));
+			currentRelations = currentState.get("columnsPerTable");
 
 			model.addAttribute("initialCalcTableJson", "[]");
 			model.addAttribute("ricJson", "[]");
@@ -198,14 +213,10 @@ public class PageController {
 			}
 		}
 
-		// Get the original FD list from session and calculate only the transitive ones
-		@SuppressWarnings("unchecked")
-		List<FD> originalFDs = (List<FD>) session.getAttribute("originalFDs");
-		if (originalFDs == null) {
-			originalFDs = new ArrayList<>(); // Security measure
-		}
-
-		List<FD> transitiveFDs = fdService.findTransitiveFDs(originalFDs);
+		// Original FDs and the transitive ones from the compiled schema (built once in ComputeController)
+		CompiledSchema compiledSchema = CompiledSchema.fromSession(session, fdService);
+		List<FD> originalFDs = compiledSchema.originalFds();
+		List<FD> transitiveFDs = compiledSchema.transitiveFds();
 
 		// Sort original FDs within itself
 		List<String> originalFdStrings = originalFDs.stream()
@@ -232,9 +243,21 @@ public class PageController {
 		model.addAttribute("fdInferred", transitiveFdStrings);
 		model.addAttribute("transitiveFdStrings", transitiveFdStrings);
 
+		speculationService.speculate(session, relationColumns(currentRelations));
+
 		return "normalization";
 	}
 
+	private List<List<?>> relationColumns(Object columnsPerTable) {
+		List<List<?>> relations = new ArrayList<>();
+		if (columnsPerTable instanceof List<?> tables) {
+			for (Object cols : tables) {
+				if (cols instanceof List<?> list) relations.add(list);
+			}
+		}
+		return relations;
+	}
+
 	private void populateInitialNormalization(HttpSession session, Model model) {
 		String initJson = (String) session.getAttribute("initialCalcTableJson");
 		String ricJsonInit = (String) session.getAttribute("originalTableJson");
@@ -242,14 +265,9 @@ public class PageController {
 		// Calculate original table's normal form
 		String originalNormalForm = "1NF"; // Default
 		try {
-			@SuppressWarnings("unchecked")
-			List<FD> originalFDs = (List<FD>) session.getAttribute("originalFDs");
-			@SuppressWarnings("unchecked")
-			List<String> originalAttrOrder = (List<String>) session.getAttribute("originalAttrOrder");
-
-			if (originalFDs != null && originalAttrOrder != null && !originalAttrOrder.isEmpty()) {
-				Set<String> attributes = new LinkedHashSet<>(originalAttrOrder);
-				originalNormalForm = normalFormChecker.checkNormalForm(attributes, originalFDs);
+			if (session.getAttribute("originalFDs") != null) {
+				// The normal form is kept in the compiled schema after the first page load
+				originalNormalForm = normalFormChecker.checkNormalForm(CompiledSchema.fromSession(session, fdService));
 			}
 		} catch (Exception e) {
 			System.err.println("Error calculating original normal form: " + e.getMessage());
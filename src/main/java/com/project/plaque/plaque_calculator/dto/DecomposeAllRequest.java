@@ -17,6 +17,8 @@ public class DecomposeAllRequest {
 	private String fds;
 	// Limits checks to a subset of the original relation (used for nested normalization)
 	private List<Integer> baseColumns;
+	// /normalize/analyze: relations analysed on their own (column lists), not part of the decomposition
+	private List<List<Integer>> relations;
 
 	public DecomposeAllRequest() {}
 
@@ -46,4 +48,7 @@ public class DecomposeAllRequest {
 
 	public List<Integer> getBaseColumns() { return baseColumns; }
 	public void setBaseColumns(List<Integer> baseColumns) { this.baseColumns = baseColumns; }
+
+	public List<List<Integer>> getRelations() { return relations; }
+	public void setRelations(List<List<Integer>> relations) { this.relations = relations; }
 }
@@ -8,6 +8,8 @@ import java.util.List;
 public class DecomposeAllResponse {
 	private double[][] globalRic;
 	private List<DecomposeResponse> tableResults;
+	// /normalize/analyze: one result per requested stand-alone relation
+	private List<DecomposeResponse> relationResults = new ArrayList<>();
 	private boolean dpPreserved;   // overall
 	private boolean ljPreserved;   // overall
 	// list of missing column indices (0-based) if any
@@ -27,6 +29,9 @@ public class DecomposeAllResponse {
 	public List<DecomposeResponse> getTableResults() { return tableResults; }
 	public void setTableResults(List<DecomposeResponse> tableResults) { this.tableResults = tableResults; }
 
+	public List<DecomposeResponse> getRelationResults() { return relationResults; }
+	public void setRelationResults(List<DecomposeResponse> relationResults) { this.relationResults = relationResults == null ? new ArrayList<>() : relationResults; }
+
 	public boolean isDpPreserved() { return dpPreserved; }
 	public void setDpPreserved(boolean dpPreserved) { this.dpPreserved = dpPreserved; }
 
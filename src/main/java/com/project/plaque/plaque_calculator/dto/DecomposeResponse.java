@@ -7,6 +7,7 @@ public class DecomposeResponse {
 	private List<String> projectedFDs;
 	private List<String> steps;
 	private String normalForm; // "BCNF", "3NF", "2NF", "1NF"
+	private List<String> normalFormViolations; // e.g. "BCNF: A→B", one per failed level
 
 	// Constructor
 	public DecomposeResponse(double[][] ricMatrix,
@@ -51,4 +52,11 @@ public class DecomposeResponse {
 		this.normalForm = normalForm;
 	}
 
+	public List<String> getNormalFormViolations() {
+		return normalFormViolations;
+	}
+	public void setNormalFormViolations(List<String> normalFormViolations) {
+		this.normalFormViolations = normalFormViolations;
+	}
+
 }
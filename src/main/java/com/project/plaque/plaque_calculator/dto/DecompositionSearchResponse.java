@@ -0,0 +1,57 @@
+package com.project.plaque.plaque_calculator.dto;
+
+import java.util.List;
+
+// Top-k BCNF decompositions by RIC score; the tables of a candidate have the DecomposeAllRequest.tables shape
+public class DecompositionSearchResponse {
+
+	public static class Candidate {
+		private List<DecomposeRequest> tables;
+		private List<List<String>> tableAttributes;
+		private double score; // mean RIC over all cells of all tables
+		private boolean losslessJoin;
+		private boolean dependencyPreserving;
+		private boolean approximate; // scores from Monte Carlo RIC instead of exact values
+
+		public List<DecomposeRequest> getTables() { return tables; }
+		public void setTables(List<DecomposeRequest> tables) { this.tables = tables; }
+
+		public List<List<String>> getTableAttributes() { return tableAttributes; }
+		public void setTableAttributes(List<List<String>> tableAttributes) { this.tableAttributes = tableAttributes; }
+
+		public double getScore() { return score; }
+		public void setScore(double score) { this.score = score; }
+
+		public boolean isLosslessJoin() { return losslessJoin; }
+		public void setLosslessJoin(boolean losslessJoin) { this.losslessJoin = losslessJoin; }
+
+		public boolean isDependencyPreserving() { return dependencyPreserving; }
+		public void setDependencyPreserving(boolean dependencyPreserving) { this.dependencyPreserving = dependencyPreserving; }
+
+		public boolean isApproximate() { return approximate; }
+		public void setApproximate(boolean approximate) { this.approximate = approximate; }
+	}
+
+	private List<Candidate> candidates;
+	private int decompositionsFound;
+	private int decompositionsScored;
+	private boolean timedOut;
+	private long elapsedMillis;
+
+	public DecompositionSearchResponse() {}
+
+	public List<Candidate> getCandidates() { return candidates; }
+	public void setCandidates(List<Candidate> candidates) { this.candidates = candidates; }
+
+	public int getDecompositionsFound() { return decompositionsFound; }
+	public void setDecompositionsFound(int decompositionsFound) { this.decompositionsFound = decompositionsFound; }
+
+	public int getDecompositionsScored() { return decompositionsScored; }
+	public void setDecompositionsScored(int decompositionsScored) { this.decompositionsScored = decompositionsScored; }
+
+	public boolean isTimedOut() { return timedOut; }
+	public void setTimedOut(boolean timedOut) { this.timedOut = timedOut; }
+
+	public long getElapsedMillis() { return elapsedMillis; }
+	public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+}
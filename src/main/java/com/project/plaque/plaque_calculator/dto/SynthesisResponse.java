@@ -0,0 +1,25 @@
+package com.project.plaque.plaque_calculator.dto;
+
+import java.util.List;
+
+// 3NF synthesis result: column groups shaped like DecomposeAllRequest.tables, plus the checks of the decomposition
+public class SynthesisResponse {
+	private List<DecomposeRequest> tables;
+	private List<List<String>> tableAttributes;
+	private boolean losslessJoin;
+	private boolean dependencyPreserving;
+
+	public SynthesisResponse() {}
+
+	public List<DecomposeRequest> getTables() { return tables; }
+	public void setTables(List<DecomposeRequest> tables) { this.tables = tables; }
+
+	public List<List<String>> getTableAttributes() { return tableAttributes; }
+	public void setTableAttributes(List<List<String>> tableAttributes) { this.tableAttributes = tableAttributes; }
+
+	public boolean isLosslessJoin() { return losslessJoin; }
+	public void setLosslessJoin(boolean losslessJoin) { this.losslessJoin = losslessJoin; }
+
+	public boolean isDependencyPreserving() { return dependencyPreserving; }
+	public void setDependencyPreserving(boolean dependencyPreserving) { this.dependencyPreserving = dependencyPreserving; }
+}
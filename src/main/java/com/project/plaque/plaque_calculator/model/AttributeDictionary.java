@@ -0,0 +1,93 @@
+package com.project.plaque.plaque_calculator.model;
+
+import java.util.*;
+
+/**
+ * Maps the attribute names of one schema to dense indexes (0..n-1) for AttributeSet / EncodedFD.
+ * Indexes follow the order in which attributes were first seen, so encoding the relation's attributes
+ * first keeps their column order.
+ */
+public final class AttributeDictionary {
+
+	private final List<String> names;
+	private final Map<String, Integer> indexes;
+
+	private AttributeDictionary(List<String> names) {
+		this.names = List.copyOf(names);
+		Map<String, Integer> map = new HashMap<>();
+		for (int i = 0; i < this.names.size(); i++) {
+			map.put(this.names.get(i), i);
+		}
+		this.indexes = map;
+	}
+
+	// Attributes of the given collections (relation first), then every attribute mentioned by the FDs
+	public static AttributeDictionary of(Collection<String> attributes, Collection<FD> fds) {
+		LinkedHashSet<String> ordered = new LinkedHashSet<>();
+		if (attributes != null) ordered.addAll(attributes);
+		if (fds != null) {
+			for (FD fd : fds) {
+				ordered.addAll(fd.getLhs());
+				ordered.addAll(fd.getRhs());
+			}
+		}
+		return new AttributeDictionary(new ArrayList<>(ordered));
+	}
+
+	public int size() {
+		return names.size();
+	}
+
+	public int wordCount() {
+		return AttributeSet.wordCount(names.size());
+	}
+
+	public String name(int index) {
+		return names.get(index);
+	}
+
+	public List<String> names() {
+		return names;
+	}
+
+	// -1 for unknown attributes
+	public int indexOf(String name) {
+		Integer idx = indexes.get(name);
+		return idx == null ? -1 : idx;
+	}
+
+	public AttributeSet all() {
+		return AttributeSet.range(names.size());
+	}
+
+	// Unknown names are ignored
+	public AttributeSet encode(Collection<String> attributes) {
+		long[] words = new long[wordCount()];
+		for (String a : attributes) {
+			int idx = indexOf(a);
+			if (idx >= 0) words[idx >>> 6] |= 1L << idx;
+		}
+		return AttributeSet.fromWords(words);
+	}
+
+	public EncodedFD encode(FD fd) {
+		return new EncodedFD(encode(fd.getLhs()), encode(fd.getRhs()));
+	}
+
+	public List<EncodedFD> encodeAll(Collection<FD> fds) {
+		List<EncodedFD> out = new ArrayList<>(fds.size());
+		for (FD fd : fds) out.add(encode(fd));
+		return out;
+	}
+
+	// Names in dictionary order
+	public Set<String> decode(AttributeSet set) {
+		Set<String> out = new LinkedHashSet<>();
+		set.forEach(i -> out.add(names.get(i)));
+		return out;
+	}
+
+	public FD decode(EncodedFD fd) {
+		return new FD(decode(fd.getLhs()), decode(fd.getRhs()));
+	}
+}
@@ -0,0 +1,189 @@
+package com.project.plaque.plaque_calculator.model;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable set of attribute indexes of an AttributeDictionary, stored as a bitset.
+ * One long covers up to 64 attributes, wider schemas use more words. The hash is computed once.
+ * The words are never exposed; hot loops (closure) work on a long[] through orInto / isSubsetOf.
+ */
+public final class AttributeSet {
+
+	private static final AttributeSet EMPTY = new AttributeSet(new long[0]);
+
+	private final long[] words;
+	private final int hash;
+
+	private AttributeSet(long[] words) {
+		this.words = trim(words);
+		this.hash = Arrays.hashCode(this.words);
+	}
+
+	public static AttributeSet empty() {
+		return EMPTY;
+	}
+
+	public static AttributeSet of(int... indexes) {
+		long[] words = new long[0];
+		for (int index : indexes) {
+			words = set(words, index);
+		}
+		return new AttributeSet(words);
+	}
+
+	// All indexes 0..size-1
+	public static AttributeSet range(int size) {
+		long[] words = new long[wordCount(size)];
+		for (int i = 0; i < size; i++) {
+			words[i >>> 6] |= 1L << i;
+		}
+		return new AttributeSet(words);
+	}
+
+	// Snapshot of a mutable bitset (used by code that builds sets on a long[])
+	public static AttributeSet fromWords(long[] words) {
+		return new AttributeSet(words.clone());
+	}
+
+	// Indexes 0..63 given as a single mask word (subset lattice enumeration)
+	public static AttributeSet ofMask(long mask) {
+		return mask == 0 ? EMPTY : new AttributeSet(new long[]{mask});
+	}
+
+	public static int wordCount(int attributeCount) {
+		return (attributeCount + 63) >>> 6;
+	}
+
+	public boolean contains(int index) {
+		int w = index >>> 6;
+		return w < words.length && (words[w] & (1L << index)) != 0;
+	}
+
+	public AttributeSet with(int index) {
+		if (contains(index)) return this;
+		return new AttributeSet(set(words.clone(), index));
+	}
+
+	public AttributeSet without(int index) {
+		if (!contains(index)) return this;
+		long[] copy = words.clone();
+		copy[index >>> 6] &= ~(1L << index);
+		return new AttributeSet(copy);
+	}
+
+	public AttributeSet union(AttributeSet other) {
+		long[] longer = words.length >= other.words.length ? words : other.words;
+		long[] shorter = longer == words ? other.words : words;
+		long[] out = longer.clone();
+		for (int i = 0; i < shorter.length; i++) out[i] |= shorter[i];
+		return new AttributeSet(out);
+	}
+
+	public AttributeSet intersect(AttributeSet other) {
+		long[] out = new long[Math.min(words.length, other.words.length)];
+		for (int i = 0; i < out.length; i++) out[i] = words[i] & other.words[i];
+		return new AttributeSet(out);
+	}
+
+	public AttributeSet minus(AttributeSet other) {
+		long[] out = words.clone();
+		for (int i = 0; i < Math.min(out.length, other.words.length); i++) out[i] &= ~other.words[i];
+		return new AttributeSet(out);
+	}
+
+	public boolean containsAll(AttributeSet other) {
+		return other.isSubsetOf(words);
+	}
+
+	public boolean intersects(AttributeSet other) {
+		for (int i = 0; i < Math.min(words.length, other.words.length); i++) {
+			if ((words[i] & other.words[i]) != 0) return true;
+		}
+		return false;
+	}
+
+	// True when every attribute of this set is present in the given bitset
+	public boolean isSubsetOf(long[] target) {
+		for (int i = 0; i < words.length; i++) {
+			long t = i < target.length ? target[i] : 0L;
+			if ((words[i] & ~t) != 0) return false;
+		}
+		return true;
+	}
+
+	// target |= this; target must be wide enough for the dictionary
+	public void orInto(long[] target) {
+		for (int i = 0; i < words.length; i++) target[i] |= words[i];
+	}
+
+	// Copy of the words, padded to the given word count
+	public long[] toWords(int wordCount) {
+		return Arrays.copyOf(words, Math.max(wordCount, words.length));
+	}
+
+	public boolean isEmpty() {
+		return words.length == 0;
+	}
+
+	public int size() {
+		int count = 0;
+		for (long w : words) count += Long.bitCount(w);
+		return count;
+	}
+
+	public int nextSetBit(int from) {
+		int w = from >>> 6;
+		if (w >= words.length) return -1;
+		long word = words[w] & (-1L << from);
+		while (true) {
+			if (word != 0) return (w << 6) + Long.numberOfTrailingZeros(word);
+			if (++w == words.length) return -1;
+			word = words[w];
+		}
+	}
+
+	public void forEach(IntConsumer action) {
+		for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+			action.accept(i);
+		}
+	}
+
+	public int[] toArray() {
+		int[] out = new int[size()];
+		int k = 0;
+		for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) out[k++] = i;
+		return out;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof AttributeSet other)) return false;
+		return hash == other.hash && Arrays.equals(words, other.words);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+
+	private static long[] set(long[] words, int index) {
+		int w = index >>> 6;
+		if (w >= words.length) words = Arrays.copyOf(words, w + 1);
+		words[w] |= 1L << index;
+		return words;
+	}
+
+	// Trailing zero words are dropped, so equal sets always have equal arrays
+	private static long[] trim(long[] words) {
+		int len = words.length;
+		while (len > 0 && words[len - 1] == 0) len--;
+		return len == words.length ? words : Arrays.copyOf(words, len);
+	}
+}
@@ -0,0 +1,42 @@
+package com.project.plaque.plaque_calculator.model;
+
+/**
+ * Functional dependency over the attribute indexes of an AttributeDictionary.
+ * Immutable, equality and hash come from the two bitsets (hash cached).
+ */
+public final class EncodedFD {
+
+	private final AttributeSet lhs;
+	private final AttributeSet rhs;
+	private final int hash;
+
+	public EncodedFD(AttributeSet lhs, AttributeSet rhs) {
+		this.lhs = lhs;
+		this.rhs = rhs;
+		this.hash = 31 * lhs.hashCode() + rhs.hashCode();
+	}
+
+	public AttributeSet getLhs() { return lhs; }
+	public AttributeSet getRhs() { return rhs; }
+
+	public boolean isTrivial() {
+		return lhs.containsAll(rhs);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof EncodedFD other)) return false;
+		return hash == other.hash && lhs.equals(other.lhs) && rhs.equals(other.rhs);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return lhs + "->" + rhs;
+	}
+}
@@ -1,18 +1,25 @@
 package com.project.plaque.plaque_calculator.model;
 
+import java.util.Collections;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
 
+/**
+ * FD over attribute names, used for parsing, session state and display.
+ * Dependency computations encode FDs with an AttributeDictionary (see EncodedFD).
+ */
 public class FD {
 	private final Set<String> lhs;
 	private final Set<String> rhs;
+	// Computed on first use, FDs are probed in hash sets a lot
+	private transient int hash;
 
 	public FD(Set<String> lhs, Set<String> rhs) {
 		// By copying sets to TreeSet (ordered set), make the internal representation canonical (standardized)
-		this.lhs = new TreeSet<>(lhs);
-		this.rhs = new TreeSet<>(rhs);
+		this.lhs = Collections.unmodifiableSet(new TreeSet<>(lhs));
+		this.rhs = Collections.unmodifiableSet(new TreeSet<>(rhs));
 	}
 
 	public Set<String> getLhs() { return lhs; }
@@ -33,13 +40,18 @@ public class FD {
 		if (o == null || getClass() != o.getClass()) return false;
 		FD fd = (FD) o;
 		// For FDs to be equal, the contents of the LHS and RHS sets must be equal
-		return Objects.equals(lhs, fd.lhs) && Objects.equals(rhs, fd.rhs);
+		return hashCode() == fd.hashCode() && Objects.equals(lhs, fd.lhs) && Objects.equals(rhs, fd.rhs);
 	}
 
 	// Hashcode production (produced from LHS and RHS)
 	@Override
 	public int hashCode() {
-		// Determines the hashcode of the object based on the content of the sets
-		return Objects.hash(lhs, rhs);
+		// Determines the hashcode of the object based on the content of the sets, cached since FDs are immutable
+		int h = hash;
+		if (h == 0) {
+			h = Objects.hash(lhs, rhs);
+			hash = h;
+		}
+		return h;
 	}
 }
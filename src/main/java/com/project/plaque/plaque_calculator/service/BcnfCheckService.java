@@ -0,0 +1,148 @@
+package com.project.plaque.plaque_calculator.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpSessionEvent;
+import jakarta.servlet.http.HttpSessionListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BcnfCheckService: The exhaustive BCNF check (2^n subset scan) of an input whose FDs name columns outside the
+ * table, run after /compute answered.
+ * - The session holds a Status under "alreadyBcnf": PENDING until the scan finished, UNKNOWN when it did not
+ *   (time limit normalization.bcnf-check.time-limit-seconds, failure, or no free check thread)
+ * - At most normalization.bcnf-check.max-concurrent checks at once, each on its own daemon thread; further
+ *   checks are refused rather than queued behind a long scan. The scans share a fork/join pool
+ *   (normalization.bcnf-check.parallelism), not the common pool TANE, projection and the BCNF search share
+ * - At most one check per session; the next computation or the end of the session cancels it, which also
+ *   stops a running scan
+ */
+@Service
+public class BcnfCheckService implements HttpSessionListener {
+
+	// UNKNOWN is final like BCNF / NOT_BCNF and treated as not BCNF
+	public enum Status { PENDING, BCNF, NOT_BCNF, UNKNOWN }
+
+	public static final String SESSION_KEY = "alreadyBcnf";
+
+	private record Check(Future<?> future, AtomicBoolean cancelled) { }
+
+	private final NormalFormChecker normalFormChecker;
+	private final ForkJoinPool scanPool;
+	private final SubsetLattice lattice;
+	private final ThreadPoolExecutor executor;
+	private final long timeLimitNanos;
+	private final Map<String, Check> running = new ConcurrentHashMap<>();
+
+	public BcnfCheckService(NormalFormChecker normalFormChecker,
+							@Value("${normalization.bcnf-check.parallelism:2}") int parallelism,
+							@Value("${normalization.bcnf-check.max-concurrent:2}") int maxConcurrent,
+							@Value("${normalization.bcnf-check.time-limit-seconds:120}") int timeLimitSeconds) {
+		this.normalFormChecker = normalFormChecker;
+		this.scanPool = new ForkJoinPool(Math.max(1, parallelism));
+		this.lattice = new SubsetLattice(scanPool);
+		this.timeLimitNanos = TimeUnit.SECONDS.toNanos(Math.max(1, timeLimitSeconds));
+		int threads = Math.max(1, maxConcurrent);
+		AtomicInteger threadCount = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new SynchronousQueue<>(), r -> {
+			Thread t = new Thread(r, "bcnf-check-" + threadCount.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	// The session's status; missing means no computation yet (treated as not BCNF)
+	public static Status status(HttpSession session) {
+		Object stored = session.getAttribute(SESSION_KEY);
+		return stored instanceof Status status ? status : Status.NOT_BCNF;
+	}
+
+	public static void store(HttpSession session, boolean bcnf) {
+		session.setAttribute(SESSION_KEY, bcnf ? Status.BCNF : Status.NOT_BCNF);
+	}
+
+	/**
+	 * Marks the session PENDING and starts the scan of schema; the result is stored only while the session
+	 * still holds this schema. A scan past the time limit, a failing scan and a refused check store UNKNOWN.
+	 */
+	public void start(HttpSession session, CompiledSchema schema) {
+		String sessionId = session.getId();
+		cancel(sessionId);
+		session.setAttribute(SESSION_KEY, Status.PENDING);
+
+		AtomicBoolean cancelled = new AtomicBoolean();
+		FutureTask<Void> task = new FutureTask<>(() -> {
+			long start = System.nanoTime();
+			long deadline = start + timeLimitNanos;
+			Status result;
+			try {
+				Boolean bcnf = normalFormChecker.isBCNFComprehensive(schema, lattice,
+						() -> cancelled.get() || System.nanoTime() > deadline);
+				if (bcnf == null && cancelled.get()) return;
+				result = bcnf == null ? Status.UNKNOWN : bcnf ? Status.BCNF : Status.NOT_BCNF;
+				System.out.println("[BCNF] Subset check of " + schema.attributeOrder().size() + " attributes "
+						+ (bcnf == null ? "stopped at the time limit" : "finished") + " after "
+						+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms: " + result);
+			} catch (Throwable ex) {
+				System.out.println("[BCNF] Subset check of " + schema.attributeOrder().size() + " attributes failed: " + ex);
+				result = Status.UNKNOWN;
+			}
+			try {
+				if (!cancelled.get() && session.getAttribute(CompiledSchema.SESSION_KEY) == schema) {
+					session.setAttribute(SESSION_KEY, result);
+				}
+			} catch (IllegalStateException invalidated) {
+				// Session ended meanwhile
+			}
+		}, null) {
+			@Override
+			protected void done() {
+				running.computeIfPresent(sessionId, (id, check) -> check.future() == this ? null : check);
+			}
+		};
+		Check check = new Check(task, cancelled);
+		running.put(sessionId, check);
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException busy) {
+			running.remove(sessionId, check);
+			session.setAttribute(SESSION_KEY, Status.UNKNOWN);
+			System.out.println("[BCNF] Subset check refused, all check threads busy (session " + sessionId + ")");
+		}
+	}
+
+	public boolean isPending(String sessionId) {
+		Check check = sessionId == null ? null : running.get(sessionId);
+		return check != null && !check.future().isDone();
+	}
+
+	// The scan polls the flag, so a running check stops within a few subsets
+	public void cancel(String sessionId) {
+		if (sessionId == null) return;
+		Check previous = running.remove(sessionId);
+		if (previous != null) {
+			previous.cancelled().set(true);
+			previous.future().cancel(false);
+			executor.remove((Runnable) previous.future());
+		}
+	}
+
+	// A session that ends stops its scan, nobody reads the result anymore
+	@Override
+	public void sessionDestroyed(HttpSessionEvent event) {
+		cancel(event.getSession().getId());
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+		scanPool.shutdownNow();
+	}
+}
@@ -0,0 +1,128 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import com.project.plaque.plaque_calculator.model.EncodedFD;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * BcnfDecompositionSearch: The BCNF decompositions reachable by splitting on violating FDs, not just the textbook one.
+ * - A schema S that is not in BCNF is split on every minimal violating determinant X of its projected FDs:
+ *   S1 = X+ ∩ S and S2 = X ∪ (S \ X+), each split is lossless. The first split is the textbook choice
+ * - Alternatives of a schema are memoized by attribute set (the same sub-schema is reached through many
+ *   split orders), the splits of a schema are explored in parallel on the SubsetLattice pool
+ * - At most maxAlternatives decompositions are kept per schema; after the deadline only the first split
+ *   is followed, so the search always completes with at least the textbook decomposition
+ * Decompositions are lists of schemas in a canonical order, without schemas contained in another one.
+ */
+public final class BcnfDecompositionSearch {
+
+	private final List<EncodedFD> fds;
+	private final UnaryOperator<AttributeSet> closure;
+	private final SubsetLattice lattice;
+	private final int maxAlternatives;
+	private final long deadlineNanos;
+	private final Map<AttributeSet, List<List<AttributeSet>>> memo = new ConcurrentHashMap<>();
+	private volatile boolean timedOut;
+
+	/**
+	 * @param fds FDs over the relation
+	 * @param closure closure operator of the FDs
+	 * @param deadlineNanos System.nanoTime() after which only textbook splits are made
+	 */
+	public BcnfDecompositionSearch(List<EncodedFD> fds, UnaryOperator<AttributeSet> closure, SubsetLattice lattice,
+								   int maxAlternatives, long deadlineNanos) {
+		this.fds = List.copyOf(fds);
+		this.closure = closure;
+		this.lattice = lattice;
+		this.maxAlternatives = Math.max(1, maxAlternatives);
+		this.deadlineNanos = deadlineNanos;
+	}
+
+	// True if the deadline cut the search short
+	public boolean timedOut() {
+		return timedOut;
+	}
+
+	// Number of distinct schemas examined
+	public int exploredSchemas() {
+		return memo.size();
+	}
+
+	public List<List<AttributeSet>> decompositions(AttributeSet schema) {
+		List<List<AttributeSet>> cached = memo.get(schema);
+		if (cached != null) return cached;
+
+		List<AttributeSet[]> splits = splits(schema);
+		List<List<AttributeSet>> result;
+		if (splits.isEmpty()) {
+			result = List.of(List.of(schema));
+		} else {
+			if (splits.size() > 1 && System.nanoTime() > deadlineNanos) {
+				timedOut = true;
+				splits = splits.subList(0, 1);
+			}
+			List<AttributeSet[]> chosen = splits;
+			List<List<List<AttributeSet>>> perSplit = lattice.map(chosen.size(),
+					i -> combine(decompositions(chosen.get(i)[0]), decompositions(chosen.get(i)[1])));
+			LinkedHashSet<List<AttributeSet>> merged = new LinkedHashSet<>();
+			for (List<List<AttributeSet>> alternatives : perSplit) {
+				for (List<AttributeSet> alternative : alternatives) {
+					if (merged.size() >= maxAlternatives) break;
+					merged.add(alternative);
+				}
+			}
+			result = List.copyOf(merged);
+		}
+		memo.put(schema, result);
+		return result;
+	}
+
+	private List<AttributeSet[]> splits(AttributeSet schema) {
+		return splits(schema, fds, closure, lattice);
+	}
+
+	// One split per distinct minimal violating determinant, in the order of the projected FDs
+	static List<AttributeSet[]> splits(AttributeSet schema, List<EncodedFD> fds, UnaryOperator<AttributeSet> closure,
+									   SubsetLattice lattice) {
+		List<AttributeSet[]> out = new ArrayList<>();
+		if (schema.size() <= 2) return out; // two attributes are always in BCNF
+		Set<AttributeSet> seen = new HashSet<>();
+		for (EncodedFD fd : FDProjection.project(schema, fds, closure, lattice)) {
+			AttributeSet x = fd.getLhs();
+			AttributeSet determined = closure.apply(x).intersect(schema);
+			if (determined.containsAll(schema) || !seen.add(x)) continue;
+			out.add(new AttributeSet[]{determined, x.union(schema.minus(determined))});
+		}
+		return out;
+	}
+
+	private List<List<AttributeSet>> combine(List<List<AttributeSet>> left, List<List<AttributeSet>> right) {
+		LinkedHashSet<List<AttributeSet>> out = new LinkedHashSet<>();
+		for (List<AttributeSet> l : left) {
+			for (List<AttributeSet> r : right) {
+				if (out.size() >= maxAlternatives) return new ArrayList<>(out);
+				List<AttributeSet> joined = new ArrayList<>(l);
+				joined.addAll(r);
+				out.add(canonical(joined));
+			}
+		}
+		return new ArrayList<>(out);
+	}
+
+	// Subsumed schemas dropped, the rest sorted by attribute indexes
+	static List<AttributeSet> canonical(List<AttributeSet> schemas) {
+		List<AttributeSet> kept = new ArrayList<>();
+		for (AttributeSet schema : new LinkedHashSet<>(schemas)) {
+			boolean subsumed = false;
+			for (AttributeSet other : schemas) {
+				subsumed |= !other.equals(schema) && other.containsAll(schema);
+			}
+			if (!subsumed) kept.add(schema);
+		}
+		kept.sort((a, b) -> Arrays.compare(a.toArray(), b.toArray()));
+		return List.copyOf(kept);
+	}
+}
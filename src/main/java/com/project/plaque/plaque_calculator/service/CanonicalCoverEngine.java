@@ -0,0 +1,147 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.AttributeDictionary;
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import com.project.plaque.plaque_calculator.model.EncodedFD;
+import com.project.plaque.plaque_calculator.model.FD;
+
+import java.util.*;
+
+/**
+ * CanonicalCoverEngine: Closure-based analysis of an FD set on the bitset encoding, memoized per FD-set fingerprint.
+ * - Minimal cover: singleton right-hand sides, no extraneous LHS attribute, no redundant FD
+ * - Derived dependencies (what the UI shows as inferred FDs), X→Z for every left-hand side X of the set
+ *   (unless given or trivial) where Z is the RHS of an FD Y→Z and either
+ *   - Y is reached from X by a chain of exact RHS/LHS matches (the previous pairwise search), or
+ *   - Y ⊆ X+ and Y ⊄ X (chains that only match through a closure, e.g. A→B, A→C, B,C→D gives A→D)
+ * One closure index per FD set, one closure and one chain walk per distinct LHS for the derived FDs,
+ * O(|F| · |attributes|) closures for the cover.
+ */
+public final class CanonicalCoverEngine {
+
+	public record CoverResult(List<FD> minimalCover, List<FD> derived) { }
+
+	private static final int MAX_CACHED_SETS = 128;
+
+	private final Map<FDSetFingerprint, CoverResult> cache = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<FDSetFingerprint, CoverResult> eldest) {
+			return size() > MAX_CACHED_SETS;
+		}
+	};
+
+	public CoverResult analyze(List<FD> fds) {
+		FDSetFingerprint fingerprint = FDSetFingerprint.of(fds);
+		synchronized (cache) {
+			CoverResult cached = cache.get(fingerprint);
+			if (cached != null) return cached;
+		}
+		CoverResult result = compute(fds);
+		synchronized (cache) {
+			cache.put(fingerprint, result);
+		}
+		return result;
+	}
+
+	private CoverResult compute(List<FD> fds) {
+		// Sorted dictionary and deduplicated FDs, so equal FD sets give identical results
+		TreeSet<String> attributes = new TreeSet<>();
+		for (FD fd : fds) {
+			attributes.addAll(fd.getLhs());
+			attributes.addAll(fd.getRhs());
+		}
+		AttributeDictionary dictionary = AttributeDictionary.of(attributes, List.of());
+		List<EncodedFD> encoded = new ArrayList<>(new LinkedHashSet<>(dictionary.encodeAll(fds)));
+		FDClosureIndex index = FDClosureIndex.of(encoded, dictionary.size());
+
+		return new CoverResult(
+				decodeSorted(dictionary, minimalCover(encoded, dictionary.size())),
+				decodeSorted(dictionary, derived(encoded, index)));
+	}
+
+	private List<EncodedFD> derived(List<EncodedFD> fds, FDClosureIndex index) {
+		Set<EncodedFD> given = new HashSet<>(fds);
+		Map<AttributeSet, List<EncodedFD>> byLhs = new HashMap<>();
+		for (EncodedFD fd : fds) {
+			byLhs.computeIfAbsent(fd.getLhs(), k -> new ArrayList<>()).add(fd);
+		}
+
+		Set<EncodedFD> derived = new LinkedHashSet<>();
+		for (AttributeSet x : byLhs.keySet()) {
+			// Exact chains X→Y, Y→Z, ... (what the pairwise search found), also through right-hand sides inside X
+			Set<AttributeSet> reached = new HashSet<>();
+			Deque<AttributeSet> queue = new ArrayDeque<>();
+			queue.add(x);
+			reached.add(x);
+			while (!queue.isEmpty()) {
+				for (EncodedFD step : byLhs.getOrDefault(queue.poll(), List.of())) {
+					addDerived(derived, given, x, step.getRhs());
+					if (reached.add(step.getRhs())) queue.add(step.getRhs());
+				}
+			}
+
+			// Chains through the closure: Y→Z with Y ⊆ X+ and Y ⊄ X
+			AttributeSet closure = index.closure(x);
+			for (EncodedFD step : fds) {
+				AttributeSet y = step.getLhs();
+				if (!x.containsAll(y) && closure.containsAll(y)) {
+					addDerived(derived, given, x, step.getRhs());
+				}
+			}
+		}
+		return new ArrayList<>(derived);
+	}
+
+	private void addDerived(Set<EncodedFD> derived, Set<EncodedFD> given, AttributeSet lhs, AttributeSet rhs) {
+		EncodedFD candidate = new EncodedFD(lhs, rhs);
+		if (!candidate.isTrivial() && !given.contains(candidate)) {
+			derived.add(candidate);
+		}
+	}
+
+	// Minimal cover of an encoded FD set, in the order of the given FDs (also used by ThreeNFSynthesis)
+	static List<EncodedFD> minimalCover(List<EncodedFD> fds, int attributeCount) {
+		// 1. Singleton right-hand sides, trivial parts dropped
+		LinkedHashSet<EncodedFD> split = new LinkedHashSet<>();
+		for (EncodedFD fd : fds) {
+			AttributeSet rhs = fd.getRhs().minus(fd.getLhs());
+			rhs.forEach(a -> split.add(new EncodedFD(fd.getLhs(), AttributeSet.of(a))));
+		}
+		List<EncodedFD> cover = new ArrayList<>(split);
+		FDClosureIndex full = FDClosureIndex.of(cover, attributeCount);
+
+		// 2. Extraneous LHS attributes (closure under the unchanged set)
+		LinkedHashSet<EncodedFD> reduced = new LinkedHashSet<>();
+		for (EncodedFD fd : cover) {
+			AttributeSet lhs = fd.getLhs();
+			for (int a : lhs.toArray()) {
+				AttributeSet without = lhs.without(a);
+				if (full.closure(without).containsAll(fd.getRhs())) {
+					lhs = without;
+				}
+			}
+			reduced.add(new EncodedFD(lhs, fd.getRhs()));
+		}
+
+		// 3. Redundant FDs (implied by the remaining ones)
+		List<EncodedFD> result = new ArrayList<>(reduced);
+		for (int i = 0; i < result.size(); ) {
+			EncodedFD candidate = result.get(i);
+			List<EncodedFD> others = new ArrayList<>(result);
+			others.remove(i);
+			if (FDClosureIndex.of(others, attributeCount).closure(candidate.getLhs()).containsAll(candidate.getRhs())) {
+				result = others;
+			} else {
+				i++;
+			}
+		}
+		return result;
+	}
+
+	private List<FD> decodeSorted(AttributeDictionary dictionary, List<EncodedFD> fds) {
+		List<FD> out = new ArrayList<>(fds.size());
+		for (EncodedFD fd : fds) out.add(dictionary.decode(fd));
+		out.sort(Comparator.comparing(FD::toString));
+		return List.copyOf(out);
+	}
+}
@@ -0,0 +1,198 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.AttributeDictionary;
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import com.project.plaque.plaque_calculator.model.EncodedFD;
+import com.project.plaque.plaque_calculator.model.FD;
+import jakarta.servlet.http.HttpSession;
+
+import java.util.*;
+
+/**
+ * CompiledSchema: Immutable dependency analysis of one relation, built once and shared by reference.
+ * - Attribute dictionary (relation attributes take the indexes 0..n-1), original and transitive FDs
+ * - Closure operator over original + transitive FDs (memoized in the shared FDClosureCache)
+ * - Candidate keys (KeyEnumerator, lazily) and the normal-form analysis are computed on first use and kept
+ * ComputeController stores the schema of the input table in the session (SESSION_KEY), pages and services
+ * read it from there instead of repeating the analysis.
+ */
+public final class CompiledSchema {
+
+	public static final String SESSION_KEY = "compiledSchema";
+
+	private final List<String> attributeOrder;
+	private final AttributeDictionary dictionary;
+	private final AttributeSet relation;
+	private final List<FD> originalFds;
+	private final List<FD> transitiveFds;
+	private final List<FD> allFds;
+	private final List<EncodedFD> encodedFds;
+	private final boolean fdsInsideRelation;
+	private final FDClosureCache.SchemaClosure closure;
+	private final SubsetLattice lattice;
+
+	private volatile KeyEnumerator keyEnumerator;
+	private volatile List<AttributeSet> candidateKeys;
+	private volatile NormalFormAnalysis analysis;
+
+	CompiledSchema(Collection<String> attributes, List<FD> fds, FDService fdService) {
+		this.attributeOrder = List.copyOf(new LinkedHashSet<>(attributes));
+		this.originalFds = fds == null ? List.of() : List.copyOf(fds);
+		this.transitiveFds = List.copyOf(fdService.findTransitiveFDs(originalFds));
+		Set<FD> all = new LinkedHashSet<>(originalFds);
+		all.addAll(transitiveFds);
+		this.allFds = List.copyOf(all);
+		this.dictionary = AttributeDictionary.of(attributeOrder, allFds);
+		this.relation = AttributeSet.range(attributeOrder.size());
+		this.encodedFds = List.copyOf(dictionary.encodeAll(originalFds));
+		this.fdsInsideRelation = encodedFds.stream()
+				.allMatch(fd -> relation.containsAll(fd.getLhs()) && relation.containsAll(fd.getRhs()));
+		this.closure = fdService.prepareClosure(allFds, dictionary);
+		this.lattice = fdService.lattice();
+	}
+
+	/**
+	 * The session's compiled input schema, or a freshly compiled (and stored) one when it is missing
+	 * or was built for other FDs / attributes than the ones currently in the session.
+	 */
+	public static CompiledSchema fromSession(HttpSession session, FDService fdService) {
+		@SuppressWarnings("unchecked")
+		List<FD> fds = (List<FD>) session.getAttribute("originalFDs");
+		@SuppressWarnings("unchecked")
+		List<String> attrOrder = (List<String>) session.getAttribute("originalAttrOrder");
+		List<FD> safeFds = fds == null ? List.of() : fds;
+		List<String> safeOrder = attrOrder == null ? List.of() : attrOrder;
+
+		Object stored = session.getAttribute(SESSION_KEY);
+		if (stored instanceof CompiledSchema schema && schema.matches(safeOrder, safeFds)) {
+			return schema;
+		}
+		CompiledSchema schema = fdService.compile(safeOrder, safeFds);
+		session.setAttribute(SESSION_KEY, schema);
+		return schema;
+	}
+
+	private boolean matches(List<String> attrOrder, List<FD> fds) {
+		return attributeOrder.equals(new ArrayList<>(new LinkedHashSet<>(attrOrder))) && originalFds.equals(fds);
+	}
+
+	public List<String> attributeOrder() {
+		return attributeOrder;
+	}
+
+	public Set<String> attributes() {
+		return new LinkedHashSet<>(attributeOrder);
+	}
+
+	public AttributeDictionary dictionary() {
+		return dictionary;
+	}
+
+	public AttributeSet relation() {
+		return relation;
+	}
+
+	public List<FD> originalFds() {
+		return originalFds;
+	}
+
+	public List<FD> transitiveFds() {
+		return transitiveFds;
+	}
+
+	// Original FDs followed by the transitive ones, without duplicates
+	public List<FD> allFds() {
+		return allFds;
+	}
+
+	// Original FDs in the dictionary's encoding
+	public List<EncodedFD> encodedFds() {
+		return encodedFds;
+	}
+
+	// True if the original FDs are defined over the relation itself (no attribute outside it)
+	public boolean fdsInsideRelation() {
+		return fdsInsideRelation;
+	}
+
+	public AttributeSet closure(AttributeSet x) {
+		return closure.closure(x);
+	}
+
+	public SubsetLattice lattice() {
+		return lattice;
+	}
+
+	public boolean isSuperkey(AttributeSet x) {
+		return closure.closure(x).containsAll(relation);
+	}
+
+	// Candidate keys sorted by size, then by attribute indexes
+	public List<AttributeSet> candidateKeys() {
+		List<AttributeSet> keys = candidateKeys;
+		if (keys == null) {
+			List<AttributeSet> sorted = new ArrayList<>(keyEnumerator().all());
+			sorted.sort(Comparator.comparingInt(AttributeSet::size).thenComparing(CompiledSchema::compareIndexes));
+			keys = List.copyOf(sorted);
+			candidateKeys = keys;
+		}
+		return keys;
+	}
+
+	// Lazily enumerated keys (Lucchesi–Osborn), for callers that can stop early
+	public KeyEnumerator keyEnumerator() {
+		KeyEnumerator enumerator = keyEnumerator;
+		if (enumerator == null) {
+			synchronized (this) {
+				enumerator = keyEnumerator;
+				if (enumerator == null) {
+					enumerator = new KeyEnumerator(relation, relationFds(), closure::closure);
+					keyEnumerator = enumerator;
+				}
+			}
+		}
+		return enumerator;
+	}
+
+	public boolean isPrime(int attribute) {
+		return keyEnumerator().isPrime(attribute);
+	}
+
+	public AttributeSet primeAttributes() {
+		return keyEnumerator().primeAttributes();
+	}
+
+	/**
+	 * Compiled schema of a sub-relation (attributes of this one), with this schema's FDs projected onto it as its
+	 * FDs: the minimal projected cover, found with this schema's closure. Nested normalization starts from there
+	 * instead of the input's FDs, so its cost follows the sub-relation.
+	 */
+	public CompiledSchema project(Collection<String> attributes, FDService fdService) {
+		AttributeSet sub = dictionary.encode(attributes);
+		List<FD> projected = new ArrayList<>();
+		for (EncodedFD fd : FDProjection.project(sub, encodedFds, closure::closure, lattice)) {
+			projected.add(dictionary.decode(fd));
+		}
+		return fdService.compile(attributes, projected);
+	}
+
+	// The original FDs if they stay inside the relation, otherwise their projection onto it
+	List<EncodedFD> relationFds() {
+		return fdsInsideRelation
+				? encodedFds
+				: FDProjection.project(relation, dictionary.encodeAll(allFds), closure::closure, lattice);
+	}
+
+	private static int compareIndexes(AttributeSet a, AttributeSet b) {
+		return Arrays.compare(a.toArray(), b.toArray());
+	}
+
+	// Cached by NormalFormChecker.analyze(CompiledSchema)
+	NormalFormAnalysis analysis() {
+		return analysis;
+	}
+
+	void analysis(NormalFormAnalysis analysis) {
+		this.analysis = analysis;
+	}
+}
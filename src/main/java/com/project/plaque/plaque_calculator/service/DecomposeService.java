@@ -6,11 +6,23 @@ import com.project.plaque.plaque_calculator.dto.DecomposeAllRequest;
 import com.project.plaque.plaque_calculator.dto.DecomposeAllResponse;
 import com.project.plaque.plaque_calculator.dto.DecomposeRequest;
 import com.project.plaque.plaque_calculator.dto.DecomposeResponse;
+import com.project.plaque.plaque_calculator.dto.SynthesisResponse;
+import com.project.plaque.plaque_calculator.model.AttributeDictionary;
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import com.project.plaque.plaque_calculator.model.EncodedFD;
 import com.project.plaque.plaque_calculator.model.FD;
 import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -18,15 +30,30 @@ import java.util.stream.Collectors;
 public class DecomposeService {
 
 	private static final String HISTORY_SESSION_KEY = "decompositionHistory";
+	private static final int MAX_NESTED_SCHEMAS = 64;
 	private final FDService fdService;
 	private final RicService ricService;
 	private final NormalFormChecker normalFormChecker;
 	private final Gson gson = new Gson();
+	// decompose-all pipeline: global RIC and the tables of a stream run side by side, at most this many at once
+	private final int pipelineParallelism;
 
-	public DecomposeService(FDService fdService, RicService ricService, NormalFormChecker normalFormChecker) {
+	public DecomposeService(FDService fdService, RicService ricService, NormalFormChecker normalFormChecker,
+							@Value("${normalization.pipeline.parallelism:8}") int pipelineParallelism) {
 		this.fdService = fdService;
 		this.ricService = ricService;
 		this.normalFormChecker = normalFormChecker;
+		this.pipelineParallelism = Math.max(1, pipelineParallelism);
+	}
+
+	// Pool of one decompose-all stream, shut down once its tables and global RIC are joined
+	private ExecutorService pipelinePool(int tasks) {
+		AtomicInteger threadCount = new AtomicInteger();
+		return Executors.newFixedThreadPool(Math.min(tasks, pipelineParallelism), r -> {
+			Thread t = new Thread(r, "decompose-pipeline-" + threadCount.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
 	}
 
 	public DecomposeResponse decompose(DecomposeRequest req, HttpSession session) {
@@ -49,46 +76,10 @@ public class DecomposeService {
 				: req.getBaseColumns();
 		System.out.println("req baseColumns = " + (baseColumns.isEmpty() ? "<empty>" : baseColumns));
 
-		List<String> scopedAttrOrder;
-		List<FD> scopedOriginalFds;
-		Set<String> scopedOriginalAttrs;
-
-		if (!baseColumns.isEmpty()) {
-			List<Integer> normalized = baseColumns.stream()
-					.filter(Objects::nonNull)
-					.map(Number::intValue)
-					.filter(idx -> idx >= 0 && idx < originalAttrOrder.size())
-					.distinct()
-					.sorted()
-					.collect(Collectors.toList());
-
-			if (normalized.isEmpty()) {
-				throw new IllegalArgumentException("baseColumns contained no valid indices");
-			}
-
-			scopedAttrOrder = normalized.stream()
-					.map(originalAttrOrder::get)
-					.collect(Collectors.toCollection(ArrayList::new));
-			scopedOriginalAttrs = new LinkedHashSet<>(scopedAttrOrder);
-
-			List<FD> allFds = new ArrayList<>(originalFDs);
-			Set<FD> transitive = new LinkedHashSet<>(fdService.findTransitiveFDs(originalFDs));
-			allFds.addAll(transitive);
-			scopedOriginalFds = allFds.stream()
-					.filter(fd -> scopedOriginalAttrs.containsAll(fd.getLhs()) && scopedOriginalAttrs.containsAll(fd.getRhs()))
-					.map(fd -> new FD(new LinkedHashSet<>(fd.getLhs()), new LinkedHashSet<>(fd.getRhs())))
-					.collect(Collectors.toCollection(ArrayList::new));
-		} else {
-			scopedAttrOrder = new ArrayList<>(originalAttrOrder);
-			scopedOriginalFds = new ArrayList<>(originalFDs);
-			@SuppressWarnings("unchecked")
-			Set<String> originalAttrs = (Set<String>) session.getAttribute("originalAttrs");
-			if (originalAttrs == null) {
-				originalAttrs = new LinkedHashSet<>(originalAttrOrder);
-				session.setAttribute("originalAttrs", originalAttrs);
-			}
-			scopedOriginalAttrs = new LinkedHashSet<>(originalAttrs);
-		}
+		Scope scope = scope(baseColumns, originalFDs, originalAttrOrder, session);
+		List<String> scopedAttrOrder = scope.attrOrder();
+		List<FD> scopedOriginalFds = scope.fds();
+		Set<String> scopedOriginalAttrs = new LinkedHashSet<>(scopedAttrOrder);
 
 		System.out.println("DecomposeService: scoped originalAttrOrder = " + scopedAttrOrder);
 		System.out.println("DecomposeService: scoped originalFDs = " + scopedOriginalFds);
@@ -104,12 +95,10 @@ public class DecomposeService {
 				.collect(Collectors.toCollection(LinkedHashSet::new));
 		System.out.println("DecomposeService: projected attrs = " + attrs);
 
-		List<FD> projected = projectFDsByClosure(attrs, scopedOriginalFds);
-		System.out.println("DecomposeService: projected (pre-minimize) = " + projected);
-		projected = minimizeLhsForFds(projected, scopedOriginalFds);
-		System.out.println("DecomposeService: projected (minimized) = " + projected);
+		List<FD> projected = projectIncrementally(scope, attrs, SpeculationCache.of(session, fdService));
+		System.out.println("DecomposeService: projected (minimal) = " + projected);
 
-		boolean dpPreserved = checkDependencyPreserving(scopedOriginalFds, projected);
+		boolean dpPreserved = checkDependencyPreserving(scopedOriginalFds, List.of(attrs));
 		System.out.println("DecomposeService: dependency-preserved = " + dpPreserved);
 
 		Set<String> originalAttrs;
@@ -133,6 +122,20 @@ public class DecomposeService {
 		boolean ljPreserved = checkLosslessDecomposition(originalAttrs, schemas, scopedOriginalFds);
 		System.out.println("DecomposeService: lossless-join = " + ljPreserved);
 
+		DecomposeResponse ric = computeTableRic(req, cols, session, progressListener, tableLabel);
+
+		List<String> fdsStr = projected.stream()
+				.map(this::fdToString)
+				.collect(Collectors.toList());
+
+		DecomposeResponse resp = new DecomposeResponse(ric.getRicMatrix(), fdsStr, ric.getSteps());
+		System.out.println("DecomposeService.decomposeWithProgress: done -> " + resp);
+		return resp;
+	}
+
+	// RIC of one decomposed table (manual data from the request or projected from the session), steps prefixed with the label
+	private DecomposeResponse computeTableRic(DecomposeRequest req, List<Integer> cols, HttpSession session,
+											  Consumer<String> progressListener, String tableLabel) {
 		boolean manualProvided = req.getManualData() != null && !req.getManualData().isBlank();
 		String manualDataPayload = manualProvided
 				? sanitizeManualDataString(req.getManualData())
@@ -156,12 +159,13 @@ public class DecomposeService {
 			}
 		};
 
-		RicService.RicComputationResult ricResult = ricService.computeRicAdaptive(
+		RicService.RicComputationResult ricResult = computeRic(
 				manualDataPayload,
 				normalizedFds,
 				req.isMonteCarlo(),
 				req.getSamples(),
-				internalCallback
+				internalCallback,
+				SpeculationCache.of(session, fdService)
 		);
 
 		List<String> sourceSteps = ricResult.steps() != null ? ricResult.steps() : collectedSteps;
@@ -171,17 +175,26 @@ public class DecomposeService {
 
 		double[][] ricMatrix = ricResult.matrix();
 
-		List<String> fdsStr = projected.stream()
-				.map(this::fdToString)
-				.collect(Collectors.toList());
-
-		DecomposeResponse resp = new DecomposeResponse(ricMatrix, fdsStr, prefixedSteps);
-		System.out.println("DecomposeService.decomposeWithProgress: done -> " + resp);
-		return resp;
+		return new DecomposeResponse(ricMatrix, null, prefixedSteps);
 	}
 
 	// DecomposeService.decomposeAll
 	public DecomposeAllResponse decomposeAll(DecomposeAllRequest req, HttpSession session) {
+		return decomposeAll(req, session, false, message -> { });
+	}
+
+	/**
+	 * decompose-all for the progress stream, with the RIC of every table as /normalize/decompose computes it.
+	 * The global RIC and the tables run concurrently on a pool of the stream's own, the aggregate is built from the
+	 * per-table results (their RIC matrices and steps included). Progress messages are labelled per table.
+	 */
+	public DecomposeAllResponse decomposeAllWithProgress(DecomposeAllRequest req, HttpSession session,
+														 Consumer<String> progressListener) {
+		return decomposeAll(req, session, true, progressListener);
+	}
+
+	private DecomposeAllResponse decomposeAll(DecomposeAllRequest req, HttpSession session, boolean tableRic,
+											  Consumer<String> progress) {
 		System.out.println("DecomposeService.decomposeAll: start");
 
 		// Original FDs & attrs
@@ -189,52 +202,9 @@ public class DecomposeService {
 		List<String> originalAttrOrder = getOriginalAttrOrder(session);
 
 		// When present, baseColumns signals that validating a nested relation
-		List<Integer> baseColumns = req.getBaseColumns();
-		if (baseColumns == null) baseColumns = Collections.emptyList();
-		List<String> scopedAttrOrder;
-		List<FD> scopedOriginalFds;
-		Set<String> scopedOriginalAttrs;
-
-		if (!baseColumns.isEmpty()) {
-			// Map incoming column indices to the original attribute names for the scoped relation
-			List<Integer> normalized = baseColumns.stream()
-				.filter(Objects::nonNull)
-				.map(Number::intValue)
-				.filter(idx -> idx >= 0 && idx < originalAttrOrder.size())
-				.distinct()
-				.sorted()
-				.collect(Collectors.toList());
-
-			if (normalized.isEmpty()) {
-				throw new IllegalArgumentException("baseColumns contained no valid indices");
-			}
-
-			scopedAttrOrder = normalized.stream()
-				.map(originalAttrOrder::get)
-				.collect(Collectors.toCollection(ArrayList::new));
-
-			scopedOriginalAttrs = new LinkedHashSet<>(scopedAttrOrder);
-
-			// Include transitive FDs so that projected subsets retain necessary implications
-			List<FD> allFds = new ArrayList<>(originalFDs);
-			Set<FD> transitive = new LinkedHashSet<>(fdService.findTransitiveFDs(originalFDs));
-			allFds.addAll(transitive);
-
-			scopedOriginalFds = allFds.stream()
-				.filter(fd -> scopedOriginalAttrs.containsAll(fd.getLhs()) && scopedOriginalAttrs.containsAll(fd.getRhs()))
-				.map(fd -> new FD(new LinkedHashSet<>(fd.getLhs()), new LinkedHashSet<>(fd.getRhs())))
-				.collect(Collectors.toCollection(ArrayList::new));
-		} else {
-			scopedAttrOrder = new ArrayList<>(originalAttrOrder);
-			scopedOriginalFds = new ArrayList<>(originalFDs);
-			@SuppressWarnings("unchecked")
-			Set<String> originalAttrs = (Set<String>) session.getAttribute("originalAttrs");
-			if (originalAttrs == null) {
-				originalAttrs = new LinkedHashSet<>(originalAttrOrder);
-				session.setAttribute("originalAttrs", originalAttrs);
-			}
-			scopedOriginalAttrs = new LinkedHashSet<>(scopedAttrOrder);
-		}
+		Scope scope = scope(req.getBaseColumns(), originalFDs, originalAttrOrder, session);
+		Set<String> scopedOriginalAttrs = new LinkedHashSet<>(scope.attrOrder());
+		SpeculationCache cache = SpeculationCache.of(session, fdService);
 
 		// Take tables request
 		List<DecomposeRequest> tables = req.getTables();
@@ -263,26 +233,7 @@ public class DecomposeService {
 		// Build table attribute sets (mapped to attribute names) and canonicalize (ordering)
 		List<Set<String>> tableAttrSets = new ArrayList<>(tables.size());
 		for (DecomposeRequest dr : tables) {
-			List<Integer> cols = dr.getColumns() == null ? Collections.emptyList() : dr.getColumns();
-			// Normalize indices (numbers)
-			List<Integer> colsNum = cols.stream().map(n -> n == null ? -1 : n).collect(Collectors.toList());
-
-			LinkedHashSet<String> attrs = colsNum.stream()
-					.map(i -> {
-						if (i < 0 || i >= originalAttrOrder.size()) {
-							throw new IllegalArgumentException("Column index out of range: " + i);
-						}
-						return originalAttrOrder.get(i);
-					})
-					// Preserves insertion
-					.collect(Collectors.toCollection(LinkedHashSet::new));
-
-			// Canonicalize by sorting attribute names
-			List<String> tmp = new ArrayList<>(attrs);
-			Collections.sort(tmp);
-			LinkedHashSet<String> canonical = new LinkedHashSet<>(tmp);
-
-			tableAttrSets.add(canonical);
+			tableAttrSets.add(tableAttributes(dr.getColumns(), originalAttrOrder));
 		}
 
 		// unionAttrs = union of all table attributes (should equal originalAttrs if validated above)
@@ -338,87 +289,346 @@ public class DecomposeService {
 		System.out.println("DecomposeService.decomposeAll: built manualData for global RIC = " + builtManual);
 		System.out.println("DecomposeService.decomposeAll: passing topFds = '" + topFds + "' to RicService");
 
-		// Compute global RIC with adaptive fallbacks, passing top-level FDs
-		List<String> globalRicSteps = new ArrayList<>();
-		RicService.RicComputationResult globalRicResult = ricService.computeRicAdaptive(
-				builtManual,
-				topFds,
-				req.isMonteCarlo(),
-				req.getSamples(),
-				message -> {
-					if (message != null && !message.isBlank()) {
-						globalRicSteps.add(message.trim());
-					}
-				});
-		double[][] globalRic = globalRicResult != null && globalRicResult.matrix() != null
-				? globalRicResult.matrix()
-				: new double[0][0];
+		// Compute global RIC with adaptive fallbacks, passing top-level FDs; starts right away, next to the tables
+		// (without table RIC there is nothing to overlap, everything runs on the request thread)
+		// One pool per stream, a thread per task up to the parallelism cap, so streams never queue behind each other
+		ExecutorService streamPool = tableRic ? pipelinePool(tables.size() + 1) : null;
+		Executor executor = streamPool != null ? streamPool : Runnable::run;
+		try {
+			String globalFds = topFds;
+			CompletableFuture<RicService.RicComputationResult> globalRicFuture = CompletableFuture.supplyAsync(() -> {
+				long startNs = System.nanoTime();
+				if (tableRic) progress.accept("Global RIC: Starting computation.");
+				RicService.RicComputationResult result = computeRic(builtManual, globalFds, req.isMonteCarlo(), req.getSamples(),
+						null, cache);
+				if (tableRic) progress.accept("Global RIC: Completed in " + formatDuration(elapsedMs(startNs)) + ".");
+				return result;
+			}, executor);
+
+			// Per-table: project & minimize FDs (still return projected FD lists per table)
+			// BCNF checking: Her tablo kendi projected FD'lerine göre kontrol edilmeli
+			// (Tüm orijinal FD'ler yerine, sadece bu tabloya ait projected FD'ler kullanılır)
+			List<CompletableFuture<DecomposeResponse>> tableFutures = new ArrayList<>(tables.size());
+			for (int i = 0; i < tables.size(); i++) {
+				DecomposeRequest table = tables.get(i);
+				Set<String> attrs = tableAttrSets.get(i);
+				String label = "Decomposed Table " + (i + 1);
+				tableFutures.add(CompletableFuture.supplyAsync(
+						() -> computeTable(scope, table, attrs, tableRic, session, cache, progress, label), executor));
+			}
 
-		// Per-table: project & minimize FDs (still return projected FD lists per table)
-		List<DecomposeResponse> perTableResponses = new ArrayList<>();
-		List<FD> combinedProjectedFds = new ArrayList<>();
-		boolean allTablesBCNF = true; // BCNF bayrağı başlatıldı
+			// global dp-preserved (the tables together imply the original FDs), polynomial test on the table schemas
+			// Evaluate dependency preservation / lossless join against the scoped population of FDs and attributes
+			if (tableRic) progress.accept("Running global preservation checks (lossless-join & dependency-preserving).");
+			DecompositionChecks checks = checkDecomposition(scope, tableAttrSets, cache);
+			boolean dpPreservedGlobal = checks.dpPreserved();
+			boolean ljPreservedGlobal = checks.ljPreserved();
+
+			List<DecomposeResponse> perTableResponses = new ArrayList<>(tables.size());
+			boolean allTablesBCNF = true; // BCNF bayrağı başlatıldı
+			for (CompletableFuture<DecomposeResponse> future : tableFutures) {
+				DecomposeResponse tableResult = join(future);
+				allTablesBCNF &= "BCNF".equals(tableResult.getNormalForm());
+				perTableResponses.add(tableResult);
+			}
+			RicService.RicComputationResult globalRicResult = join(globalRicFuture);
+			double[][] globalRic = globalRicResult != null && globalRicResult.matrix() != null
+					? globalRicResult.matrix()
+					: new double[0][0];
+
+			System.out.println("DecomposeService.decomposeAll: dpPreservedGlobal=" + dpPreservedGlobal + " ljPreservedGlobal=" + ljPreservedGlobal);
+			System.out.println("DecomposeService.decomposeAll: " + fdService.closureCacheStats()
+					+ ", speculation cache " + cache.size() + " entries / " + cache.hits() + " hits");
+
+			// Build response
+			DecomposeAllResponse allResp = new DecomposeAllResponse();
+			allResp.setTableResults(perTableResponses);
+			allResp.setDpPreserved(dpPreservedGlobal);
+			allResp.setLjPreserved(ljPreservedGlobal);
+			allResp.setBCNFDecomposition(allTablesBCNF); // BCNF bayrağını set et
+
+			// set global RIC matrix and manual rows (for frontend mapping) and unionCols
+			allResp.setGlobalRic(globalRic);
+			allResp.setGlobalManualRows(manualRowsList);
+			allResp.setUnionCols(unionColsSorted);
+
+			System.out.println("DecomposeService.decomposeAll: done");
+			return allResp;
+		} finally {
+			if (streamPool != null) streamPool.shutdownNow();
+		}
+	}
 
-		for (int i = 0; i < tables.size(); i++) {
-			Set<String> attrs = tableAttrSets.get(i);
+	/**
+	 * One table of decompose-all: projected FDs, normal form and violating FDs (one analysis pass, shared closures
+	 * and keys) and, with tableRic, its RIC. A failed RIC is reported on the progress listener and leaves the
+	 * table's matrix empty, like a failed table in the stream did before.
+	 */
+	private DecomposeResponse computeTable(Scope scope, DecomposeRequest table, Set<String> attrs, boolean tableRic,
+										   HttpSession session, SpeculationCache cache, Consumer<String> progress, String label) {
+		DecomposeResponse resp = tableResponse(analyzeTable(scope, attrs, cache));
+		if (!tableRic) return resp;
+
+		long startNs = System.nanoTime();
+		progress.accept(label + ": Starting computations.");
+		try {
+			List<Integer> cols = table.getColumns() == null ? Collections.emptyList() : table.getColumns();
+			DecomposeResponse ric = computeTableRic(table, cols, session, progress, label);
+			resp.setRicMatrix(ric.getRicMatrix());
+			resp.setSteps(ric.getSteps());
+			progress.accept(label + ": Completed in " + formatDuration(elapsedMs(startNs)) + ".");
+		} catch (Exception ex) {
+			String reason = ex.getMessage() == null ? "Computation failed." : ex.getMessage();
+			progress.accept(label + ": " + reason + " (after " + formatDuration(elapsedMs(startNs)) + ").");
+		}
+		return resp;
+	}
 
-			// Project & minimize projected FDs for this table
-			List<FD> projected = projectFDsByClosure(attrs, scopedOriginalFds);
-			List<FD> minimizedProjected = minimizeLhsForFds(projected, scopedOriginalFds);
+	// Result of a pipeline task, its own exception rethrown as is
+	private static <T> T join(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) throw cause;
+			throw ex;
+		}
+	}
 
-			combinedProjectedFds.addAll(minimizedProjected);
+	private static long elapsedMs(long startNs) {
+		return Math.max(0, (System.nanoTime() - startNs) / 1_000_000);
+	}
 
-			// BCNF checking: Her tablo kendi projected FD'lerine göre kontrol edilmeli
-			// (Tüm orijinal FD'ler yerine, sadece bu tabloya ait projected FD'ler kullanılır)
-			boolean isBCNF = checkBCNF(attrs, minimizedProjected, fdService);
-			if (!isBCNF) {
-				allTablesBCNF = false;
+	public static String formatDuration(long elapsedMs) {
+		if (elapsedMs < 1000) {
+			return elapsedMs + " ms";
+		}
+		return String.format(Locale.US, "%.2f s", elapsedMs / 1000.0);
+	}
+
+	/**
+	 * Runs the parts of project-fds / decompose-all for a likely decomposition of the relation given by baseColumns,
+	 * so the student's requests are answered from the SpeculationCache: projected FDs, table analyses, lossless and
+	 * dependency-preservation checks and, with withRic, the RIC matrix of each table (exact, as a table's own
+	 * decompose request sends it by default).
+	 */
+	void precompute(List<Integer> baseColumns, List<List<Integer>> tables, boolean withRic, HttpSession session) {
+		List<FD> originalFDs = getOriginalFDsOrThrow(session);
+		List<String> originalAttrOrder = getOriginalAttrOrder(session);
+		SpeculationCache cache = SpeculationCache.of(session, fdService);
+		Scope scope = scope(baseColumns, originalFDs, originalAttrOrder, session);
+
+		// Projections of the input relation (what project-fds derives from) without project-fds' logging
+		Scope input = scope(null, originalFDs, originalAttrOrder, session);
+		List<Set<String>> tableAttrSets = new ArrayList<>(tables.size());
+		for (List<Integer> cols : tables) {
+			if (Thread.currentThread().isInterrupted()) return;
+			Set<String> attrs = tableAttributes(cols, originalAttrOrder);
+			projectIncrementally(input, attrs, cache);
+			analyzeTable(scope, attrs, cache);
+			tableAttrSets.add(attrs);
+		}
+		checkDecomposition(scope, tableAttrSets, cache);
+
+		if (!withRic) return;
+		for (List<Integer> cols : tables) {
+			if (Thread.currentThread().isInterrupted()) return;
+			String manual = String.join(";", new LinkedHashSet<>(Arrays.asList(
+					sanitizeManualDataString(buildManualDataForColumns(cols, session)).split(";"))));
+			if (manual.isBlank()) continue;
+			// The table's FDs as the page sends them: projected FDs over original indexes, renumbered 1..k
+			StringJoiner localFds = new StringJoiner(";");
+			for (FD fd : projectIncrementally(input, tableAttributes(cols, originalAttrOrder), cache)) {
+				localFds.add(localColumns(fd.getLhs(), cols, originalAttrOrder) + "->" + localColumns(fd.getRhs(), cols, originalAttrOrder));
 			}
+			computeRic(manual, localFds.toString(), false, 0, null, cache);
+		}
+	}
 
-			// Check normal form for this table
-			String normalForm = normalFormChecker.checkNormalForm(attrs, minimizedProjected);
+	// Relation a request is validated against: the input relation, or the nested one given by baseColumns
+	private record Scope(String key, List<String> attrOrder, List<FD> fds) { }
 
-			// Build response item with projected FDs and normal form
-			List<String> projectedStr = minimizedProjected.stream().map(this::fdToString).collect(Collectors.toList());
-			DecomposeResponse drResp = new DecomposeResponse(new double[0][0], projectedStr);
-			drResp.setNormalForm(normalForm);
-			perTableResponses.add(drResp);
+	private Scope scope(List<Integer> baseColumns, List<FD> originalFDs, List<String> originalAttrOrder, HttpSession session) {
+		if (baseColumns == null || baseColumns.isEmpty()) {
+			return new Scope("", new ArrayList<>(originalAttrOrder), new ArrayList<>(originalFDs));
 		}
 
-		// global dp-preserved (combined projected FDs imply original)
-		Map<String, FD> uniq = new LinkedHashMap<>();
-		for (FD fd : combinedProjectedFds) {
-			String key = fd.getLhs().toString() + "->" + fd.getRhs().toString();
-			uniq.putIfAbsent(key, fd);
+		List<String> scopedAttrOrder = scopedAttributes(baseColumns, originalAttrOrder);
+
+		// Projected cover of the nested relation, so projected subsets retain every implication inside it
+		List<FD> scopedFds = new ArrayList<>(nestedSchema(scopedAttrOrder, session).originalFds());
+		return new Scope(scopedAttrOrder.toString(), scopedAttrOrder, scopedFds);
+	}
+
+	// Attribute names of the nested relation given by baseColumns, in original column order
+	private List<String> scopedAttributes(List<Integer> baseColumns, List<String> originalAttrOrder) {
+		List<String> scopedAttrOrder = baseColumns.stream()
+			.filter(Objects::nonNull)
+			.map(Number::intValue)
+			.filter(idx -> idx >= 0 && idx < originalAttrOrder.size())
+			.distinct()
+			.sorted()
+			.map(originalAttrOrder::get)
+			.collect(Collectors.toCollection(ArrayList::new));
+		if (scopedAttrOrder.isEmpty()) {
+			throw new IllegalArgumentException("baseColumns contained no valid indices");
 		}
-		List<FD> combinedProjectedUnique = new ArrayList<>(uniq.values());
-		// Evaluate dependency preservation / lossless join against the scoped population of FDs and attributes
-		boolean dpPreservedGlobal = checkDependencyPreserving(scopedOriginalFds, combinedProjectedUnique);
+		return scopedAttrOrder;
+	}
 
+	/**
+	 * Compiled nested relation: the FDs of the smallest relation compiled so far that contains it (its parent in
+	 * the normalization history, else the input) projected onto it. Kept per attribute set in the session's cache,
+	 * so each step of the history starts from its parent's cover instead of the input's FDs.
+	 */
+	private CompiledSchema nestedSchema(List<String> scopedAttrOrder, HttpSession session) {
+		Map<Set<String>, CompiledSchema> nested =
+				SpeculationCache.of(session, fdService).get("schemas", ConcurrentHashMap::new);
+		Set<String> attrs = Set.copyOf(scopedAttrOrder);
+		CompiledSchema known = nested.get(attrs);
+		if (known != null) return known;
+
+		CompiledSchema parent = CompiledSchema.fromSession(session, fdService);
+		for (CompiledSchema candidate : nested.values()) {
+			if (candidate.attributeOrder().containsAll(attrs)
+					&& candidate.attributeOrder().size() < parent.attributeOrder().size()) {
+				parent = candidate;
+			}
+		}
+		long start = System.nanoTime();
+		CompiledSchema schema = parent.project(scopedAttrOrder, fdService);
+		System.out.println("DecomposeService: compiled " + scopedAttrOrder + " from " + parent.attributeOrder()
+				+ " in " + (System.nanoTime() - start) / 1000 + " µs");
+		if (nested.size() < MAX_NESTED_SCHEMAS) {
+			CompiledSchema previous = nested.putIfAbsent(attrs, schema);
+			if (previous != null) return previous;
+		}
+		return schema;
+	}
+
+	// Attribute names of the columns, sorted by name
+	private Set<String> tableAttributes(List<Integer> cols, List<String> originalAttrOrder) {
+		List<String> attrs = (cols == null ? Collections.<Integer>emptyList() : cols).stream()
+				.map(n -> n == null ? -1 : n)
+				.map(i -> {
+					if (i < 0 || i >= originalAttrOrder.size()) {
+						throw new IllegalArgumentException("Column index out of range: " + i);
+					}
+					return originalAttrOrder.get(i);
+				})
+				.distinct()
+				.sorted()
+				.collect(Collectors.toList());
+		return new LinkedHashSet<>(attrs);
+	}
+
+	private record TableAnalysis(List<FD> projected, NormalFormAnalysis analysis) { }
+
+	private TableAnalysis analyzeTable(Scope scope, Set<String> attrs, SpeculationCache cache) {
+		return cache.get("table:" + scope.key() + ":" + attrs, () -> {
+			List<FD> projected = projectIncrementally(scope, attrs, cache);
+			return new TableAnalysis(projected, normalFormChecker.analyze(fdService.compile(attrs, projected)));
+		});
+	}
+
+	private record DecompositionChecks(boolean dpPreserved, boolean ljPreserved) { }
+
+	private DecompositionChecks checkDecomposition(Scope scope, List<Set<String>> tableAttrSets, SpeculationCache cache) {
 		// Build schemaList deterministically
 		List<Set<String>> schemaList = tableAttrSets.stream()
 				.map(s -> new LinkedHashSet<>(s))
 				.collect(Collectors.toList());
 		schemaList.sort(Comparator.comparing(s -> String.join(",", s)));
 
-		boolean ljPreservedGlobal = checkLosslessDecomposition(new LinkedHashSet<>(scopedAttrOrder), schemaList, scopedOriginalFds);
+		return cache.get("checks:" + scope.key() + ":" + schemaList, () -> new DecompositionChecks(
+				checkDependencyPreserving(scope.fds(), tableAttrSets),
+				checkLosslessDecomposition(new LinkedHashSet<>(scope.attrOrder()), schemaList, scope.fds())));
+	}
 
-		System.out.println("DecomposeService.decomposeAll: dpPreservedGlobal=" + dpPreservedGlobal + " ljPreservedGlobal=" + ljPreservedGlobal);
+	// RIC through the session's cache, keyed by the rows, the FD set (order-insensitive) and the sampling settings
+	private RicService.RicComputationResult computeRic(String manualData, String fds, boolean monteCarlo, int samples,
+													   Consumer<String> progressCallback, SpeculationCache cache) {
+		String key = "ric:" + monteCarlo + ":" + (monteCarlo ? samples : 0) + ":" + canonicalFds(fds) + ":" + manualData;
+		return cache.get(key, () -> ricService.computeRicAdaptive(manualData, fds, monteCarlo, samples, progressCallback));
+	}
 
-		// Build response
-		DecomposeAllResponse allResp = new DecomposeAllResponse();
-		allResp.setTableResults(perTableResponses);
-		allResp.setDpPreserved(dpPreservedGlobal);
-		allResp.setLjPreserved(ljPreservedGlobal);
-		allResp.setBCNFDecomposition(allTablesBCNF); // BCNF bayrağını set et
+	private String canonicalFds(String fds) {
+		return Arrays.stream(normalizeFds(fds).split(";"))
+				.filter(fd -> !fd.isEmpty())
+				.map(fd -> Arrays.stream(fd.split("->", -1))
+						.map(side -> Arrays.stream(side.split(",")).sorted().collect(Collectors.joining(",")))
+						.collect(Collectors.joining("->")))
+				.distinct()
+				.sorted()
+				.collect(Collectors.joining(";"));
+	}
 
-		// set global RIC matrix and manual rows (for frontend mapping) and unionCols
-		allResp.setGlobalRic(globalRic);
-		allResp.setGlobalManualRows(manualRowsList);
-		allResp.setUnionCols(unionColsSorted);
+	private String localColumns(Set<String> attrs, List<Integer> cols, List<String> originalAttrOrder) {
+		return attrs.stream()
+				.map(name -> cols.indexOf(originalAttrOrder.indexOf(name)) + 1)
+				.sorted()
+				.map(String::valueOf)
+				.collect(Collectors.joining(","));
+	}
 
-		System.out.println("DecomposeService.decomposeAll: done");
-		return allResp;
+	/**
+	 * decompose-all without any RIC: projected FDs, normal form and violating FDs per table, lossless-join and
+	 * dependency preservation of the whole set of tables, in one request. The tables share the closure memo of
+	 * the scoped FD set, and results come from (and go into) the session's SpeculationCache. The relations of
+	 * req.relations are analysed on their own in the same request (the page's BCNF badges).
+	 */
+	public DecomposeAllResponse analyzeRelations(DecomposeAllRequest req, HttpSession session) {
+		long start = System.nanoTime();
+		List<FD> originalFDs = getOriginalFDsOrThrow(session);
+		List<String> originalAttrOrder = getOriginalAttrOrder(session);
+		Scope scope = scope(req.getBaseColumns(), originalFDs, originalAttrOrder, session);
+		SpeculationCache cache = SpeculationCache.of(session, fdService);
+
+		List<DecomposeRequest> tables = req.getTables() == null ? List.of() : req.getTables();
+		List<List<Integer>> relations = req.getRelations() == null ? List.of() : req.getRelations();
+		if (tables.isEmpty() && relations.isEmpty()) {
+			throw new IllegalStateException("No tables provided in request");
+		}
+
+		DecomposeAllResponse resp = new DecomposeAllResponse();
+		if (!tables.isEmpty()) {
+			List<Set<String>> tableAttrSets = new ArrayList<>(tables.size());
+			List<DecomposeResponse> perTableResponses = new ArrayList<>(tables.size());
+			boolean allTablesBCNF = true;
+			for (DecomposeRequest dr : tables) {
+				Set<String> attrs = tableAttributes(dr.getColumns(), originalAttrOrder);
+				TableAnalysis tableAnalysis = analyzeTable(scope, attrs, cache);
+				allTablesBCNF &= tableAnalysis.analysis().isBCNF();
+				perTableResponses.add(tableResponse(tableAnalysis));
+				tableAttrSets.add(attrs);
+			}
+			DecompositionChecks checks = checkDecomposition(scope, tableAttrSets, cache);
+			resp.setTableResults(perTableResponses);
+			resp.setDpPreserved(checks.dpPreserved());
+			resp.setLjPreserved(checks.ljPreserved());
+			resp.setBCNFDecomposition(allTablesBCNF);
+		} else {
+			resp.setTableResults(new ArrayList<>());
+		}
+
+		// Stand-alone relations (e.g. the relations of the normalization history): their own FDs, from the input
+		Scope input = scope(null, originalFDs, originalAttrOrder, session);
+		List<DecomposeResponse> relationResponses = new ArrayList<>(relations.size());
+		for (List<Integer> columns : relations) {
+			relationResponses.add(tableResponse(analyzeTable(input, tableAttributes(columns, originalAttrOrder), cache)));
+		}
+		resp.setRelationResults(relationResponses);
+		System.out.println("DecomposeService.analyzeRelations: " + tables.size() + " tables, " + relations.size()
+				+ " relations in " + (System.nanoTime() - start) / 1000 + " µs");
+		return resp;
+	}
+
+	// Response item with projected FDs, normal form and the FD violating each failed level
+	private DecomposeResponse tableResponse(TableAnalysis tableAnalysis) {
+		List<String> projectedStr = tableAnalysis.projected().stream().map(this::fdToString).collect(Collectors.toList());
+		DecomposeResponse drResp = new DecomposeResponse(new double[0][0], projectedStr);
+		drResp.setNormalForm(tableAnalysis.analysis().normalForm());
+		drResp.setNormalFormViolations(tableAnalysis.analysis().violations());
+		return drResp;
 	}
 
 	// Helper methods
@@ -432,7 +642,7 @@ public class DecomposeService {
 	}
 
 	@SuppressWarnings("unchecked")
-	private List<String> getOriginalAttrOrder(HttpSession session) {
+	List<String> getOriginalAttrOrder(HttpSession session) {
 		Object obj = session.getAttribute("originalAttrOrder");
 		if (obj == null) {
 			throw new IllegalStateException("originalAttrOrder not found in session. Run compute first.");
@@ -474,7 +684,7 @@ public class DecomposeService {
 		return tableLabel + ": " + step;
 	}
 
-	private String buildManualDataForColumns(List<Integer> columns, HttpSession session) {
+	String buildManualDataForColumns(List<Integer> columns, HttpSession session) {
 		if (columns == null || columns.isEmpty()) {
 			return "";
 		}
@@ -515,78 +725,38 @@ public class DecomposeService {
 		return String.join(";", rows);
 	}
 
-	// Numbering all non-empty subsets X of attrs and compute closure(X) under originalFDs
-	// For each A in (closure ∩ attrs) \ X produce FD X -> A (RHS atomic)
-	private List<FD> projectFDsByClosure(Set<String> attrs, List<FD> originalFDs) {
+	private record ScopeProjection(AttributeDictionary dictionary, IncrementalProjection projection) { }
+
+	// Same projection with the scope's attributes encoded once, so projections of neighbouring attribute sets
+	// (one column dragged in or out) are derived from each other; kept per scope in the session's cache
+	private List<FD> projectIncrementally(Scope scope, Set<String> attrs, SpeculationCache cache) {
+		ScopeProjection scoped = cache.get("projection:" + scope.key(), () -> {
+			AttributeDictionary dictionary = AttributeDictionary.of(scope.attrOrder(), scope.fds());
+			FDClosureCache.SchemaClosure closure = fdService.prepareClosure(scope.fds(), dictionary);
+			return new ScopeProjection(dictionary, new IncrementalProjection(dictionary.encodeAll(scope.fds()),
+					closure::closure, fdService.lattice(), dictionary.size()));
+		});
 		List<FD> out = new ArrayList<>();
-		List<String> attrList = new ArrayList<>(attrs);
-		int n = attrList.size();
-
-		int total = 1 << n;
-		for (int mask = 1; mask < total; mask++) {
-			Set<String> X = new LinkedHashSet<>();
-			for (int i = 0; i < n; i++) {
-				if ((mask & (1 << i)) != 0) X.add(attrList.get(i));
-			}
-			Set<String> closure = fdService.computeClosure(X, originalFDs);
-			Set<String> rhs = new LinkedHashSet<>(closure);
-			rhs.retainAll(attrs);
-			rhs.removeAll(X);
-			for (String a : rhs) {
-				out.add(new FD(new LinkedHashSet<>(X), new LinkedHashSet<>(Set.of(a))));
-			}
+		for (EncodedFD fd : scoped.projection().project(scoped.dictionary().encode(attrs))) {
+			out.add(scoped.dictionary().decode(fd));
 		}
-
-		// Deduplicate
-		Map<String, FD> uniq = new LinkedHashMap<>();
-		for (FD fd : out) {
-			String key = fd.getLhs().toString() + "->" + fd.getRhs().toString();
-			uniq.putIfAbsent(key, fd);
-		}
-		return new ArrayList<>(uniq.values());
-	}
-
-	// Minimizing LHS, for each FD remove extra attributes using closure under originalFDs
-	private List<FD> minimizeLhsForFds(List<FD> fds, List<FD> originalFDs) {
-		List<FD> result = new ArrayList<>();
-		for (FD fd : fds) {
-			Set<String> lhs = new LinkedHashSet<>(fd.getLhs());
-			Set<String> rhs = new LinkedHashSet<>(fd.getRhs());
-			boolean changed;
-			do {
-				changed = false;
-				for (String a : new ArrayList<>(lhs)) {
-					if (lhs.size() == 1) break;
-					Set<String> reduced = new LinkedHashSet<>(lhs);
-					reduced.remove(a);
-					Set<String> closure = fdService.computeClosure(reduced, originalFDs);
-					if (closure.containsAll(rhs)) {
-						lhs.remove(a);
-						changed = true;
-						break;
-					}
-				}
-			} while (changed);
-			result.add(new FD(new LinkedHashSet<>(lhs), new LinkedHashSet<>(rhs)));
-		}
-
-		Map<String, FD> uniq = new LinkedHashMap<>();
-		for (FD fd : result) {
-			String key = fd.getLhs().toString() + "->" + fd.getRhs().toString();
-			uniq.putIfAbsent(key, fd);
-		}
-		return new ArrayList<>(uniq.values());
+		return out;
 	}
 
-	// Check dependency preservation: for every original FD X->Y check closure_{projected}(X)
-	private boolean checkDependencyPreserving(List<FD> original, List<FD> projected) {
-		for (FD fd : original) {
-			Set<String> closure = fdService.computeClosure(fd.getLhs(), projected);
-			if (!closure.containsAll(fd.getRhs())) {
-				return false;
-			}
+	// Check dependency preservation: every original FD X->Y must follow from the FDs projected onto the components
+	// Polynomial test (DependencyPreservation), no projected FD sets are built; the first failing FD is logged
+	private boolean checkDependencyPreserving(List<FD> original, List<? extends Set<String>> components) {
+		AttributeDictionary dictionary = AttributeDictionary.of(List.of(), original);
+		FDClosureCache.SchemaClosure closure = fdService.prepareClosure(original, dictionary);
+		List<AttributeSet> encodedComponents = new ArrayList<>(components.size());
+		for (Set<String> component : components) {
+			encodedComponents.add(dictionary.encode(component));
+		}
+		DependencyPreservation.Result result = DependencyPreservation.check(dictionary.encodeAll(original), encodedComponents, closure::closure);
+		if (!result.preserved()) {
+			System.out.println("DecomposeService: dependency not preserved, e.g. " + dictionary.decode(result.witness()));
 		}
-		return true;
+		return result.preserved();
 	}
 
 	// Lossless-join test
@@ -595,106 +765,13 @@ public class DecomposeService {
 			return false;
 		}
 
-		// Create the initial matrix
-		List<String> allAttributes = new ArrayList<>(R);
-		int numAttrs = allAttributes.size();
-		int numSchemas = schemas.size();
-		String[][] matrix = new String[numSchemas][numAttrs];
-
-		for (int i = 0; i < numSchemas; i++) {
-			Set<String> schema_i = schemas.get(i);
-			for (int j = 0; j < numAttrs; j++) {
-				String attr_j = allAttributes.get(j);
-				if (schema_i.contains(attr_j)) {
-					// Distinguished variable
-					matrix[i][j] = "a" + (j + 1);
-				} else {
-					// Non-distinguished variable
-					matrix[i][j] = "b" + (i + 1) + (j + 1);
-				}
-			}
-		}
-
-		// Apply Chase algorithm
-		boolean changed;
-		do {
-			changed = false;
-			for (FD fd : originalFDs) {
-				Set<String> lhs = fd.getLhs();
-				Set<String> rhs = fd.getRhs();
-
-				// Find rows with the same LHS values
-				List<Integer> lhsIndices = lhs.stream()
-						.map(allAttributes::indexOf)
-						.collect(Collectors.toList());
-
-				if (lhsIndices.contains(-1)) {
-					continue;
-				}
-
-				Map<List<String>, List<Integer>> groups = new HashMap<>();
-				for (int i = 0; i < numSchemas; i++) {
-					List<String> key = new ArrayList<>();
-					for (int index : lhsIndices) {
-						key.add(matrix[i][index]);
-					}
-					groups.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
-				}
-
-				for (List<Integer> rowIndices : groups.values()) {
-					if (rowIndices.size() < 2) continue;
-
-					// Equalize values ​​in RHS columns
-					for (String attr_y : rhs) {
-						int y_idx = allAttributes.indexOf(attr_y);
-						if (y_idx == -1) continue;
-
-						String distinguishedValue = null;
-						for (int rowIndex : rowIndices) {
-							if (matrix[rowIndex][y_idx].startsWith("a")) {
-								distinguishedValue = matrix[rowIndex][y_idx];
-								break;
-							}
-						}
-
-						if (distinguishedValue != null) {
-							for (int rowIndex : rowIndices) {
-								if (!matrix[rowIndex][y_idx].equals(distinguishedValue)) {
-									matrix[rowIndex][y_idx] = distinguishedValue;
-									changed = true;
-								}
-							}
-						} else {
-							String firstValue = matrix[rowIndices.get(0)][y_idx];
-							for (int rowIndex : rowIndices) {
-								if (!matrix[rowIndex][y_idx].equals(firstValue)) {
-									matrix[rowIndex][y_idx] = firstValue;
-									changed = true;
-								}
-							}
-						}
-					}
-				}
-			}
-		} while (changed);
-
-		// Test and control the results
-		// If there is a row in the matrix including entirely of 'a' symbols, so it is lossless
-		for (int i = 0; i < numSchemas; i++) {
-			boolean allDistinguished = true;
-			for (int j = 0; j < numAttrs; j++) {
-				if (!matrix[i][j].startsWith("a")) {
-					allDistinguished = false;
-					break;
-				}
-			}
-			if (allDistinguished) {
-				// Lossless join
-				return true;
-			}
+		// Int tableau chase (union-find, worklist), binary decompositions via R1 ∩ R2 → R1 or R2
+		AttributeDictionary dictionary = AttributeDictionary.of(R, originalFDs);
+		List<AttributeSet> encodedSchemas = new ArrayList<>(schemas.size());
+		for (Set<String> schema : schemas) {
+			encodedSchemas.add(dictionary.encode(schema));
 		}
-		// Lossy join
-		return false;
+		return LosslessJoinChase.isLossless(R.size(), encodedSchemas, dictionary.encodeAll(originalFDs));
 	}
 
 	private String fdToString(FD fd) {
@@ -703,7 +780,14 @@ public class DecomposeService {
 		return lhs + "→" + rhs;
 	}
 
+	// Answered from the session's SpeculationCache when the same columns were projected before (or speculatively)
 	public DecomposeResponse projectFDsOnly(DecomposeRequest req, HttpSession session) {
+		getOriginalFDsOrThrow(session);
+		List<Integer> cols = req.getColumns() == null ? Collections.emptyList() : List.copyOf(req.getColumns());
+		return SpeculationCache.of(session, fdService).get("project:" + cols, () -> computeProjectedFDs(cols, session));
+	}
+
+	private DecomposeResponse computeProjectedFDs(List<Integer> cols, HttpSession session) {
 		System.out.println("DecomposeService.projectFDsOnly: start");
 
 		// original FDs
@@ -715,7 +799,6 @@ public class DecomposeService {
 		System.out.println("DecomposeService.projectFDsOnly: originalAttrOrder = " + originalAttrOrder);
 
 		// Convert incoming column indexes to attribute names
-		List<Integer> cols = req.getColumns() == null ? Collections.emptyList() : req.getColumns();
 		Set<String> attrs = cols.stream()
 				.map(i -> {
 					if (i < 0 || i >= originalAttrOrder.size()) {
@@ -726,16 +809,13 @@ public class DecomposeService {
 				.collect(Collectors.toCollection(LinkedHashSet::new));
 		System.out.println("DecomposeService.projectFDsOnly: projected attrs = " + attrs);
 
-		// Projection using closure
-		List<FD> projected = projectFDsByClosure(attrs, originalFDs);
-		System.out.println("DecomposeService.projectFDsOnly: projected (pre-minimize) = " + projected);
-
-		// Minimalizing LHS
-		projected = minimizeLhsForFds(projected, originalFDs);
-		System.out.println("DecomposeService.projectFDsOnly: projected (minimized) = " + projected);
+		// Projection using closure (minimal left-hand sides), derived from the previous projection when one column changed
+		List<FD> projected = projectIncrementally(scope(null, originalFDs, originalAttrOrder, session), attrs,
+				SpeculationCache.of(session, fdService));
+		System.out.println("DecomposeService.projectFDsOnly: projected (minimal) = " + projected);
 
 		// Checking dependency preserving
-		boolean dpPreserved = checkDependencyPreserving(originalFDs, projected);
+		boolean dpPreserved = checkDependencyPreserving(originalFDs, List.of(attrs));
 		System.out.println("DecomposeService.projectFDsOnly: dpPreserved = " + dpPreserved);
 
 		// Checking lossless join
@@ -768,6 +848,68 @@ public class DecomposeService {
 		return resp;
 	}
 
+	/**
+	 * The session's compiled relation, or the nested relation given by baseColumns (original column indexes)
+	 * compiled with its projected cover.
+	 */
+	CompiledSchema scopedSchema(List<Integer> baseColumns, HttpSession session) {
+		getOriginalFDsOrThrow(session);
+		List<String> originalAttrOrder = getOriginalAttrOrder(session);
+		CompiledSchema schema = CompiledSchema.fromSession(session, fdService);
+		if (baseColumns != null && !baseColumns.isEmpty()) {
+			schema = nestedSchema(scopedAttributes(baseColumns, originalAttrOrder), session);
+		}
+		if (schema.attributeOrder().isEmpty()) {
+			throw new IllegalStateException("No attributes to decompose. Run compute first.");
+		}
+		return schema;
+	}
+
+	// Original column indexes of a table of the scoped schema, ascending
+	List<Integer> columns(AttributeSet table, CompiledSchema schema, List<String> originalAttrOrder) {
+		return schema.dictionary().decode(table).stream()
+				.map(originalAttrOrder::indexOf)
+				.sorted()
+				.collect(Collectors.toList());
+	}
+
+	// An FD side of the scoped schema as 1-based positions within the table's columns
+	String localColumns(AttributeSet attrs, List<Integer> columns, CompiledSchema schema, List<String> originalAttrOrder) {
+		return localColumns(schema.dictionary().decode(attrs), columns, originalAttrOrder);
+	}
+
+	/**
+	 * 3NF synthesis of the input relation, or of the nested relation given by baseColumns (original column indexes).
+	 * Returns the column groups as DecomposeAllRequest tables, so they can be submitted to decompose-all directly.
+	 */
+	public SynthesisResponse synthesize3NF(List<Integer> baseColumns, HttpSession session) {
+		List<String> originalAttrOrder = getOriginalAttrOrder(session);
+		CompiledSchema schema = scopedSchema(baseColumns, session);
+
+		List<EncodedFD> fds = schema.relationFds();
+		int attributeCount = schema.dictionary().size();
+		List<AttributeSet> groups = ThreeNFSynthesis.synthesize(schema.relation(), fds, attributeCount);
+
+		List<DecomposeRequest> tables = new ArrayList<>();
+		List<List<String>> tableAttributes = new ArrayList<>();
+		for (AttributeSet group : groups) {
+			List<String> attrs = new ArrayList<>(schema.dictionary().decode(group));
+			DecomposeRequest table = new DecomposeRequest();
+			table.setColumns(attrs.stream().map(originalAttrOrder::indexOf).sorted().collect(Collectors.toList()));
+			tables.add(table);
+			tableAttributes.add(attrs);
+		}
+
+		SynthesisResponse resp = new SynthesisResponse();
+		resp.setTables(tables);
+		resp.setTableAttributes(tableAttributes);
+		resp.setLosslessJoin(LosslessJoinChase.isLossless(attributeCount, groups, fds));
+		resp.setDependencyPreserving(DependencyPreservation.check(fds, groups, schema::closure).preserved());
+		System.out.println("DecomposeService.synthesize3NF: " + tableAttributes + " lossless=" + resp.isLosslessJoin()
+				+ " dpPreserved=" + resp.isDependencyPreserving());
+		return resp;
+	}
+
 	/**
 	 * Check if a relation is in BCNF
 	 * Delegates to NormalFormChecker for comprehensive BCNF check
@@ -781,5 +923,9 @@ public class DecomposeService {
 		// Delegate to NormalFormChecker for comprehensive BCNF check
 		return normalFormChecker.isBCNFComprehensive(attributes, allOriginalFds);
 	}
-}
 
+	// Same on an already compiled schema
+	public boolean checkBCNF(CompiledSchema schema) {
+		return normalFormChecker.isBCNFComprehensive(schema);
+	}
+}
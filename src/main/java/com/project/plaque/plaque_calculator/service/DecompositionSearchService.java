@@ -0,0 +1,233 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.dto.DecomposeAllRequest;
+import com.project.plaque.plaque_calculator.dto.DecomposeRequest;
+import com.project.plaque.plaque_calculator.dto.DecompositionSearchResponse;
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import com.project.plaque.plaque_calculator.model.EncodedFD;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DecompositionSearchService: Explores the BCNF decompositions of the session's relation (BcnfDecompositionSearch)
+ * and ranks them by information content, instead of one decompose-all round per candidate.
+ * - Lossless by construction (each split is on a violating FD), confirmed with the chase; with dependencyPreserve
+ *   set, decompositions that lose an FD are dropped before any RIC is computed
+ * - Score of a decomposition: mean RIC over all cells of its tables. Every distinct table is computed once
+ *   (memoized by attribute set) on the search's own small pool (normalization.search.parallelism), since each
+ *   RIC run is a heavy engine call
+ * - All tables are computed in the requested mode only (exact, or Monte Carlo with the requested samples), no
+ *   adaptive fallback, so the scores of a ranking are comparable; each candidate reports which mode it was
+ * - Everything runs under the request's time budget; decompositions whose tables were not all computed in
+ *   time are left out of the ranking. searchAsync runs the search off the request thread, at most
+ *   normalization.search.max-concurrent at once
+ */
+@Service
+public class DecompositionSearchService {
+
+	private static final int MAX_ALTERNATIVES = 64;
+	private static final int DEFAULT_TIME_LIMIT_SECONDS = 30;
+	private static final int MAX_TIME_LIMIT_SECONDS = 300;
+	// Monte Carlo samples when the request asks for Monte Carlo without a count (the adaptive fallback's first stage)
+	private static final int DEFAULT_SAMPLES = 100_000;
+
+	private final DecomposeService decomposeService;
+	private final RicService ricService;
+	private final FDService fdService;
+	private final int parallelism;
+	private final ThreadPoolExecutor searches;
+
+	public DecompositionSearchService(DecomposeService decomposeService, RicService ricService, FDService fdService,
+									  @Value("${normalization.search.parallelism:2}") int parallelism,
+									  @Value("${normalization.search.max-concurrent:2}") int maxConcurrent) {
+		this.decomposeService = decomposeService;
+		this.ricService = ricService;
+		this.fdService = fdService;
+		this.parallelism = Math.max(1, parallelism);
+		int concurrent = Math.max(1, maxConcurrent);
+		AtomicInteger threadCount = new AtomicInteger();
+		this.searches = new ThreadPoolExecutor(concurrent, concurrent, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(concurrent), r -> {
+			Thread t = new Thread(r, "bcnf-search-" + threadCount.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		searches.shutdownNow();
+	}
+
+	// Seconds the search of this request may take
+	public int timeLimitSeconds(DecomposeAllRequest req) {
+		return req.getTimeLimit() > 0 ? Math.min(req.getTimeLimit(), MAX_TIME_LIMIT_SECONDS) : DEFAULT_TIME_LIMIT_SECONDS;
+	}
+
+	/**
+	 * search on the search pool, so the request thread is not held for the time budget. Fails with an
+	 * IllegalStateException when the pool and its queue are full.
+	 */
+	public CompletableFuture<DecompositionSearchResponse> searchAsync(DecomposeAllRequest req, int topK, HttpSession session) {
+		try {
+			return CompletableFuture.supplyAsync(() -> search(req, topK, session), searches);
+		} catch (RejectedExecutionException full) {
+			return CompletableFuture.failedFuture(
+					new IllegalStateException("Too many decomposition searches are running, please try again later."));
+		}
+	}
+
+	// Table score inputs: sum and count of the RIC cells
+	private record TableScore(double sum, int cells) { }
+
+	public DecompositionSearchResponse search(DecomposeAllRequest req, int topK, HttpSession session) {
+		long startNs = System.nanoTime();
+		long deadline = startNs + TimeUnit.SECONDS.toNanos(timeLimitSeconds(req));
+		boolean monteCarlo = req.isMonteCarlo();
+		int samples = monteCarlo ? (req.getSamples() > 0 ? req.getSamples() : DEFAULT_SAMPLES) : 0;
+
+		List<String> originalAttrOrder = decomposeService.getOriginalAttrOrder(session);
+		CompiledSchema schema = decomposeService.scopedSchema(req.getBaseColumns(), session);
+		List<EncodedFD> fds = schema.relationFds();
+		int attributeCount = schema.dictionary().size();
+
+		// Half of the budget for the enumeration, the rest is left for the RIC runs
+		BcnfDecompositionSearch search = new BcnfDecompositionSearch(fds, schema::closure, fdService.lattice(),
+				MAX_ALTERNATIVES, startNs + (deadline - startNs) / 2);
+		List<List<AttributeSet>> found = search.decompositions(schema.relation());
+		List<List<AttributeSet>> candidates = new ArrayList<>();
+		List<Boolean> preserving = new ArrayList<>();
+		for (List<AttributeSet> decomposition : found) {
+			boolean dp = DependencyPreservation.check(fds, decomposition, schema::closure).preserved();
+			if (req.isDependencyPreserve() && !dp) continue;
+			candidates.add(decomposition);
+			preserving.add(dp);
+		}
+
+		// One RIC run per distinct table, in candidate order (the textbook decomposition first), on this search's pool
+		AtomicInteger threadCount = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism, r -> {
+			Thread t = new Thread(r, "bcnf-search-ric-" + threadCount.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+		try {
+			Map<AttributeSet, Future<TableScore>> tableScores = new LinkedHashMap<>();
+			for (List<AttributeSet> decomposition : candidates) {
+				for (AttributeSet table : decomposition) {
+					tableScores.computeIfAbsent(table, t -> {
+						List<Integer> columns = decomposeService.columns(t, schema, originalAttrOrder);
+						String manualData = decomposeService.buildManualDataForColumns(columns, session);
+						return executor.submit(() -> scoreTable(t, columns, manualData, schema, fds, originalAttrOrder,
+								monteCarlo, samples));
+					});
+				}
+			}
+
+			List<DecompositionSearchResponse.Candidate> ranked = new ArrayList<>();
+			boolean timedOut = search.timedOut();
+			for (int i = 0; i < candidates.size(); i++) {
+				double sum = 0;
+				int cells = 0;
+				boolean complete = true;
+				for (AttributeSet table : candidates.get(i)) {
+					TableScore score = await(tableScores.get(table), deadline);
+					if (score == null) {
+						complete = false;
+						break;
+					}
+					sum += score.sum();
+					cells += score.cells();
+				}
+				if (!complete) {
+					timedOut |= System.nanoTime() > deadline;
+					continue;
+				}
+				ranked.add(candidate(candidates.get(i), schema, originalAttrOrder, cells == 0 ? 0 : sum / cells,
+						LosslessJoinChase.isLossless(attributeCount, candidates.get(i), fds), preserving.get(i), monteCarlo));
+			}
+			tableScores.values().forEach(f -> f.cancel(true));
+
+			int scored = ranked.size();
+			ranked.sort(Comparator.comparingDouble(DecompositionSearchResponse.Candidate::getScore).reversed());
+			DecompositionSearchResponse resp = new DecompositionSearchResponse();
+			resp.setCandidates(ranked.subList(0, Math.min(Math.max(1, topK), ranked.size())));
+			resp.setDecompositionsFound(candidates.size());
+			resp.setDecompositionsScored(scored);
+			resp.setTimedOut(timedOut);
+			resp.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs));
+			System.out.println("DecompositionSearchService.search: " + found.size() + " BCNF decompositions ("
+					+ search.exploredSchemas() + " schemas), " + candidates.size() + " candidates, " + scored
+					+ " scored in " + resp.getElapsedMillis() + " ms" + (timedOut ? " (time budget reached)" : ""));
+			return resp;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private TableScore scoreTable(AttributeSet table, List<Integer> columns, String projectedRows, CompiledSchema schema,
+								  List<EncodedFD> fds, List<String> originalAttrOrder, boolean monteCarlo, int samples) {
+		// Set semantics: the projection of the tuples onto the table
+		String manualData = String.join(";", new LinkedHashSet<>(Arrays.asList(projectedRows.split(";"))));
+
+		// Projected FDs in the engine's format, 1-based positions within the table
+		StringJoiner tableFds = new StringJoiner(";");
+		for (EncodedFD fd : FDProjection.project(table, fds, schema::closure, fdService.lattice())) {
+			tableFds.add(decomposeService.localColumns(fd.getLhs(), columns, schema, originalAttrOrder) + "->"
+					+ decomposeService.localColumns(fd.getRhs(), columns, schema, originalAttrOrder));
+		}
+
+		// A single attempt in the pinned mode: a table that needs longer is left unscored rather than approximated
+		double[][] ric = ricService.computeRicFromManualData(manualData, tableFds.toString(), monteCarlo, samples);
+		double sum = 0;
+		int cells = 0;
+		for (double[] row : ric == null ? new double[0][0] : ric) {
+			for (double value : row) {
+				sum += value;
+				cells++;
+			}
+		}
+		return new TableScore(sum, cells);
+	}
+
+	private TableScore await(Future<TableScore> future, long deadline) {
+		try {
+			return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException | CancellationException e) {
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (ExecutionException e) {
+			System.out.println("DecompositionSearchService: RIC failed for a table: " + e.getCause());
+			return null;
+		}
+	}
+
+	private DecompositionSearchResponse.Candidate candidate(List<AttributeSet> decomposition, CompiledSchema schema,
+															List<String> originalAttrOrder, double score,
+															boolean lossless, boolean preserving, boolean approximate) {
+		List<DecomposeRequest> tables = new ArrayList<>();
+		List<List<String>> tableAttributes = new ArrayList<>();
+		for (AttributeSet table : decomposition) {
+			DecomposeRequest dr = new DecomposeRequest();
+			dr.setColumns(decomposeService.columns(table, schema, originalAttrOrder));
+			tables.add(dr);
+			tableAttributes.add(new ArrayList<>(schema.dictionary().decode(table)));
+		}
+		DecompositionSearchResponse.Candidate candidate = new DecompositionSearchResponse.Candidate();
+		candidate.setTables(tables);
+		candidate.setTableAttributes(tableAttributes);
+		candidate.setScore(score);
+		candidate.setLosslessJoin(lossless);
+		candidate.setDependencyPreserving(preserving);
+		candidate.setApproximate(approximate);
+		return candidate;
+	}
+}
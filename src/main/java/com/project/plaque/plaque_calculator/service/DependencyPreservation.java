@@ -0,0 +1,54 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import com.project.plaque.plaque_calculator.model.EncodedFD;
+
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * DependencyPreservation: Polynomial dependency-preservation test of a decomposition, no projected FD sets needed.
+ * For every FD X→Y: Z := X, then repeat Z := Z ∪ ((Z ∩ Ri)+ ∩ Ri) over the components Ri until Z stops growing.
+ * The FD is preserved iff Y ⊆ Z. Stops at the first FD that is not preserved and returns it as the witness.
+ */
+public final class DependencyPreservation {
+
+	// witness: first FD that is not preserved, null if all are
+	public record Result(boolean preserved, EncodedFD witness) { }
+
+	private DependencyPreservation() {
+	}
+
+	/**
+	 * @param fds the FDs to preserve
+	 * @param components the schemas of the decomposition (same encoding)
+	 * @param closure closure operator of the FDs
+	 */
+	public static Result check(List<EncodedFD> fds, List<AttributeSet> components, UnaryOperator<AttributeSet> closure) {
+		for (EncodedFD fd : fds) {
+			if (!isPreserved(fd, components, closure)) {
+				return new Result(false, fd);
+			}
+		}
+		return new Result(true, null);
+	}
+
+	public static boolean isPreserved(EncodedFD fd, List<AttributeSet> components, UnaryOperator<AttributeSet> closure) {
+		AttributeSet z = fd.getLhs();
+		boolean changed = true;
+		while (changed && !z.containsAll(fd.getRhs())) {
+			changed = false;
+			for (AttributeSet component : components) {
+				AttributeSet shared = z.intersect(component);
+				if (shared.isEmpty()) continue;
+				AttributeSet gained = closure.apply(shared).intersect(component);
+				if (!z.containsAll(gained)) {
+					z = z.union(gained);
+					changed = true;
+					if (z.containsAll(fd.getRhs())) return true;
+				}
+			}
+		}
+		return z.containsAll(fd.getRhs());
+	}
+}
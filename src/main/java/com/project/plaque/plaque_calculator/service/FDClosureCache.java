@@ -0,0 +1,146 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.AttributeDictionary;
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import com.project.plaque.plaque_calculator.model.FD;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FDClosureCache: Memoized attribute closures, shared by all requests and sessions.
+ * - Entries are grouped by an immutable fingerprint of the FD set (its sorted FD strings), every FD set gets
+ *   a canonical encoding (attributes of the FDs in sorted order) and one FDClosureIndex
+ * - A caller's dictionary is mapped onto the canonical one, so tables of different schemas over the same
+ *   FD set hit the same entries. Attributes outside the FDs only determine themselves and are not part of the key.
+ * - Bounded: at most MAX_FD_SETS FD sets (least recently used dropped) and MAX_ENTRIES_PER_SET closures per set
+ */
+public final class FDClosureCache {
+
+	public record Stats(long hits, long misses, int fdSets, long entries) {
+		public double hitRate() {
+			long total = hits + misses;
+			return total == 0 ? 0.0 : (double) hits / total;
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.US, "closure cache: %d hits, %d misses (%.1f%% hit rate), %d FD sets, %d entries",
+					hits, misses, hitRate() * 100, fdSets, entries);
+		}
+	}
+
+	private static final int MAX_FD_SETS = 64;
+	private static final int MAX_ENTRIES_PER_SET = 16_384;
+
+	private final Map<FDSetFingerprint, CanonicalFDSet> fdSets = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<FDSetFingerprint, CanonicalFDSet> eldest) {
+			return size() > MAX_FD_SETS;
+		}
+	};
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Returns the (cached) closure operator of the FD set for attribute sets encoded with the given dictionary.
+	 * The dictionary must contain every attribute of the FDs.
+	 */
+	public SchemaClosure forSchema(Collection<FD> fds, AttributeDictionary dictionary) {
+		FDSetFingerprint fingerprint = FDSetFingerprint.of(fds);
+		CanonicalFDSet canonical;
+		synchronized (fdSets) {
+			canonical = fdSets.get(fingerprint);
+			if (canonical == null) {
+				canonical = new CanonicalFDSet(fds);
+				fdSets.put(fingerprint, canonical);
+			}
+		}
+		return new SchemaClosure(canonical, dictionary);
+	}
+
+	public Stats stats() {
+		long entries = 0;
+		int sets;
+		synchronized (fdSets) {
+			sets = fdSets.size();
+			for (CanonicalFDSet set : fdSets.values()) entries += set.memo.size();
+		}
+		return new Stats(hits.get(), misses.get(), sets, entries);
+	}
+
+	public void clear() {
+		synchronized (fdSets) {
+			fdSets.clear();
+		}
+	}
+
+	private static final class CanonicalFDSet {
+		private final AttributeDictionary dictionary;
+		private final FDClosureIndex index;
+		private final ConcurrentHashMap<AttributeSet, AttributeSet> memo = new ConcurrentHashMap<>();
+
+		CanonicalFDSet(Collection<FD> fds) {
+			TreeSet<String> attributes = new TreeSet<>();
+			for (FD fd : fds) {
+				attributes.addAll(fd.getLhs());
+				attributes.addAll(fd.getRhs());
+			}
+			this.dictionary = AttributeDictionary.of(attributes, List.of());
+			this.index = FDClosureIndex.of(dictionary.encodeAll(fds), dictionary.size());
+		}
+	}
+
+	/**
+	 * Closure operator bound to one caller dictionary: translates to the canonical encoding, looks the closure up
+	 * (or computes and stores it) and translates back.
+	 */
+	public final class SchemaClosure {
+		private final CanonicalFDSet canonical;
+		private final int[] toCanonical;
+		private final int[] fromCanonical;
+		private final int callerWords;
+
+		private SchemaClosure(CanonicalFDSet canonical, AttributeDictionary caller) {
+			this.canonical = canonical;
+			this.callerWords = caller.wordCount();
+			this.toCanonical = new int[caller.size()];
+			for (int i = 0; i < caller.size(); i++) {
+				toCanonical[i] = canonical.dictionary.indexOf(caller.name(i));
+			}
+			this.fromCanonical = new int[canonical.dictionary.size()];
+			for (int c = 0; c < fromCanonical.length; c++) {
+				fromCanonical[c] = caller.indexOf(canonical.dictionary.name(c));
+			}
+		}
+
+		public AttributeSet closure(AttributeSet x) {
+			long[] key = new long[canonical.dictionary.wordCount()];
+			for (int i = x.nextSetBit(0); i >= 0; i = x.nextSetBit(i + 1)) {
+				int c = i < toCanonical.length ? toCanonical[i] : -1;
+				if (c >= 0) key[c >>> 6] |= 1L << c;
+			}
+			AttributeSet canonicalX = AttributeSet.fromWords(key);
+			AttributeSet canonicalClosure = canonical.memo.get(canonicalX);
+			if (canonicalClosure != null) {
+				hits.incrementAndGet();
+			} else {
+				misses.incrementAndGet();
+				canonicalClosure = canonical.index.closure(canonicalX);
+				if (canonical.memo.size() >= MAX_ENTRIES_PER_SET) {
+					// Simple bound: start over instead of tracking recency per entry
+					canonical.memo.clear();
+				}
+				canonical.memo.put(canonicalX, canonicalClosure);
+			}
+
+			long[] out = x.toWords(callerWords);
+			for (int c = canonicalClosure.nextSetBit(0); c >= 0; c = canonicalClosure.nextSetBit(c + 1)) {
+				int i = fromCanonical[c];
+				if (i >= 0) out[i >>> 6] |= 1L << i;
+			}
+			return AttributeSet.fromWords(out);
+		}
+	}
+}
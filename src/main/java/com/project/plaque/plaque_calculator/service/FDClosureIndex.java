@@ -0,0 +1,103 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import com.project.plaque.plaque_calculator.model.EncodedFD;
+
+import java.util.List;
+
+/**
+ * FDClosureIndex: Linear-time attribute closure (Beeri/Bernstein) for one FD set.
+ * - Prepared once: for every attribute the FDs whose LHS contains it, and the LHS size of every FD
+ * - Per query: a missing-attribute counter per FD; each attribute entering the closure decrements the counters
+ *   of its FDs, an FD whose counter reaches 0 fires and adds its RHS
+ * Every attribute is processed once, so a query costs O(total size of the FD set) instead of
+ * repeated passes over all FDs.
+ */
+public final class FDClosureIndex {
+
+	private final int attributeCount;
+	private final int wordCount;
+	private final int[] lhsSizes;
+	private final int[][] rhsAttributes;
+	// FDs per attribute of their LHS
+	private final int[][] fdsByAttribute;
+	// FDs with an empty LHS fire for every query
+	private final int[] unconditional;
+
+	private FDClosureIndex(int attributeCount, List<EncodedFD> fds) {
+		this.attributeCount = attributeCount;
+		this.wordCount = AttributeSet.wordCount(attributeCount);
+		int m = fds.size();
+		this.lhsSizes = new int[m];
+		this.rhsAttributes = new int[m][];
+		int[] perAttribute = new int[attributeCount];
+		int unconditionalCount = 0;
+		for (int f = 0; f < m; f++) {
+			EncodedFD fd = fds.get(f);
+			lhsSizes[f] = fd.getLhs().size();
+			rhsAttributes[f] = fd.getRhs().toArray();
+			if (lhsSizes[f] == 0) unconditionalCount++;
+			fd.getLhs().forEach(a -> perAttribute[a]++);
+		}
+		this.fdsByAttribute = new int[attributeCount][];
+		for (int a = 0; a < attributeCount; a++) {
+			fdsByAttribute[a] = new int[perAttribute[a]];
+		}
+		int[] fill = new int[attributeCount];
+		this.unconditional = new int[unconditionalCount];
+		int u = 0;
+		for (int f = 0; f < m; f++) {
+			final int fdIndex = f;
+			fds.get(f).getLhs().forEach(a -> fdsByAttribute[a][fill[a]++] = fdIndex);
+			if (lhsSizes[f] == 0) unconditional[u++] = f;
+		}
+	}
+
+	/**
+	 * Builds the index. attributeCount is the size of the dictionary the FDs were encoded with.
+	 */
+	public static FDClosureIndex of(List<EncodedFD> fds, int attributeCount) {
+		return new FDClosureIndex(attributeCount, fds);
+	}
+
+	public int attributeCount() {
+		return attributeCount;
+	}
+
+	public AttributeSet closure(AttributeSet x) {
+		long[] closure = x.toWords(wordCount);
+		int[] missing = lhsSizes.clone();
+		// Every attribute is queued at most once
+		int[] queue = new int[attributeCount];
+		int head = 0;
+		int tail = 0;
+
+		for (int a = x.nextSetBit(0); a >= 0 && a < attributeCount; a = x.nextSetBit(a + 1)) {
+			queue[tail++] = a;
+		}
+		for (int f : unconditional) {
+			tail = fire(f, closure, queue, tail);
+		}
+		while (head < tail) {
+			int a = queue[head++];
+			for (int f : fdsByAttribute[a]) {
+				if (--missing[f] == 0) {
+					tail = fire(f, closure, queue, tail);
+				}
+			}
+		}
+		return AttributeSet.fromWords(closure);
+	}
+
+	// Adds the RHS of FD f, newly added attributes are queued for processing
+	private int fire(int f, long[] closure, int[] queue, int tail) {
+		for (int b : rhsAttributes[f]) {
+			long bit = 1L << b;
+			if ((closure[b >>> 6] & bit) == 0) {
+				closure[b >>> 6] |= bit;
+				queue[tail++] = b;
+			}
+		}
+		return tail;
+	}
+}
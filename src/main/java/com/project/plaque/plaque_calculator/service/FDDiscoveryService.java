@@ -0,0 +1,381 @@
+package com.project.plaque.plaque_calculator.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * FDDiscoveryService: Finds the minimal functional dependencies that hold in the input table (TANE).
+ * - Cells are dictionary-encoded per column; every attribute set X has a stripped partition of the rows
+ *   (classes of rows agreeing on X, singletons dropped), the partition of X ∪ Y is the product of both
+ * - Level-wise search over the attribute lattice: X \ {A} → A holds iff e(X \ {A}) = e(X), where
+ *   e(X) = ||π_X|| - |π_X|. Candidate RHS sets C+(X) prune non-minimal FDs and whole lattice branches
+ * - Approximate FDs: with maxError > 0, X → A is also reported when its g3 error (fraction of rows to
+ *   remove for it to hold) is at most maxError
+ * - The sets of a level are processed in parallel on the shared SubsetLattice pool, the search stops at
+ *   the time budget and returns the FDs found so far
+ * FDs are reported in the engine's format with 1-based column numbers ("1,2->3;4->5"), which is what
+ * FDService.parseFDString and /compute read. All rows are tuples, as in FDValidator.
+ */
+@Service
+public class FDDiscoveryService {
+
+	public record DiscoveredFD(int[] lhs, int rhs, double error) {
+		// "1,2->3", 1-based column numbers
+		public String format() {
+			return lhsText() + "->" + (rhs + 1);
+		}
+
+		String lhsText() {
+			StringJoiner text = new StringJoiner(",");
+			for (int a : lhs) text.add(String.valueOf(a + 1));
+			return text.toString();
+		}
+	}
+
+	public record Result(List<DiscoveredFD> fds, int columnCount, int rowCount, int levels, boolean timedOut, long elapsedMillis) {
+		// Exact FDs only (an approximate one would be rejected by /compute), same LHS merged: "1->2,3;2,4->1"
+		public String fdString() {
+			Map<String, StringJoiner> byLhs = new LinkedHashMap<>();
+			for (DiscoveredFD fd : fds) {
+				if (fd.error() > 0) continue;
+				byLhs.computeIfAbsent(fd.lhsText(), k -> new StringJoiner(",")).add(String.valueOf(fd.rhs() + 1));
+			}
+			StringJoiner out = new StringJoiner(";");
+			byLhs.forEach((lhs, rhs) -> out.add(lhs + "->" + rhs));
+			return out.toString();
+		}
+
+		// FDs that hold on all but a g3 fraction of the rows (maxError > 0)
+		public List<DiscoveredFD> approximateFds() {
+			return fds.stream().filter(fd -> fd.error() > 0).toList();
+		}
+	}
+
+	// Level sets: stripped partition, its error count and the candidate RHS set
+	private static final class Node {
+		final StrippedPartition partition;
+		long candidates;
+
+		Node(StrippedPartition partition) {
+			this.partition = partition;
+		}
+	}
+
+	private final SubsetLattice lattice;
+
+	public FDDiscoveryService(FDService fdService) {
+		this.lattice = fdService.lattice();
+	}
+
+	/**
+	 * @param manualEncoded table as "a,b;c,d" (rows separated by ";", cells by ",")
+	 * @param maxError g3 threshold in [0, 1), 0 for exact FDs only
+	 * @param timeBudgetMillis search stops after this time, the result is flagged as timed out
+	 */
+	public Result discover(String manualEncoded, double maxError, long timeBudgetMillis) {
+		long startNs = System.nanoTime();
+		long deadline = startNs + Math.max(1, timeBudgetMillis) * 1_000_000L;
+		if (maxError < 0 || maxError >= 1) {
+			throw new IllegalArgumentException("Maximum error must be in [0, 1), got " + maxError);
+		}
+
+		List<String[]> rows = splitRows(manualEncoded);
+		if (rows.isEmpty()) {
+			return new Result(List.of(), 0, 0, 0, false, 0);
+		}
+		int n = rows.get(0).length;
+		for (String[] row : rows) {
+			if (row.length != n) {
+				throw new IllegalArgumentException("All rows must have " + n + " columns.");
+			}
+		}
+		if (n > SubsetLattice.MAX_ATTRIBUTES) {
+			throw new IllegalArgumentException("FD discovery supports at most " + SubsetLattice.MAX_ATTRIBUTES + " columns, got " + n);
+		}
+		int r = rows.size();
+		long all = SubsetLattice.fullMask(n);
+		// g3 errors are compared as row counts
+		int maxErrorRows = (int) Math.floor(maxError * r + 1e-9);
+
+		List<DiscoveredFD> found = Collections.synchronizedList(new ArrayList<>());
+		Node empty = new Node(StrippedPartition.ofAllRows(r));
+		empty.candidates = all;
+		Map<Long, Node> previous = Map.of(0L, empty);
+
+		// Level 1: one partition per column
+		int[][] encoded = encodeColumns(rows, n);
+		StrippedPartition[] columns = new StrippedPartition[n];
+		Map<Long, Node> level = new HashMap<>();
+		for (int a = 0; a < n; a++) {
+			columns[a] = StrippedPartition.ofColumn(encoded[a]);
+			level.put(1L << a, new Node(columns[a]));
+		}
+
+		int levels = 0;
+		boolean timedOut = false;
+		while (!level.isEmpty()) {
+			if (System.nanoTime() > deadline) {
+				timedOut = true;
+				break;
+			}
+			levels++;
+			computeDependencies(level, previous, all, maxErrorRows, r, found);
+
+			// Prune: sets without candidates have no minimal FDs in their supersets
+			level.values().removeIf(node -> node.candidates == 0);
+			previous = level;
+			level = nextLevel(level, deadline);
+			if (level == null) {
+				timedOut = true;
+				break;
+			}
+		}
+
+		List<DiscoveredFD> fds = expandConstantColumns(found, columns, r);
+		fds.sort(Comparator.comparingInt((DiscoveredFD fd) -> fd.lhs().length)
+				.thenComparing((a, b) -> Arrays.compare(a.lhs(), b.lhs()))
+				.thenComparingInt(DiscoveredFD::rhs));
+		long elapsedMillis = (System.nanoTime() - startNs) / 1_000_000;
+		System.out.println("[FDDiscovery] " + n + " columns, " + r + " rows: " + fds.size() + " FDs in "
+				+ levels + " levels, " + elapsedMillis + " ms" + (timedOut ? " (time budget reached)" : ""));
+		return new Result(List.copyOf(fds), n, r, levels, timedOut, elapsedMillis);
+	}
+
+	// C+(X) = ∩ C+(X \ {A}), then X \ {A} → A is tested for every candidate A ∈ X; the sets run in parallel
+	private void computeDependencies(Map<Long, Node> level, Map<Long, Node> previous, long all,
+									 int maxErrorRows, int rowCount, List<DiscoveredFD> found) {
+		List<Map.Entry<Long, Node>> entries = new ArrayList<>(level.entrySet());
+		lattice.map(entries.size(), i -> {
+			long x = entries.get(i).getKey();
+			Node node = entries.get(i).getValue();
+			long candidates = all;
+			for (long rest = x; rest != 0; rest &= rest - 1) {
+				Node parent = previous.get(x & ~Long.lowestOneBit(rest));
+				candidates &= parent == null ? 0 : parent.candidates;
+			}
+
+			for (long rest = x & candidates; rest != 0; rest &= rest - 1) {
+				long a = Long.lowestOneBit(rest);
+				StrippedPartition lhs = previous.get(x & ~a).partition;
+				int errorDrop = lhs.error() - node.partition.error();
+				if (errorDrop == 0) {
+					// Exact FD: no superset of X \ {A} gives a minimal FD for any attribute outside X
+					found.add(new DiscoveredFD(indexes(x & ~a), Long.numberOfTrailingZeros(a), 0));
+					candidates &= ~a & x;
+				} else if (errorDrop <= maxErrorRows) {
+					// e(X \ {A}) - e(X) is a lower bound of the g3 error, only then is the exact error computed
+					int g3 = lhs.g3Error(node.partition, rowCount);
+					if (g3 <= maxErrorRows) {
+						found.add(new DiscoveredFD(indexes(x & ~a), Long.numberOfTrailingZeros(a), (double) g3 / rowCount));
+						candidates &= ~a;
+					}
+				}
+			}
+			node.candidates = candidates;
+			return null;
+		});
+	}
+
+	// Prefix blocks: X and Y differing only in their highest attribute give X ∪ Y if all its subsets survived
+	private Map<Long, Node> nextLevel(Map<Long, Node> level, long deadline) {
+		Map<Long, List<Long>> blocks = new TreeMap<>();
+		for (long x : level.keySet()) {
+			blocks.computeIfAbsent(x & ~Long.highestOneBit(x), k -> new ArrayList<>()).add(x);
+		}
+		List<long[]> pairs = new ArrayList<>();
+		for (List<Long> block : blocks.values()) {
+			Collections.sort(block);
+			for (int i = 0; i < block.size(); i++) {
+				for (int j = i + 1; j < block.size(); j++) {
+					long z = block.get(i) | block.get(j);
+					if (allSubsetsPresent(z, level)) {
+						pairs.add(new long[]{block.get(i), block.get(j)});
+					}
+				}
+			}
+		}
+
+		List<StrippedPartition> products = lattice.map(pairs.size(), i -> System.nanoTime() > deadline
+				? null
+				: level.get(pairs.get(i)[0]).partition.product(level.get(pairs.get(i)[1]).partition));
+		Map<Long, Node> next = new HashMap<>();
+		for (int i = 0; i < pairs.size(); i++) {
+			if (products.get(i) == null) return null;
+			next.put(pairs.get(i)[0] | pairs.get(i)[1], new Node(products.get(i)));
+		}
+		return next;
+	}
+
+	private boolean allSubsetsPresent(long z, Map<Long, Node> level) {
+		for (long rest = z; rest != 0; rest &= rest - 1) {
+			if (!level.containsKey(z & ~Long.lowestOneBit(rest))) return false;
+		}
+		return true;
+	}
+
+	// ∅ → A (constant column) cannot be written in the FD format, it is reported as B → A for every other column
+	// (approximate ones get the error of B → A, which may be lower)
+	private List<DiscoveredFD> expandConstantColumns(List<DiscoveredFD> found, StrippedPartition[] columns, int rowCount) {
+		List<DiscoveredFD> out = new ArrayList<>();
+		for (DiscoveredFD fd : found) {
+			if (fd.lhs().length > 0) {
+				out.add(fd);
+				continue;
+			}
+			int a = fd.rhs();
+			for (int b = 0; b < columns.length; b++) {
+				if (b == a) continue;
+				double error = fd.error() == 0 ? 0
+						: (double) columns[b].g3Error(columns[b].product(columns[a]), rowCount) / rowCount;
+				out.add(new DiscoveredFD(new int[]{b}, a, error));
+			}
+		}
+		return out;
+	}
+
+	private static int[] indexes(long mask) {
+		int[] out = new int[Long.bitCount(mask)];
+		int i = 0;
+		for (long rest = mask; rest != 0; rest &= rest - 1) {
+			out[i++] = Long.numberOfTrailingZeros(rest);
+		}
+		return out;
+	}
+
+	private int[][] encodeColumns(List<String[]> rows, int colCount) {
+		int[][] encoded = new int[colCount][rows.size()];
+		for (int c = 0; c < colCount; c++) {
+			Map<String, Integer> dictionary = new HashMap<>();
+			for (int r = 0; r < rows.size(); r++) {
+				encoded[c][r] = dictionary.computeIfAbsent(rows.get(r)[c], k -> dictionary.size());
+			}
+		}
+		return encoded;
+	}
+
+	private List<String[]> splitRows(String manualEncoded) {
+		List<String[]> rows = new ArrayList<>();
+		if (manualEncoded == null || manualEncoded.isBlank()) return rows;
+		for (String line : manualEncoded.trim().split(";")) {
+			if (line.isBlank()) continue;
+			String[] cells = line.split(",", -1);
+			for (int i = 0; i < cells.length; i++) cells[i] = cells[i].trim();
+			rows.add(cells);
+		}
+		return rows;
+	}
+
+	/**
+	 * Stripped partition: the rows of all classes with at least two rows, concatenated (rows),
+	 * class i spans rows[starts[i]] .. rows[starts[i + 1] - 1].
+	 */
+	static final class StrippedPartition {
+
+		private final int[] rows;
+		private final int[] starts;
+		private final int rowCount;
+
+		private StrippedPartition(int[] rows, int[] starts, int rowCount) {
+			this.rows = rows;
+			this.starts = starts;
+			this.rowCount = rowCount;
+		}
+
+		static StrippedPartition ofAllRows(int rowCount) {
+			if (rowCount < 2) return new StrippedPartition(new int[0], new int[]{0}, rowCount);
+			int[] rows = new int[rowCount];
+			for (int i = 0; i < rowCount; i++) rows[i] = i;
+			return new StrippedPartition(rows, new int[]{0, rowCount}, rowCount);
+		}
+
+		static StrippedPartition ofColumn(int[] values) {
+			int domain = 0;
+			for (int v : values) domain = Math.max(domain, v + 1);
+			int[] counts = new int[domain];
+			for (int v : values) counts[v]++;
+			int[] offsets = new int[domain];
+			int size = 0;
+			int classes = 0;
+			for (int v = 0; v < domain; v++) {
+				if (counts[v] < 2) continue;
+				offsets[v] = size;
+				size += counts[v];
+				classes++;
+			}
+			int[] rows = new int[size];
+			int[] starts = new int[classes + 1];
+			int[] fill = offsets.clone();
+			for (int r = 0; r < values.length; r++) {
+				if (counts[values[r]] >= 2) rows[fill[values[r]]++] = r;
+			}
+			int c = 0;
+			for (int v = 0; v < domain; v++) {
+				if (counts[v] >= 2) starts[c++] = offsets[v];
+			}
+			starts[classes] = size;
+			return new StrippedPartition(rows, starts, values.length);
+		}
+
+		int classCount() {
+			return starts.length - 1;
+		}
+
+		// ||π|| - |π|: rows that would have to go for the set to be a key
+		int error() {
+			return rows.length - classCount();
+		}
+
+		// π_this · π_other, linear in the partition sizes (TANE's product with a row → class table)
+		StrippedPartition product(StrippedPartition other) {
+			int[] classOf = new int[rowCount];
+			Arrays.fill(classOf, -1);
+			for (int c = 0; c < classCount(); c++) {
+				for (int i = starts[c]; i < starts[c + 1]; i++) classOf[rows[i]] = c;
+			}
+			int[] counts = new int[classCount()];
+			int[] offsets = new int[classCount()];
+			int[] touched = new int[classCount()];
+			int[] outRows = new int[Math.min(rows.length, other.rows.length)];
+			int[] outStarts = new int[outRows.length / 2 + 1];
+			int size = 0;
+			int classes = 0;
+			for (int k = 0; k < other.classCount(); k++) {
+				int touchedCount = 0;
+				for (int i = other.starts[k]; i < other.starts[k + 1]; i++) {
+					int c = classOf[other.rows[i]];
+					if (c >= 0 && counts[c]++ == 0) touched[touchedCount++] = c;
+				}
+				for (int t = 0; t < touchedCount; t++) {
+					int c = touched[t];
+					if (counts[c] < 2) continue;
+					outStarts[classes++] = size;
+					offsets[c] = size;
+					size += counts[c];
+				}
+				for (int i = other.starts[k]; i < other.starts[k + 1]; i++) {
+					int c = classOf[other.rows[i]];
+					if (c >= 0 && counts[c] >= 2) outRows[offsets[c]++] = other.rows[i];
+				}
+				for (int t = 0; t < touchedCount; t++) counts[touched[t]] = 0;
+			}
+			outStarts[classes] = size;
+			return new StrippedPartition(Arrays.copyOf(outRows, size), Arrays.copyOf(outStarts, classes + 1), rowCount);
+		}
+
+		// g3(this → A) in rows, refined = π of this ∪ {A}: per class, all rows but the largest agreeing group
+		int g3Error(StrippedPartition refined, int rowCount) {
+			int[] groupSize = new int[rowCount];
+			for (int c = 0; c < refined.classCount(); c++) {
+				groupSize[refined.rows[refined.starts[c]]] = refined.starts[c + 1] - refined.starts[c];
+			}
+			int error = 0;
+			for (int c = 0; c < classCount(); c++) {
+				int largest = 1;
+				for (int i = starts[c]; i < starts[c + 1]; i++) largest = Math.max(largest, groupSize[rows[i]]);
+				error += starts[c + 1] - starts[c] - largest;
+			}
+			return error;
+		}
+	}
+}
@@ -0,0 +1,218 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import com.project.plaque.plaque_calculator.model.EncodedFD;
+
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * FDProjection: Projection of an FD set onto a relation R as minimal FDs X→a (X ⊆ R, a ∈ R \ X, no proper subset
+ * of X determines a), without enumerating all 2^|R| subsets.
+ * Per target attribute a, a level-wise search over its minimal determinants:
+ * - Only relation attributes that can take part in deriving a are used (LHS attributes of FDs that lead to a,
+ *   found backwards from a), ordered by how many left-hand sides they occur in
+ * - Each set is generated once, by adding a higher-ranked attribute; supersets of determinants found on
+ *   lower levels are skipped (they are not minimal), so are sets that cannot reach a even with all
+ *   higher-ranked attributes added
+ * - Sets are AttributeSet bitsets, so relations are not limited to 31 attributes
+ * - The searches of the target attributes are independent and run in parallel on the SubsetLattice pool
+ * The result equals the full subset enumeration followed by LHS minimization, sorted by LHS (as a bit mask
+ * over the relation's indexes), then RHS.
+ */
+public final class FDProjection {
+
+	private FDProjection() {
+	}
+
+	/**
+	 * @param relation the relation's attributes (dictionary indexes)
+	 * @param fds the FD set in the same encoding
+	 * @param closure closure operator of the FD set (called concurrently)
+	 * @param lattice pool for the per-target searches
+	 */
+	public static List<EncodedFD> project(AttributeSet relation, List<EncodedFD> fds, UnaryOperator<AttributeSet> closure,
+										  SubsetLattice lattice) {
+		List<EncodedFD> out = new ArrayList<>();
+		if (relation.isEmpty() || fds.isEmpty()) {
+			return out;
+		}
+
+		// Ordering heuristic: attributes in many left-hand sides first
+		Map<Integer, Integer> lhsCount = new HashMap<>();
+		for (EncodedFD fd : fds) {
+			fd.getLhs().forEach(a -> lhsCount.merge(a, 1, Integer::sum));
+		}
+
+		int[] targets = relation.toArray();
+		List<List<AttributeSet>> determinants = lattice.map(targets.length, t -> {
+			int target = targets[t];
+			AttributeSet relevant = contributors(target, fds).intersect(relation).without(target);
+			if (relevant.isEmpty() || !closure.apply(relevant).contains(target)) {
+				return List.of(); // No subset of the relation determines the target
+			}
+			return minimalDeterminants(target, relevant, lhsCount, closure);
+		});
+		for (int t = 0; t < targets.length; t++) {
+			for (AttributeSet lhs : determinants.get(t)) {
+				out.add(new EncodedFD(lhs, AttributeSet.of(targets[t])));
+			}
+		}
+
+		out.sort(FDProjection::compareByMask);
+		return out;
+	}
+
+	/**
+	 * Projection onto relation \ {removed}, given the projection onto relation. Minimality of X → a only depends
+	 * on the subsets of X, so the result is the FDs that do not mention the removed attribute.
+	 */
+	public static List<EncodedFD> reduce(List<EncodedFD> projected, int removed) {
+		List<EncodedFD> out = new ArrayList<>(projected.size());
+		for (EncodedFD fd : projected) {
+			if (!fd.getLhs().contains(removed) && !fd.getRhs().contains(removed)) out.add(fd);
+		}
+		return out;
+	}
+
+	/**
+	 * Projection onto relation ∪ {added}, given the projection onto relation. The FDs of relation stay minimal;
+	 * new ones either determine the added attribute (one target search) or have it in their LHS: those are
+	 * searched as minimal Y with a ∈ (Y ∪ {added})+, only for targets the added attribute can contribute to,
+	 * and kept unless Y ∪ {added} contains an existing determinant of a.
+	 */
+	public static List<EncodedFD> extend(List<EncodedFD> projected, AttributeSet relation, int added, List<EncodedFD> fds,
+										 UnaryOperator<AttributeSet> closure, SubsetLattice lattice) {
+		AttributeSet extended = relation.with(added);
+		if (fds.isEmpty()) {
+			return new ArrayList<>(projected);
+		}
+
+		Map<Integer, Integer> lhsCount = new HashMap<>();
+		for (EncodedFD fd : fds) {
+			fd.getLhs().forEach(a -> lhsCount.merge(a, 1, Integer::sum));
+		}
+
+		int[] targets = extended.toArray();
+		List<List<AttributeSet>> determinants = lattice.map(targets.length, t -> {
+			int target = targets[t];
+			AttributeSet contributors = contributors(target, fds);
+			if (target == added) {
+				AttributeSet relevant = contributors.intersect(relation);
+				if (relevant.isEmpty() || !closure.apply(relevant).contains(target)) return List.of();
+				return minimalDeterminants(target, relevant, lhsCount, closure);
+			}
+			if (!contributors.contains(added)) return List.of(); // The added attribute cannot help deriving the target
+			if (closure.apply(AttributeSet.of(added)).contains(target)) return List.of(AttributeSet.of(added));
+
+			AttributeSet relevant = contributors.intersect(relation).without(target);
+			if (relevant.isEmpty() || !closure.apply(relevant.with(added)).contains(target)) return List.of();
+			List<AttributeSet> existing = new ArrayList<>();
+			for (EncodedFD fd : projected) {
+				if (fd.getRhs().contains(target)) existing.add(fd.getLhs());
+			}
+			List<AttributeSet> found = new ArrayList<>();
+			for (AttributeSet y : minimalDeterminants(target, relevant, lhsCount, z -> closure.apply(z.with(added)))) {
+				if (!containsAny(y, existing)) found.add(y.with(added));
+			}
+			return found;
+		});
+
+		List<EncodedFD> out = new ArrayList<>(projected);
+		for (int t = 0; t < targets.length; t++) {
+			for (AttributeSet lhs : determinants.get(t)) {
+				out.add(new EncodedFD(lhs, AttributeSet.of(targets[t])));
+			}
+		}
+		out.sort(FDProjection::compareByMask);
+		return out;
+	}
+
+	private static List<AttributeSet> minimalDeterminants(int target, AttributeSet relevant,
+														  Map<Integer, Integer> lhsCount, UnaryOperator<AttributeSet> closure) {
+		int[] order = relevant.toArray();
+		Integer[] boxed = Arrays.stream(order).boxed().toArray(Integer[]::new);
+		Arrays.sort(boxed, Comparator.comparingInt((Integer a) -> -lhsCount.getOrDefault(a, 0)).thenComparingInt(a -> a));
+		for (int i = 0; i < order.length; i++) order[i] = boxed[i];
+
+		// Attributes ranked after position i, the bound for every set whose highest rank is i
+		AttributeSet[] higher = new AttributeSet[order.length];
+		AttributeSet suffix = AttributeSet.empty();
+		for (int i = order.length - 1; i >= 0; i--) {
+			higher[i] = suffix;
+			suffix = suffix.with(order[i]);
+		}
+
+		List<AttributeSet> determinants = new ArrayList<>();
+		// Sets of the current level that do not determine the target, with the rank of their highest attribute
+		List<AttributeSet> level = new ArrayList<>();
+		List<Integer> levelRank = new ArrayList<>();
+		level.add(AttributeSet.empty());
+		levelRank.add(-1);
+
+		while (!level.isEmpty()) {
+			List<AttributeSet> found = new ArrayList<>();
+			List<AttributeSet> next = new ArrayList<>();
+			List<Integer> nextRank = new ArrayList<>();
+			for (int s = 0; s < level.size(); s++) {
+				AttributeSet x = level.get(s);
+				for (int i = levelRank.get(s) + 1; i < order.length; i++) {
+					AttributeSet z = x.with(order[i]);
+					if (containsAny(z, determinants)) continue;
+					if (closure.apply(z).contains(target)) {
+						found.add(z);
+					} else if (closure.apply(z.union(higher[i])).contains(target)) {
+						next.add(z);
+						nextRank.add(i);
+					}
+				}
+			}
+			determinants.addAll(found);
+			level = next;
+			levelRank = nextRank;
+		}
+		return determinants;
+	}
+
+	// Attributes in the LHS of some FD that can contribute to deriving the target (backwards from the target)
+	private static AttributeSet contributors(int target, List<EncodedFD> fds) {
+		AttributeSet reached = AttributeSet.of(target);
+		AttributeSet contributors = AttributeSet.empty();
+		boolean changed;
+		do {
+			changed = false;
+			for (EncodedFD fd : fds) {
+				if (fd.getRhs().intersects(reached) && !contributors.containsAll(fd.getLhs())) {
+					contributors = contributors.union(fd.getLhs());
+					reached = reached.union(fd.getLhs());
+					changed = true;
+				}
+			}
+		} while (changed);
+		return contributors;
+	}
+
+	private static boolean containsAny(AttributeSet z, List<AttributeSet> determinants) {
+		for (AttributeSet d : determinants) {
+			if (z.containsAll(d)) return true;
+		}
+		return false;
+	}
+
+	// LHS compared as a binary number (highest index decides), then the RHS attribute
+	private static int compareByMask(EncodedFD f, EncodedFD g) {
+		int words = Math.max(AttributeSet.wordCount(highest(f.getLhs()) + 1), AttributeSet.wordCount(highest(g.getLhs()) + 1));
+		long[] a = f.getLhs().toWords(words);
+		long[] b = g.getLhs().toWords(words);
+		for (int w = words - 1; w >= 0; w--) {
+			int cmp = Long.compareUnsigned(a[w], b[w]);
+			if (cmp != 0) return cmp;
+		}
+		return Integer.compare(f.getRhs().nextSetBit(0), g.getRhs().nextSetBit(0));
+	}
+
+	private static int highest(AttributeSet x) {
+		int[] members = x.toArray();
+		return members.length == 0 ? 0 : members[members.length - 1];
+	}
+}
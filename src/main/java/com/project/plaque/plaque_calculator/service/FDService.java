@@ -1,5 +1,8 @@
 package com.project.plaque.plaque_calculator.service;
 
+import com.project.plaque.plaque_calculator.model.AttributeDictionary;
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import com.project.plaque.plaque_calculator.model.EncodedFD;
 import com.project.plaque.plaque_calculator.model.FD;
 import org.springframework.stereotype.Service;
 import java.util.*;
@@ -8,66 +11,64 @@ import java.util.stream.Collectors;
 @Service
 public class FDService {
 
-	// Calculates the closure of the set X under FDs.
+	// Shared by all requests and sessions, identical FD sets reuse each other's closures
+	private final FDClosureCache closureCache = new FDClosureCache();
+	private final CanonicalCoverEngine coverEngine = new CanonicalCoverEngine();
+	// Parallel subset enumeration for BCNF checks, key finding and FD projection
+	private final SubsetLattice lattice = new SubsetLattice();
+
+	// Calculates the closure of the set X under FDs (name-based entry point, runs on the bitset encoding)
 	public Set<String> computeClosure(Set<String> X, List<FD> fds) {
-		Set<String> closure = new HashSet<>(X);
-		boolean changed;
-		do {
-			changed = false;
-			for (FD fd : fds) {
-				if (closure.containsAll(fd.getLhs())
-						&& !closure.containsAll(fd.getRhs())) {
-					closure.addAll(fd.getRhs());
-					changed = true;
-				}
-			}
-		} while (changed);
-		return closure;
+		AttributeDictionary dictionary = AttributeDictionary.of(X, fds);
+		AttributeSet closure = prepareClosure(fds, dictionary).closure(dictionary.encode(X));
+		return new HashSet<>(dictionary.decode(closure));
+	}
+
+	/**
+	 * Memoized closure operator of the FD set for attribute sets encoded with the dictionary
+	 * (which has to contain all attributes of the FDs).
+	 */
+	public FDClosureCache.SchemaClosure prepareClosure(Collection<FD> fds, AttributeDictionary dictionary) {
+		return closureCache.forSchema(fds, dictionary);
+	}
+
+	// Uncached linear-time closure index for an encoded FD set
+	public FDClosureIndex prepareClosure(List<EncodedFD> fds, int attributeCount) {
+		return FDClosureIndex.of(fds, attributeCount);
+	}
+
+	public SubsetLattice lattice() {
+		return lattice;
+	}
+
+	public FDClosureCache.Stats closureCacheStats() {
+		return closureCache.stats();
 	}
 
 	// A function that finds functional dependencies obtained by transitive closure
 	// originalFDs -> List of original FDs, entered by the user or read from file
+	// Derived by the canonical cover engine (closure based, memoized per FD set), sorted by display string
 	public List<FD> findTransitiveFDs(List<FD> originalFDs) {
-		Set<FD> transitiveFDs = new HashSet<>();
-		Set<FD> knownFDs = new HashSet<>(originalFDs);
-
-		// A list to keep track of new finds each round
-		List<FD> newlyFoundInLastIteration = new ArrayList<>(originalFDs);
-
-		while (!newlyFoundInLastIteration.isEmpty()) {
-			Set<FD> foundInThisIteration = new HashSet<>();
-			// Compare each newly found FD with all known FDs
-			for (FD newFd : newlyFoundInLastIteration) { // A -> B
-				for (FD existingFd : knownFDs) { // C -> D
-
-					// Rule 1: e.g., (A->B) ve (B->C) => (A->C)
-					if (newFd.getRhs().equals(existingFd.getLhs())) {
-						FD candidate = new FD(new HashSet<>(newFd.getLhs()), new HashSet<>(existingFd.getRhs()));
-						if (!knownFDs.contains(candidate)) {
-							foundInThisIteration.add(candidate);
-						}
-					}
-
-					// Rule 2: e.g., (C->D) ve (D->A) => (C->A)
-					if (existingFd.getRhs().equals(newFd.getLhs())) {
-						FD candidate = new FD(new HashSet<>(existingFd.getLhs()), new HashSet<>(newFd.getRhs()));
-						if (!knownFDs.contains(candidate)) {
-							foundInThisIteration.add(candidate);
-						}
-					}
-				}
-			}
+		if (originalFDs == null || originalFDs.isEmpty()) {
+			return new ArrayList<>();
+		}
+		return new ArrayList<>(coverEngine.analyze(originalFDs).derived());
+	}
 
-			// Prepare new finds for the next round
-			newlyFoundInLastIteration = new ArrayList<>(foundInThisIteration);
+	/**
+	 * Compiles the relation (attributes in column order) and its FDs into an immutable analysis context:
+	 * dictionary, transitive FDs, closure operator, lazily computed candidate keys.
+	 */
+	public CompiledSchema compile(Collection<String> attributes, List<FD> fds) {
+		return new CompiledSchema(attributes == null ? List.of() : attributes, fds, this);
+	}
 
-			// Add to main lists
-			knownFDs.addAll(newlyFoundInLastIteration);
-			transitiveFDs.addAll(newlyFoundInLastIteration);
+	// Minimal cover (singleton RHS, no extraneous LHS attributes, no redundant FDs), sorted by display string
+	public List<FD> computeMinimalCover(List<FD> fds) {
+		if (fds == null || fds.isEmpty()) {
+			return new ArrayList<>();
 		}
-		// Clear trivial dependencies (e.g. 1->1 or 1,2->1)
-		transitiveFDs.removeIf(fd -> fd.getLhs().containsAll(fd.getRhs()));
-		return new ArrayList<>(transitiveFDs);
+		return new ArrayList<>(coverEngine.analyze(fds).minimalCover());
 	}
 
 	/**
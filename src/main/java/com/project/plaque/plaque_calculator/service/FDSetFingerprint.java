@@ -0,0 +1,37 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Immutable identity of an FD set (its sorted, distinct FD strings), used as cache key. Hash computed once.
+ */
+final class FDSetFingerprint {
+
+	private final List<String> fds;
+	private final int hash;
+
+	private FDSetFingerprint(List<String> fds) {
+		this.fds = fds;
+		this.hash = fds.hashCode();
+	}
+
+	static FDSetFingerprint of(Collection<FD> fds) {
+		TreeSet<String> sorted = new TreeSet<>();
+		for (FD fd : fds) sorted.add(fd.toString());
+		return new FDSetFingerprint(List.copyOf(sorted));
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof FDSetFingerprint other && hash == other.hash && fds.equals(other.fds);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+}
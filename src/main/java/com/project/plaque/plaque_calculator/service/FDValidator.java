@@ -0,0 +1,221 @@
+package com.project.plaque.plaque_calculator.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * FDValidator: Checks the user's functional dependencies against the tuples before any RIC computation.
+ * - Cells are dictionary-encoded per column, so all comparisons run on ints
+ * - For every distinct LHS one pass over the rows hashes the LHS values into a stripped partition
+ *   (equivalence classes with at least two rows), FDs sharing the same LHS reuse that partition
+ * - Every class is checked for differing RHS values, the offending row pairs are reported
+ * FDs follow the engine's format ("1,2->3", 1-based column numbers); every row is a tuple, there is no header row.
+ * FDs that cannot be resolved are skipped here and left to the engine, which reports format errors itself.
+ */
+@Service
+public class FDValidator {
+
+	private static final int MAX_REPORTED_VIOLATIONS = 10;
+
+	public record Violation(String fd, int firstRow, int secondRow, int column, String firstValue, String secondValue) {
+		// Rows and columns are reported 1-based, like in the input table
+		public String describe() {
+			return "FD " + fd + " does not hold: rows " + firstRow + " and " + secondRow
+					+ " agree on the left-hand side but differ on column " + column
+					+ " ('" + firstValue + "' vs '" + secondValue + "').";
+		}
+	}
+
+	// partitions: stripped partitions built, one per distinct LHS
+	public record ValidationResult(List<Violation> violations, int checkedFds, int partitions, int rowCount,
+								   long elapsedMicros) {
+		public boolean isValid() {
+			return violations.isEmpty();
+		}
+
+		public String explanation() {
+			if (violations.isEmpty()) {
+				return "All " + checkedFds + " functional dependencies hold on the " + rowCount + " rows.";
+			}
+			StringBuilder sb = new StringBuilder();
+			for (Violation v : violations) {
+				if (sb.length() > 0) sb.append(' ');
+				sb.append(v.describe());
+			}
+			return sb.toString();
+		}
+	}
+
+	private record ParsedFd(String text, int[] lhs, int[] rhs) { }
+
+	/**
+	 * Validates the FDs (";" or newline separated) against the encoded table ("a,b;c,d").
+	 * Returns an empty, valid result when the input cannot be interpreted (ragged rows, no rows).
+	 */
+	public ValidationResult validate(String manualEncoded, String fds) {
+		long startNs = System.nanoTime();
+		List<String[]> rows = splitRows(manualEncoded);
+		if (rows.isEmpty() || fds == null || fds.isBlank()) {
+			return new ValidationResult(List.of(), 0, 0, rows.size(), 0);
+		}
+		int colCount = rows.get(0).length;
+		for (String[] row : rows) {
+			if (row.length != colCount) {
+				// The engine rejects ragged tables with its own message
+				return new ValidationResult(List.of(), 0, 0, rows.size(), 0);
+			}
+		}
+
+		List<ParsedFd> parsed = parseFds(fds, colCount);
+		int[][] encoded = encodeColumns(rows, colCount);
+
+		// One stripped partition per distinct LHS
+		Map<String, int[][]> partitions = new HashMap<>();
+		List<Violation> violations = new ArrayList<>();
+		for (ParsedFd fd : parsed) {
+			String lhsKey = Arrays.toString(fd.lhs());
+			int[][] classes = partitions.computeIfAbsent(lhsKey, k -> strippedPartition(encoded, fd.lhs(), rows.size()));
+			collectViolations(fd, classes, encoded, rows, violations);
+			if (violations.size() >= MAX_REPORTED_VIOLATIONS) break;
+		}
+		long elapsedMicros = (System.nanoTime() - startNs) / 1_000;
+		return new ValidationResult(List.copyOf(violations), parsed.size(), partitions.size(), rows.size(),
+				elapsedMicros);
+	}
+
+	private void collectViolations(ParsedFd fd, int[][] classes, int[][] encoded, List<String[]> rows, List<Violation> out) {
+		for (int[] cls : classes) {
+			int first = cls[0];
+			for (int i = 1; i < cls.length; i++) {
+				int other = cls[i];
+				for (int a : fd.rhs()) {
+					if (encoded[a][first] != encoded[a][other]) {
+						out.add(new Violation(fd.text(), first + 1, other + 1, a + 1, rows.get(first)[a], rows.get(other)[a]));
+						// One witness pair per FD is enough for the explanation
+						return;
+					}
+				}
+			}
+		}
+	}
+
+	// Groups row indices by their LHS values, singleton classes are dropped (stripped partition)
+	private int[][] strippedPartition(int[][] encoded, int[] lhs, int rowCount) {
+		int[] classOf = new int[rowCount];
+		int classes = 1;
+		for (int a : lhs) {
+			classes = refine(classOf, classes, encoded[a]);
+		}
+
+		// Counting sort of the rows by class, rows stay ascending inside a class
+		int[] counts = new int[classes];
+		for (int c : classOf) counts[c]++;
+		int[][] members = new int[classes][];
+		for (int c = 0; c < classes; c++) {
+			if (counts[c] >= 2) members[c] = new int[counts[c]];
+		}
+		int[] fill = new int[classes];
+		for (int r = 0; r < rowCount; r++) {
+			int c = classOf[r];
+			if (members[c] != null) members[c][fill[c]++] = r;
+		}
+		List<int[]> stripped = new ArrayList<>();
+		for (int[] cls : members) {
+			if (cls != null) stripped.add(cls);
+		}
+		stripped.sort(Comparator.comparingInt(c -> c[0]));
+		return stripped.toArray(new int[0][]);
+	}
+
+	// Splits every class by the column's value; class ids stay dense ints (0..classes-1)
+	private int refine(int[] classOf, int classes, int[] column) {
+		int domain = 0;
+		for (int v : column) domain = Math.max(domain, v + 1);
+		// Rows ordered by class, so each class is split with one value → id table
+		int[] starts = new int[classes + 1];
+		for (int c : classOf) starts[c + 1]++;
+		for (int c = 0; c < classes; c++) starts[c + 1] += starts[c];
+		int[] order = new int[classOf.length];
+		int[] fill = Arrays.copyOf(starts, classes);
+		for (int r = 0; r < classOf.length; r++) order[fill[classOf[r]]++] = r;
+
+		int[] idOfValue = new int[domain];
+		Arrays.fill(idOfValue, -1);
+		int[] refined = new int[classOf.length];
+		int next = 0;
+		for (int c = 0; c < classes; c++) {
+			int base = next;
+			for (int i = starts[c]; i < starts[c + 1]; i++) {
+				int v = column[order[i]];
+				if (idOfValue[v] < base) idOfValue[v] = next++;
+				refined[order[i]] = idOfValue[v];
+			}
+		}
+		System.arraycopy(refined, 0, classOf, 0, classOf.length);
+		return next;
+	}
+
+	private int[][] encodeColumns(List<String[]> rows, int colCount) {
+		int[][] encoded = new int[colCount][rows.size()];
+		for (int c = 0; c < colCount; c++) {
+			Map<String, Integer> dictionary = new HashMap<>();
+			for (int r = 0; r < rows.size(); r++) {
+				String cell = rows.get(r)[c];
+				Integer id = dictionary.get(cell);
+				if (id == null) {
+					id = dictionary.size();
+					dictionary.put(cell, id);
+				}
+				encoded[c][r] = id;
+			}
+		}
+		return encoded;
+	}
+
+	private List<String[]> splitRows(String manualEncoded) {
+		List<String[]> rows = new ArrayList<>();
+		if (manualEncoded == null || manualEncoded.isBlank()) return rows;
+		for (String line : manualEncoded.trim().split(";")) {
+			if (line.isBlank()) continue;
+			String[] cells = line.split(",", -1);
+			for (int i = 0; i < cells.length; i++) cells[i] = cells[i].trim();
+			rows.add(cells);
+		}
+		return rows;
+	}
+
+	private List<ParsedFd> parseFds(String fds, int colCount) {
+		List<ParsedFd> out = new ArrayList<>();
+		String norm = fds.replace("→", "->");
+		for (String part : norm.split("[;\r\n]+")) {
+			String text = part.trim();
+			if (text.isEmpty()) continue;
+			String[] sides = text.split("->");
+			if (sides.length != 2) continue;
+			int[] lhs = resolveColumns(sides[0], colCount);
+			int[] rhs = resolveColumns(sides[1], colCount);
+			if (lhs == null || rhs == null || lhs.length == 0 || rhs.length == 0) continue;
+			out.add(new ParsedFd(text, lhs, rhs));
+		}
+		return out;
+	}
+
+	// 1-based column numbers only, anything else leaves the FD to the engine's own format check
+	private int[] resolveColumns(String side, int colCount) {
+		TreeSet<Integer> cols = new TreeSet<>();
+		for (String tok : side.split(",")) {
+			String t = tok.trim();
+			if (t.isEmpty()) continue;
+			int idx;
+			try {
+				idx = Integer.parseInt(t) - 1;
+			} catch (NumberFormatException nfe) {
+				return null;
+			}
+			if (idx < 0 || idx >= colCount) return null;
+			cols.add(idx);
+		}
+		return cols.stream().mapToInt(Integer::intValue).toArray();
+	}
+}
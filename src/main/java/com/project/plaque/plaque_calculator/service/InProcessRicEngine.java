@@ -0,0 +1,114 @@
+package com.project.plaque.plaque_calculator.service;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+
+/**
+ * InProcessRicEngine: Runs the RIC main class inside the server JVM, no process is started at all.
+ * - Every request gets its own class loader, so the static state of the jar is fresh for each computation
+ *   and concurrent requests do not share it
+ * - Unsafe for production: a timed out computation cannot be killed. The jar's loops ignore the interrupt, so
+ *   every timeout leaves a CPU-bound daemon thread running in the server. The engine is therefore never a
+ *   calibration candidate (RicEngineSelector drops it) and only runs when pinned with ric.engine=inprocess.
+ * Unavailable when the running JVM cannot load the jar's classes (class file version).
+ */
+@Component
+public class InProcessRicEngine implements RicEngine {
+
+	public static final String NAME = "inprocess";
+
+	private final Map<Path, Boolean> availability = new ConcurrentHashMap<>();
+
+	@Override
+	public String name() {
+		return NAME;
+	}
+
+	@Override
+	public boolean isAvailable(Path ricJar) {
+		if (!Files.exists(ricJar)) return false;
+		return availability.computeIfAbsent(ricJar.toAbsolutePath(), jar -> {
+			try (URLClassLoader loader = newLoader(jar)) {
+				Class.forName(mainClassOf(jar), false, loader).getMethod("main", String[].class);
+				return true;
+			} catch (Exception | LinkageError ex) {
+				System.out.println("[RIC] In-process engine unavailable: " + ex);
+				return false;
+			}
+		});
+	}
+
+	@Override
+	public double[][] compute(Request request) {
+		Path jar = request.ricJar().toAbsolutePath();
+		Path outFile = RicEngineSupport.createOutputFile();
+		List<String> args = RicEngineSupport.programArguments(request, outFile);
+		Throwable[] failure = new Throwable[1];
+		URLClassLoader loader = null;
+		try {
+			loader = newLoader(jar);
+			Method entry = Class.forName(mainClassOf(jar), true, loader).getMethod("main", String[].class);
+			Thread runner = new Thread(() -> {
+				try {
+					entry.invoke(null, (Object) args.toArray(new String[0]));
+				} catch (InvocationTargetException ex) {
+					failure[0] = ex.getCause();
+				} catch (Throwable ex) {
+					failure[0] = ex;
+				}
+			}, "ric-inprocess");
+			runner.setDaemon(true);
+			runner.setContextClassLoader(loader);
+			if (request.lowPriority()) {
+				runner.setPriority(Thread.MIN_PRIORITY);
+			}
+			runner.start();
+			runner.join(TimeUnit.SECONDS.toMillis(Math.max(1, request.timeLimitSeconds())));
+			if (runner.isAlive()) {
+				runner.interrupt();
+				System.out.println("[RIC] ERROR: In-process RIC computation timed out after " + request.timeLimitSeconds() + " seconds");
+				throw new RicService.RicTimeoutException("RIC computation timed out after " + request.timeLimitSeconds() + " seconds");
+			}
+			if (failure[0] != null) {
+				throw new RuntimeException("In-process RIC computation failed: " + failure[0], failure[0]);
+			}
+			return RicEngineSupport.readMatrix(outFile, "");
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("RIC computation was interrupted", ex);
+		} catch (ReflectiveOperationException | IOException ex) {
+			throw new RuntimeException("Cannot run RIC jar in-process: " + ex.getMessage(), ex);
+		} finally {
+			if (loader != null) {
+				try {
+					loader.close();
+				} catch (IOException ignore) {}
+			}
+			RicEngineSupport.deleteQuietly(outFile);
+		}
+	}
+
+	private URLClassLoader newLoader(Path jar) throws IOException {
+		return new URLClassLoader(new URL[]{jar.toUri().toURL()}, ClassLoader.getPlatformClassLoader());
+	}
+
+	private String mainClassOf(Path jar) throws IOException {
+		try (JarFile jarFile = new JarFile(jar.toFile())) {
+			String declared = jarFile.getManifest() == null ? null
+					: jarFile.getManifest().getMainAttributes().getValue("Main-Class");
+			return declared == null || declared.isBlank() ? "Main" : declared.trim();
+		}
+	}
+}
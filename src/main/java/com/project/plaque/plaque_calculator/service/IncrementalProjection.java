@@ -0,0 +1,84 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import com.project.plaque.plaque_calculator.model.EncodedFD;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * IncrementalProjection: Projections of one FD set onto many attribute sets S, as a column is dragged in or out.
+ * - Projections are kept per S; a new S that differs from a kept one by a single attribute is derived from it
+ *   (FDProjection.reduce / extend), so the cost follows the change instead of the subsets of S
+ * - Other sets are projected from scratch (FDProjection.project)
+ * One instance per schema (DecomposeService keeps it in the session's SpeculationCache).
+ */
+public final class IncrementalProjection {
+
+	private static final int MAX_PROJECTIONS = 256;
+
+	private final List<EncodedFD> fds;
+	private final UnaryOperator<AttributeSet> closure;
+	private final SubsetLattice lattice;
+	private final int attributeCount;
+	private final Map<AttributeSet, List<EncodedFD>> projections = new ConcurrentHashMap<>();
+	private final AtomicInteger incremental = new AtomicInteger();
+	private final AtomicInteger full = new AtomicInteger();
+
+	/**
+	 * @param fds the FD set, encoded with attributeCount attributes
+	 * @param closure closure operator of the FD set (called concurrently)
+	 */
+	public IncrementalProjection(List<EncodedFD> fds, UnaryOperator<AttributeSet> closure, SubsetLattice lattice,
+								 int attributeCount) {
+		this.fds = List.copyOf(fds);
+		this.closure = closure;
+		this.lattice = lattice;
+		this.attributeCount = attributeCount;
+	}
+
+	public List<EncodedFD> project(AttributeSet relation) {
+		List<EncodedFD> cached = projections.get(relation);
+		if (cached != null) return cached;
+
+		List<EncodedFD> result = null;
+		for (int a = relation.nextSetBit(0); a >= 0 && result == null; a = relation.nextSetBit(a + 1)) {
+			List<EncodedFD> smaller = projections.get(relation.without(a));
+			if (smaller != null) {
+				result = FDProjection.extend(smaller, relation.without(a), a, fds, closure, lattice);
+			}
+		}
+		for (int a = 0; a < attributeCount && result == null; a++) {
+			if (relation.contains(a)) continue;
+			List<EncodedFD> larger = projections.get(relation.with(a));
+			if (larger != null) {
+				result = FDProjection.reduce(larger, a);
+			}
+		}
+		if (result != null) {
+			incremental.incrementAndGet();
+		} else {
+			full.incrementAndGet();
+			result = FDProjection.project(relation, fds, closure, lattice);
+		}
+
+		result = List.copyOf(result);
+		if (projections.size() < MAX_PROJECTIONS) {
+			projections.putIfAbsent(relation, result);
+		}
+		return result;
+	}
+
+	// Projections derived from a neighbouring set
+	public int incrementalCount() {
+		return incremental.get();
+	}
+
+	// Projections computed from scratch
+	public int fullCount() {
+		return full.get();
+	}
+}
@@ -0,0 +1,170 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import com.project.plaque.plaque_calculator.model.EncodedFD;
+
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * KeyEnumerator: Candidate keys of a relation with the Lucchesi–Osborn algorithm, produced lazily.
+ * - Attributes are classified first: essential ones (left-only or otherwise not derivable from the rest) are in
+ *   every key, right-only ones (derivable, in no LHS) are in no key, only the others are ever tried for removal
+ * - First key: R minimized. For every key K and FD X→Y, S = X ∪ (K \ Y) contains a new key unless it contains
+ *   a known one; minimizing S gives it. Each key costs O(|F| · (#keys + |R|)) closures, no power set is built
+ * - Keys are computed on demand and kept, isPrime() stops as soon as a key with the attribute shows up
+ * The FDs must only mention relation attributes (see CompiledSchema for FDs reaching outside the relation).
+ * Thread-safe; concurrent readers share the keys found so far.
+ */
+public final class KeyEnumerator implements Iterable<AttributeSet> {
+
+	private final AttributeSet relation;
+	private final List<EncodedFD> fds;
+	private final UnaryOperator<AttributeSet> closure;
+	private final AttributeSet essential;
+	private final AttributeSet rightOnly;
+	// Minimization order: right-only attributes (always removable) first, then the rest
+	private final int[] removable;
+
+	private final List<AttributeSet> keys = new ArrayList<>();
+	private AttributeSet primeSoFar = AttributeSet.empty();
+	private int keyCursor;
+	private int fdCursor;
+	private boolean exhausted;
+
+	public KeyEnumerator(AttributeSet relation, List<EncodedFD> fds, UnaryOperator<AttributeSet> closure) {
+		this.relation = relation;
+		this.fds = List.copyOf(fds);
+		this.closure = closure;
+
+		AttributeSet inLhs = AttributeSet.empty();
+		for (EncodedFD fd : fds) inLhs = inLhs.union(fd.getLhs());
+		AttributeSet essentialSet = AttributeSet.empty();
+		AttributeSet rightOnlySet = AttributeSet.empty();
+		for (int a : relation.toArray()) {
+			if (!closure.apply(relation.without(a)).contains(a)) {
+				essentialSet = essentialSet.with(a);
+			} else if (!inLhs.contains(a)) {
+				rightOnlySet = rightOnlySet.with(a);
+			}
+		}
+		this.essential = essentialSet;
+		this.rightOnly = rightOnlySet;
+		int[] first = rightOnlySet.toArray();
+		int[] rest = relation.minus(essentialSet).minus(rightOnlySet).toArray();
+		this.removable = Arrays.copyOf(first, first.length + rest.length);
+		System.arraycopy(rest, 0, removable, first.length, rest.length);
+	}
+
+	// Attributes in every key
+	public AttributeSet essential() {
+		return essential;
+	}
+
+	// Attributes in no key
+	public AttributeSet rightOnly() {
+		return rightOnly;
+	}
+
+	public synchronized boolean isPrime(int attribute) {
+		if (essential.contains(attribute)) return true;
+		if (rightOnly.contains(attribute) || !relation.contains(attribute)) return false;
+		while (!primeSoFar.contains(attribute)) {
+			if (!advance()) return false;
+		}
+		return true;
+	}
+
+	// Union of all keys (enumerates them all unless the classification already decides)
+	public synchronized AttributeSet primeAttributes() {
+		if (relation.minus(essential).minus(rightOnly).isEmpty()) return essential;
+		while (advance()) {
+			// Drain
+		}
+		return primeSoFar;
+	}
+
+	// All keys, in the order they were found
+	public synchronized List<AttributeSet> all() {
+		while (advance()) {
+			// Drain
+		}
+		return List.copyOf(keys);
+	}
+
+	// Lazy iteration, computes further keys only when asked for them
+	@Override
+	public Iterator<AttributeSet> iterator() {
+		return new Iterator<>() {
+			private int index;
+
+			@Override
+			public boolean hasNext() {
+				return key(index) != null;
+			}
+
+			@Override
+			public AttributeSet next() {
+				AttributeSet key = key(index);
+				if (key == null) throw new NoSuchElementException();
+				index++;
+				return key;
+			}
+		};
+	}
+
+	private synchronized AttributeSet key(int index) {
+		while (keys.size() <= index) {
+			if (!advance()) return null;
+		}
+		return keys.get(index);
+	}
+
+	// Finds the next key, false when there are no more
+	private boolean advance() {
+		if (exhausted) return false;
+		if (keys.isEmpty()) {
+			return add(minimize(relation));
+		}
+		while (keyCursor < keys.size()) {
+			AttributeSet key = keys.get(keyCursor);
+			while (fdCursor < fds.size()) {
+				EncodedFD fd = fds.get(fdCursor++);
+				AttributeSet s = fd.getLhs().union(key.minus(fd.getRhs()));
+				if (!containsKnownKey(s)) {
+					return add(minimize(s));
+				}
+			}
+			keyCursor++;
+			fdCursor = 0;
+		}
+		exhausted = true;
+		return false;
+	}
+
+	private boolean add(AttributeSet key) {
+		keys.add(key);
+		primeSoFar = primeSoFar.union(key);
+		return true;
+	}
+
+	private boolean containsKnownKey(AttributeSet s) {
+		for (AttributeSet key : keys) {
+			if (s.containsAll(key)) return true;
+		}
+		return false;
+	}
+
+	// Removes attributes while the rest is still a superkey (s must be a superkey)
+	private AttributeSet minimize(AttributeSet s) {
+		AttributeSet key = s;
+		for (int a : removable) {
+			if (!key.contains(a)) continue;
+			AttributeSet reduced = key.without(a);
+			if (closure.apply(reduced).containsAll(relation)) {
+				key = reduced;
+			}
+		}
+		return key;
+	}
+}
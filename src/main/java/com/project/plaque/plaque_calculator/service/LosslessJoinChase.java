@@ -0,0 +1,183 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import com.project.plaque.plaque_calculator.model.EncodedFD;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * LosslessJoinChase: Lossless-join test of a decomposition with the tableau chase on ints.
+ * - One row per schema, one column per relation attribute (indexes 0..n-1). Symbol j is the distinguished
+ *   symbol of column j, n + i*n + j the non-distinguished one of row i
+ * - Equal symbols are merged with union-find; the smaller id becomes the root, so a distinguished symbol
+ *   always represents its class
+ * - Per FD the rows are grouped by the roots of their LHS columns in an open-addressing int table
+ * - FDs are processed from a worklist: merging symbols of a column re-queues only the FDs with that column in their LHS
+ * - Two schemas: R1 ∩ R2 → R1 or R1 ∩ R2 → R2, a single closure instead of the tableau
+ * FDs whose LHS is not inside the relation are ignored, RHS attributes outside the relation are dropped.
+ */
+public final class LosslessJoinChase {
+
+	private LosslessJoinChase() {
+	}
+
+	public static boolean isLossless(int attributeCount, List<AttributeSet> schemas, List<EncodedFD> fds) {
+		int n = attributeCount;
+		int k = schemas.size();
+		AttributeSet relation = AttributeSet.range(n);
+		if (n == 0 || k == 0) {
+			return false;
+		}
+
+		AttributeSet covered = AttributeSet.empty();
+		AttributeSet[] rows = new AttributeSet[k];
+		for (int i = 0; i < k; i++) {
+			rows[i] = schemas.get(i).intersect(relation);
+			if (rows[i].containsAll(relation)) {
+				return true; // A schema with every attribute is already an all-distinguished row
+			}
+			covered = covered.union(rows[i]);
+		}
+		if (!covered.containsAll(relation)) {
+			return false; // An attribute in no schema never gets a distinguished symbol
+		}
+
+		List<EncodedFD> relevant = new ArrayList<>();
+		for (EncodedFD fd : fds) {
+			if (!relation.containsAll(fd.getLhs())) continue;
+			AttributeSet rhs = fd.getRhs().intersect(relation).minus(fd.getLhs());
+			if (!rhs.isEmpty()) relevant.add(new EncodedFD(fd.getLhs(), rhs));
+		}
+
+		if (k == 2) {
+			AttributeSet common = rows[0].intersect(rows[1]);
+			AttributeSet closure = FDClosureIndex.of(relevant, n).closure(common);
+			return closure.containsAll(rows[0]) || closure.containsAll(rows[1]);
+		}
+		return chase(n, rows, relevant);
+	}
+
+	private static boolean chase(int n, AttributeSet[] rows, List<EncodedFD> fds) {
+		int k = rows.length;
+		int m = fds.size();
+		int[][] lhsColumns = new int[m][];
+		int[][] rhsColumns = new int[m][];
+		int[] fdsPerColumn = new int[n];
+		for (int f = 0; f < m; f++) {
+			lhsColumns[f] = fds.get(f).getLhs().toArray();
+			rhsColumns[f] = fds.get(f).getRhs().toArray();
+			for (int c : lhsColumns[f]) fdsPerColumn[c]++;
+		}
+		int[][] fdsByColumn = new int[n][];
+		for (int c = 0; c < n; c++) fdsByColumn[c] = new int[fdsPerColumn[c]];
+		int[] fill = new int[n];
+		for (int f = 0; f < m; f++) {
+			for (int c : lhsColumns[f]) fdsByColumn[c][fill[c]++] = f;
+		}
+
+		// Tableau of symbol ids, union-find over all symbols
+		int[][] tableau = new int[k][n];
+		int[] parent = new int[n + k * n];
+		for (int s = 0; s < parent.length; s++) parent[s] = s;
+		for (int i = 0; i < k; i++) {
+			for (int j = 0; j < n; j++) {
+				tableau[i][j] = rows[i].contains(j) ? j : n + i * n + j;
+			}
+		}
+
+		// Worklist of FDs (each queued at most once at a time)
+		int[] queue = new int[m];
+		boolean[] queued = new boolean[m];
+		int head = 0;
+		int size = m;
+		for (int f = 0; f < m; f++) {
+			queue[f] = f;
+			queued[f] = true;
+		}
+
+		int capacity = Integer.highestOneBit(Math.max(2, k) * 2 - 1) << 1;
+		int[] table = new int[capacity];
+		while (size > 0) {
+			int f = queue[head];
+			head = (head + 1) % m;
+			size--;
+			queued[f] = false;
+
+			Arrays.fill(table, -1);
+			for (int i = 0; i < k; i++) {
+				int slot = lhsHash(tableau[i], lhsColumns[f], parent) & (capacity - 1);
+				while (true) {
+					int other = table[slot];
+					if (other < 0) {
+						table[slot] = i;
+						break;
+					}
+					if (sameLhs(tableau[other], tableau[i], lhsColumns[f], parent)) {
+						// Same LHS symbols: equate the RHS columns of both rows
+						for (int c : rhsColumns[f]) {
+							if (union(parent, tableau[other][c], tableau[i][c])) {
+								for (int dependent : fdsByColumn[c]) {
+									if (!queued[dependent]) {
+										queued[dependent] = true;
+										queue[(head + size) % m] = dependent;
+										size++;
+									}
+								}
+							}
+						}
+						break;
+					}
+					slot = (slot + 1) & (capacity - 1);
+				}
+			}
+		}
+
+		// Lossless if some row consists of distinguished symbols only
+		for (int i = 0; i < k; i++) {
+			boolean allDistinguished = true;
+			for (int j = 0; j < n && allDistinguished; j++) {
+				allDistinguished = find(parent, tableau[i][j]) < n;
+			}
+			if (allDistinguished) return true;
+		}
+		return false;
+	}
+
+	private static int lhsHash(int[] row, int[] columns, int[] parent) {
+		int h = 1;
+		for (int c : columns) {
+			h = 31 * h + find(parent, row[c]);
+		}
+		return h ^ (h >>> 16);
+	}
+
+	private static boolean sameLhs(int[] a, int[] b, int[] columns, int[] parent) {
+		for (int c : columns) {
+			if (find(parent, a[c]) != find(parent, b[c])) return false;
+		}
+		return true;
+	}
+
+	private static int find(int[] parent, int s) {
+		while (parent[s] != s) {
+			parent[s] = parent[parent[s]];
+			s = parent[s];
+		}
+		return s;
+	}
+
+	// Merges the classes of a and b, true if they were different
+	private static boolean union(int[] parent, int a, int b) {
+		int ra = find(parent, a);
+		int rb = find(parent, b);
+		if (ra == rb) return false;
+		if (ra < rb) {
+			parent[rb] = ra;
+		} else {
+			parent[ra] = rb;
+		}
+		return true;
+	}
+}
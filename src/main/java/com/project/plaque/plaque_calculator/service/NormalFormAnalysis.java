@@ -0,0 +1,28 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of NormalFormChecker.analyze: the highest normal form and, for every level that failed,
+ * an FD violating it (null when the level holds or is implied by a higher one).
+ */
+public record NormalFormAnalysis(String normalForm, FD bcnfViolation, FD thirdNfViolation, FD secondNfViolation) {
+
+	static final NormalFormAnalysis EMPTY = new NormalFormAnalysis("1NF", null, null, null);
+
+	public boolean isBCNF() {
+		return "BCNF".equals(normalForm);
+	}
+
+	// "BCNF: A→B" style entries for the failed levels, highest level first
+	public List<String> violations() {
+		List<String> out = new ArrayList<>();
+		if (bcnfViolation != null) out.add("BCNF: " + bcnfViolation);
+		if (thirdNfViolation != null) out.add("3NF: " + thirdNfViolation);
+		if (secondNfViolation != null) out.add("2NF: " + secondNfViolation);
+		return out;
+	}
+}
@@ -1,9 +1,14 @@
 package com.project.plaque.plaque_calculator.service;
 
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import com.project.plaque.plaque_calculator.model.EncodedFD;
 import com.project.plaque.plaque_calculator.model.FD;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
 
 /**
  * Service for checking which normal form a relation satisfies
@@ -23,19 +28,49 @@ public class NormalFormChecker {
         if (attributes == null || attributes.isEmpty()) {
             return "1NF"; // Empty relation is trivially in 1NF
         }
+        return checkNormalForm(fdService.compile(attributes, fds));
+    }
 
-        // Assuming all relations are in 1NF (atomic values)
-        // Check from highest to lowest - using comprehensive check for accuracy
-        if (isBCNFComprehensive(attributes, fds)) {
-            return "BCNF";
+    // Same on a compiled schema, the analysis is kept in the schema
+    public String checkNormalForm(CompiledSchema schema) {
+        return analyze(schema).normalForm();
+    }
+
+    /**
+     * One analysis pass per relation: BCNF, 3NF and 2NF verdicts from the schema's shared closures and keys,
+     * with the violating FD of each failed level. Levels below the first satisfied one are implied and not checked.
+     */
+    public NormalFormAnalysis analyze(CompiledSchema schema) {
+        if (schema.attributeOrder().isEmpty()) {
+            return NormalFormAnalysis.EMPTY;
         }
-        if (is3NF(attributes, fds)) {
-            return "3NF";
+        NormalFormAnalysis cached = schema.analysis();
+        if (cached != null) {
+            return cached;
         }
-        if (is2NF(attributes, fds)) {
-            return "2NF";
+
+        // Assuming all relations are in 1NF (atomic values)
+        // Check from highest to lowest - using comprehensive check for accuracy
+        NormalFormAnalysis analysis;
+        EncodedFD bcnfViolation = findBCNFViolation(schema, schema.lattice(), () -> false);
+        if (bcnfViolation == null) {
+            analysis = new NormalFormAnalysis("BCNF", null, null, null);
+        } else {
+            EncodedFD thirdNfViolation = find3NFViolation(schema);
+            if (thirdNfViolation == null) {
+                analysis = new NormalFormAnalysis("3NF", decode(schema, bcnfViolation), null, null);
+            } else {
+                EncodedFD secondNfViolation = find2NFViolation(schema);
+                analysis = new NormalFormAnalysis(secondNfViolation == null ? "2NF" : "1NF",
+                        decode(schema, bcnfViolation), decode(schema, thirdNfViolation), decode(schema, secondNfViolation));
+            }
         }
-        return "1NF";
+        schema.analysis(analysis);
+        return analysis;
+    }
+
+    private FD decode(CompiledSchema schema, EncodedFD fd) {
+        return fd == null ? null : schema.dictionary().decode(fd);
     }
 
     // Check if relation is in 3NF
@@ -43,45 +78,40 @@ public class NormalFormChecker {
         if (fds == null || fds.isEmpty()) {
             return true; // No FDs = 3NF
         }
+        return is3NF(fdService.compile(attributes, fds));
+    }
 
-        // Get transitive closure
-        List<FD> transitiveFDs = fdService.findTransitiveFDs(fds);
-        Set<FD> allFDs = new HashSet<>(fds);
-        allFDs.addAll(transitiveFDs);
-        List<FD> allFDsList = new ArrayList<>(allFDs);
-
-        // Find all candidate keys (just check minimal superkeys)
-        Set<Set<String>> candidateKeys = findCandidateKeys(attributes, allFDsList);
+    public boolean is3NF(CompiledSchema schema) {
+        return find3NFViolation(schema) == null;
+    }
 
-        for (FD fd : fds) {
-            Set<String> lhs = fd.getLhs();
-            Set<String> rhs = fd.getRhs();
+    // First FD whose LHS is no superkey and whose RHS has a non-prime attribute, null if in 3NF
+    private EncodedFD find3NFViolation(CompiledSchema schema) {
+        if (schema.originalFds().isEmpty()) {
+            return null;
+        }
 
+        for (EncodedFD fd : schema.encodedFds()) {
             // Skip trivial dependencies
-            if (lhs.containsAll(rhs)) {
+            if (fd.isTrivial()) {
                 continue;
             }
 
             // Check if LHS is a superkey
-            Set<String> closure = fdService.computeClosure(lhs, allFDsList);
-            if (closure.containsAll(attributes)) {
+            if (schema.isSuperkey(fd.getLhs())) {
                 continue; // LHS is a superkey, ok for 3NF
             }
 
             // Check if all attributes in RHS-LHS are part of some candidate key
-            Set<String> extraAttrs = new HashSet<>(rhs);
-            extraAttrs.removeAll(lhs);
-
-            for (String attr : extraAttrs) {
-                boolean isPartOfKey = candidateKeys.stream()
-                        .anyMatch(key -> key.contains(attr));
-                if (!isPartOfKey) {
-                    return false; // Attribute not part of any candidate key
+            // (keys are only enumerated until one contains the attribute)
+            for (int a : fd.getRhs().minus(fd.getLhs()).toArray()) {
+                if (!schema.isPrime(a)) {
+                    return fd; // Attribute not part of any candidate key
                 }
             }
         }
 
-        return true;
+        return null;
     }
 
     // Check if relation is in 2NF
@@ -89,95 +119,57 @@ public class NormalFormChecker {
         if (fds == null || fds.isEmpty()) {
             return true; // No FDs = 2NF
         }
+        return is2NF(fdService.compile(attributes, fds));
+    }
 
-        // Get transitive closure
-        List<FD> transitiveFDs = fdService.findTransitiveFDs(fds);
-        Set<FD> allFDs = new HashSet<>(fds);
-        allFDs.addAll(transitiveFDs);
-        List<FD> allFDsList = new ArrayList<>(allFDs);
+    public boolean is2NF(CompiledSchema schema) {
+        return find2NFViolation(schema) == null;
+    }
+
+    // First partial dependency (LHS a proper subset of a key, RHS with a non-prime attribute), null if in 2NF
+    private EncodedFD find2NFViolation(CompiledSchema schema) {
+        if (schema.originalFds().isEmpty()) {
+            return null;
+        }
 
         // Find candidate keys
-        Set<Set<String>> candidateKeys = findCandidateKeys(attributes, allFDsList);
+        List<AttributeSet> candidateKeys = schema.candidateKeys();
         if (candidateKeys.isEmpty()) {
-            return true; // No keys identified, assume 2NF
+            return null; // No keys identified, assume 2NF
         }
 
         // Find prime attributes (attributes that are part of any candidate key)
-        Set<String> primeAttributes = new HashSet<>();
-        candidateKeys.forEach(primeAttributes::addAll);
+        AttributeSet primeAttributes = schema.primeAttributes();
 
         // Check for partial dependencies
-        for (FD fd : fds) {
-            Set<String> lhs = fd.getLhs();
-            Set<String> rhs = fd.getRhs();
-
+        for (EncodedFD fd : schema.encodedFds()) {
             // Skip trivial dependencies
-            if (lhs.containsAll(rhs)) {
+            if (fd.isTrivial()) {
                 continue;
             }
 
             // Check if RHS contains any non-prime attribute
-            Set<String> nonPrimeInRhs = new HashSet<>(rhs);
-            nonPrimeInRhs.removeAll(primeAttributes);
-
-            if (nonPrimeInRhs.isEmpty()) {
+            if (fd.getRhs().minus(primeAttributes).isEmpty()) {
                 continue; // All attributes in RHS are prime
             }
 
             // Check if LHS is a proper subset of any candidate key
-            for (Set<String> key : candidateKeys) {
-                if (key.containsAll(lhs) && !lhs.equals(key)) {
+            for (AttributeSet key : candidateKeys) {
+                if (key.containsAll(fd.getLhs()) && !fd.getLhs().equals(key)) {
                     // LHS is a proper subset of a candidate key
                     // This is a partial dependency
-                    return false;
+                    return fd;
                 }
             }
         }
-        return true;
-    }
-
-    // Find all candidate keys of a relation
-    private Set<Set<String>> findCandidateKeys(Set<String> attributes, List<FD> allFDs) {
-        Set<Set<String>> candidateKeys = new HashSet<>();
-
-        // Start with all attributes as potential key
-        Set<String> allAttrs = new HashSet<>(attributes);
-        Set<String> closure = fdService.computeClosure(allAttrs, allFDs);
-
-        if (!closure.containsAll(attributes)) {
-            // Cannot determine all attributes from any subset
-            return candidateKeys;
-        }
-
-        // Try to find minimal superkeys
-        List<Set<String>> subsets = generateSubsets(attributes);
-        subsets.sort(Comparator.comparingInt(Set::size));
-
-        for (Set<String> subset : subsets) {
-            closure = fdService.computeClosure(subset, allFDs);
-            if (closure.containsAll(attributes)) {
-                // This is a superkey, check if it's minimal
-                boolean isMinimal = true;
-                for (Set<String> existing : candidateKeys) {
-                    if (subset.containsAll(existing)) {
-                        isMinimal = false;
-                        break;
-                    }
-                }
-                if (isMinimal) {
-                    // Remove any supersets already in candidateKeys
-                    candidateKeys.removeIf(existing -> existing.containsAll(subset) && !existing.equals(subset));
-                    candidateKeys.add(subset);
-                }
-            }
-        }
-        return candidateKeys;
+        return null;
     }
 
     /**
      * Check if relation is in BCNF (Primary comprehensive method)
      * Algorithm:
-     * 1. Generate all non-empty subsets of attributes (2^n - 1)
+     * 0. If the FDs only mention attributes of the relation: BCNF iff every non-trivial FD has a superkey LHS
+     * 1. Otherwise (projected relation) generate all non-empty subsets of attributes (2^n - 1)
      * 2. For each subset X:
      *    - Compute closure of X using transitive FDs
      *    - Check if X implies something non-trivial
@@ -201,71 +193,80 @@ public class NormalFormChecker {
             return true; // No FDs = BCNF
         }
 
-        // Ensure we have transitive closure
-        List<FD> transitiveFDs = fdService.findTransitiveFDs(fds);
-        Set<FD> allFDs = new HashSet<>(fds);
-        allFDs.addAll(transitiveFDs);
-        List<FD> allFdsForClosure = new ArrayList<>(allFDs);
-
-        Set<String> allAttributes = new HashSet<>(attributes);
-        List<String> attrList = new ArrayList<>(attributes);
-        int n = attrList.size();
-
-        // Check all non-empty subsets (2^n - 1)
-        for (int mask = 1; mask < (1 << n); mask++) {
-            Set<String> X = new LinkedHashSet<>();
-            for (int i = 0; i < n; i++) {
-                if ((mask & (1 << i)) != 0) {
-                    X.add(attrList.get(i));
-                }
-            }
+        return isBCNFComprehensive(fdService.compile(attributes, fds));
+    }
 
-            // Skip if X equals entire relation (X = R)
-            if (X.size() == allAttributes.size()) {
-                continue;
-            }
+    public boolean isBCNFComprehensive(CompiledSchema schema) {
+        if (schema.analysis() != null) {
+            return schema.analysis().isBCNF();
+        }
+        return findBCNFViolation(schema, schema.lattice(), () -> false) == null;
+    }
 
-            // Compute closure of X
-            Set<String> closureOfX = fdService.computeClosure(X, allFdsForClosure);
+    // Same check with the subset scan on the given lattice; null once cancelled reports true
+    public Boolean isBCNFComprehensive(CompiledSchema schema, SubsetLattice lattice, BooleanSupplier cancelled) {
+        if (schema.analysis() != null) {
+            return schema.analysis().isBCNF();
+        }
+        try {
+            return findBCNFViolation(schema, lattice, cancelled) == null;
+        } catch (CancellationException ex) {
+            return null;
+        }
+    }
 
-            // Restrict closure to current relation's attributes
-            Set<String> closureRestrictedToRi = new HashSet<>(closureOfX);
-            closureRestrictedToRi.retainAll(allAttributes);
+    // X → (X+ ∩ R) \ X for a non-superkey X that determines something, null if in BCNF
+    private EncodedFD findBCNFViolation(CompiledSchema schema, SubsetLattice lattice, BooleanSupplier cancelled) {
+        if (schema.attributeOrder().isEmpty() || schema.originalFds().isEmpty()) {
+            return null;
+        }
 
-            // Check if X implies something non-trivial
-            Set<String> impliedNonTrivial = new HashSet<>(closureRestrictedToRi);
-            impliedNonTrivial.removeAll(X);
+        AttributeSet relation = schema.relation();
 
-            if (!impliedNonTrivial.isEmpty()) {
-                // X implies something non-trivial
-                // Check if X is a superkey (X+ ∩ R = R?)
-                if (!closureRestrictedToRi.containsAll(allAttributes)) {
-                    // X is not a superkey → BCNF violation
-                    return false;
-                }
+        // Given FDs inside the relation first: any violation among them is found without the subset scan
+        for (EncodedFD fd : schema.encodedFds()) {
+            if (relation.containsAll(fd.getLhs())) {
+                EncodedFD violation = violation(schema, fd.getLhs());
+                if (violation != null) return violation;
             }
         }
 
-        // All non-trivial determinants are superkeys
-        return true;
-    }
+        // FDs defined over the relation itself: every FD on it follows from them, so the superkey test on
+        // their LHS above is complete (polynomial). Only projected relations need the subset scan
+        if (schema.fdsInsideRelation()) {
+            return null;
+        }
 
-    // Generate all subsets of a set
-    private List<Set<String>> generateSubsets(Set<String> set) {
-        List<Set<String>> subsets = new ArrayList<>();
-        List<String> list = new ArrayList<>(set);
-        int n = list.size();
-
-        for (int i = 0; i < (1 << n); i++) {
-            Set<String> subset = new HashSet<>();
-            for (int j = 0; j < n; j++) {
-                if ((i & (1 << j)) > 0) {
-                    subset.add(list.get(j));
-                }
+        int n = relation.size();
+
+        // Check all non-empty proper subsets (2^n - 2) in parallel, the subset mask is the bitset of X;
+        // the enumeration stops at the first violation
+        AtomicLong violatingMask = new AtomicLong(-1);
+        lattice.forEach(1, SubsetLattice.fullMask(n), mask -> {
+            if (cancelled.getAsBoolean()) {
+                return false;
             }
-            subsets.add(subset);
+            if (violation(schema, AttributeSet.ofMask(mask)) == null) {
+                return true;
+            }
+            violatingMask.compareAndSet(-1, mask);
+            return false;
+        });
+        if (violatingMask.get() < 0 && cancelled.getAsBoolean()) {
+            throw new CancellationException("BCNF check cancelled");
         }
-        return subsets;
+        return violatingMask.get() < 0 ? null : violation(schema, AttributeSet.ofMask(violatingMask.get()));
     }
-}
 
+    private EncodedFD violation(CompiledSchema schema, AttributeSet X) {
+        // Closure of X restricted to the relation's attributes
+        AttributeSet closureRestrictedToRi = schema.closure(X).intersect(schema.relation());
+
+        // X implies something non-trivial but is not a superkey → BCNF violation
+        AttributeSet implied = closureRestrictedToRi.minus(X);
+        if (implied.isEmpty() || closureRestrictedToRi.containsAll(schema.relation())) {
+            return null;
+        }
+        return new EncodedFD(X, implied);
+    }
+}
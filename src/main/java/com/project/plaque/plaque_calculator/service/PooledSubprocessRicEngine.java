@@ -0,0 +1,212 @@
+package com.project.plaque.plaque_calculator.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.jar.JarFile;
+
+/**
+ * PooledSubprocessRicEngine: Keeps a few worker JVMs started ahead of time, so a request does not pay for
+ * JVM startup and class loading of the RIC jar.
+ * - Workers run ric/RicWorker.java (source-file launch) with the jar on the class path and wait on stdin
+ * - Every worker serves one request and exits, a replacement is started in the background right away
+ * - Low-priority requests are delegated to the subprocess engine, which can start them with nice
+ * The pool is filled lazily on the first request (or by the calibration run).
+ */
+@Component
+public class PooledSubprocessRicEngine implements RicEngine {
+
+	public static final String NAME = "pooled";
+
+	private static final String WORKER_RESOURCE = "/ric/RicWorker.java";
+
+	private final RicLaunchProfile launchProfile;
+	private final SubprocessRicEngine fallback;
+	private final int poolSize;
+	private final BlockingQueue<Process> idleWorkers = new LinkedBlockingQueue<>();
+	private final ExecutorService spawner = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "ric-worker-spawner");
+		t.setDaemon(true);
+		return t;
+	});
+
+	private volatile Path workerSource;
+	private volatile Path poolJar;
+	private volatile String mainClass;
+
+	public PooledSubprocessRicEngine(RicLaunchProfile launchProfile,
+									 SubprocessRicEngine fallback,
+									 @Value("${ric.engine.pool.size:2}") int poolSize) {
+		this.launchProfile = launchProfile;
+		this.fallback = fallback;
+		this.poolSize = Math.max(1, poolSize);
+	}
+
+	@Override
+	public String name() {
+		return NAME;
+	}
+
+	@Override
+	public boolean isAvailable(Path ricJar) {
+		return Files.exists(ricJar) && getClass().getResource(WORKER_RESOURCE) != null;
+	}
+
+	@Override
+	public double[][] compute(Request request) {
+		if (request.lowPriority()) {
+			return fallback.compute(request);
+		}
+		ensurePool(request.ricJar());
+		Process worker = takeLiveWorker();
+		if (worker == null) {
+			worker = startWorker();
+		}
+		replenish();
+
+		Path outFile = RicEngineSupport.createOutputFile();
+		Thread outputReader = null;
+		StringBuilder procOutput = new StringBuilder();
+		try {
+			outputReader = RicEngineSupport.startOutputReader(worker, procOutput);
+			List<String> args = RicEngineSupport.programArguments(request, outFile);
+			Writer stdin = new OutputStreamWriter(worker.getOutputStream(), StandardCharsets.UTF_8);
+			stdin.write(args.size() + "\n");
+			for (String arg : args) {
+				stdin.write(arg.replace('\n', ' ') + "\n");
+			}
+			stdin.flush();
+			stdin.close();
+
+			int exit = RicEngineSupport.awaitExit(worker, outputReader, request.timeLimitSeconds());
+			System.out.println("[RIC] Pooled worker exit code: " + exit);
+			System.out.println("[RIC] Process output (stdout):\n" + procOutput);
+			return RicEngineSupport.readMatrix(outFile, procOutput.toString());
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("RIC process was interrupted", ex);
+		} catch (IOException ex) {
+			throw new RuntimeException("Failed to execute pooled RIC worker: " + procOutput, ex);
+		} finally {
+			RicEngineSupport.stopReader(outputReader);
+			if (worker.isAlive()) {
+				worker.destroyForcibly();
+			}
+			RicEngineSupport.deleteQuietly(outFile);
+		}
+	}
+
+	/**
+	 * Starts the configured number of workers if the pool is empty (used by calibration to warm up).
+	 */
+	public synchronized void ensurePool(Path ricJar) {
+		Path absoluteJar = ricJar.toAbsolutePath();
+		if (!absoluteJar.equals(poolJar)) {
+			shutdownWorkers();
+			poolJar = absoluteJar;
+			mainClass = readMainClass(absoluteJar);
+		}
+		if (workerSource == null) {
+			workerSource = extractWorkerSource();
+		}
+		int missing = poolSize - idleWorkers.size();
+		for (int i = 0; i < missing; i++) {
+			replenish();
+		}
+	}
+
+	private Process takeLiveWorker() {
+		Process worker;
+		while ((worker = idleWorkers.poll()) != null) {
+			if (worker.isAlive()) {
+				return worker;
+			}
+		}
+		return null;
+	}
+
+	private void replenish() {
+		spawner.execute(() -> {
+			if (idleWorkers.size() >= poolSize) return;
+			try {
+				idleWorkers.offer(startWorker());
+			} catch (RuntimeException ex) {
+				System.out.println("[RIC] WARNING: Could not start pooled worker: " + ex.getMessage());
+			}
+		});
+	}
+
+	private Process startWorker() {
+		List<String> command = new ArrayList<>();
+		command.add(RicLaunchProfile.javaExecutable());
+		command.addAll(launchProfile.startupOptions());
+		command.add("-cp");
+		command.add(poolJar.toString());
+		command.add(workerSource.toString());
+		command.add(mainClass);
+		try {
+			ProcessBuilder pb = new ProcessBuilder(command);
+			pb.redirectErrorStream(true);
+			pb.directory(Paths.get(".").toFile());
+			return pb.start();
+		} catch (IOException ex) {
+			throw new RuntimeException("Cannot start RIC worker: " + ex.getMessage(), ex);
+		}
+	}
+
+	private Path extractWorkerSource() {
+		try (InputStream in = getClass().getResourceAsStream(WORKER_RESOURCE)) {
+			if (in == null) {
+				throw new IllegalStateException("RIC worker source not found on the class path");
+			}
+			// The source launcher requires the file name to match the class name
+			Path dir = Files.createTempDirectory("plaque-ric-worker");
+			Path target = dir.resolve("RicWorker.java");
+			Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+			target.toFile().deleteOnExit();
+			dir.toFile().deleteOnExit();
+			return target;
+		} catch (IOException ex) {
+			throw new IllegalStateException("Cannot extract RIC worker source: " + ex.getMessage(), ex);
+		}
+	}
+
+	private String readMainClass(Path jar) {
+		try (JarFile jarFile = new JarFile(jar.toFile())) {
+			String declared = jarFile.getManifest() == null ? null
+					: jarFile.getManifest().getMainAttributes().getValue("Main-Class");
+			return declared == null || declared.isBlank() ? "Main" : declared.trim();
+		} catch (IOException ex) {
+			return "Main";
+		}
+	}
+
+	private void shutdownWorkers() {
+		Process worker;
+		while ((worker = idleWorkers.poll()) != null) {
+			worker.destroyForcibly();
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		spawner.shutdownNow();
+		shutdownWorkers();
+	}
+}
@@ -0,0 +1,194 @@
+package com.project.plaque.plaque_calculator.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ProgressStreamRegistry: Keeps the SSE progress of running computations resumable.
+ * - Every event of a computation gets an increasing id and is kept in a bounded ring buffer
+ * - A reconnecting EventSource sends the last id it saw (Last-Event-ID header), the missed events are replayed
+ *   and the emitter is attached to the still-running computation instead of starting it again
+ * - Finished streams stay available for a short retention time, so a reconnect right after completion still
+ *   receives the final event
+ * - Buffer and subscriber list are guarded by the stream's lock, but emitters are written outside of it: a stalled
+ *   client does not hold up other emitters or the stream's lock. Writes to one emitter are serialized on the
+ *   emitter, and a reconnect's replay is written before any live event
+ */
+@Component
+public class ProgressStreamRegistry {
+
+	private static final int BUFFER_CAPACITY = 256;
+	private static final long FINISHED_RETENTION_MS = 5 * 60 * 1000L;
+
+	private final Map<String, ProgressStream> streams = new ConcurrentHashMap<>();
+
+	// Creates a fresh stream for the key, replacing any previous computation registered under it
+	public ProgressStream open(String key) {
+		purgeExpired();
+		ProgressStream stream = new ProgressStream(key);
+		streams.put(key, stream);
+		return stream;
+	}
+
+	public ProgressStream find(String key) {
+		if (key == null) return null;
+		ProgressStream stream = streams.get(key);
+		if (stream != null && stream.isExpired(System.currentTimeMillis())) {
+			streams.remove(key, stream);
+			return null;
+		}
+		return stream;
+	}
+
+	// Parses the Last-Event-ID header, anything unreadable means "replay everything still buffered"
+	public static long parseLastEventId(String header) {
+		if (header == null || header.isBlank()) return 0L;
+		try {
+			return Math.max(0L, Long.parseLong(header.trim()));
+		} catch (NumberFormatException ex) {
+			return 0L;
+		}
+	}
+
+	private void purgeExpired() {
+		long now = System.currentTimeMillis();
+		streams.values().removeIf(stream -> stream.isExpired(now));
+	}
+
+	private record BufferedEvent(long id, String name, Object data) { }
+
+	public static class ProgressStream {
+		private final String key;
+		private final Deque<BufferedEvent> buffer = new ArrayDeque<>();
+		private final List<SseEmitter> subscribers = new ArrayList<>();
+		private long nextId = 1;
+		private boolean finished;
+		private long finishedAt;
+
+		private ProgressStream(String key) {
+			this.key = key;
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+		public synchronized boolean isFinished() {
+			return finished;
+		}
+
+		/**
+		 * Attaches an emitter and replays all buffered events after lastEventId. If the computation is already
+		 * finished the emitter is completed right after the replay.
+		 */
+		public void attach(SseEmitter emitter, long lastEventId) {
+			List<BufferedEvent> replay = new ArrayList<>();
+			boolean completed;
+			// Holding the emitter's lock while it is subscribed keeps live events behind the replay
+			synchronized (emitter) {
+				synchronized (this) {
+					BufferedEvent oldest = buffer.peekFirst();
+					if (oldest != null && lastEventId > 0 && oldest.id() > lastEventId + 1) {
+						// Part of the missed events was already evicted from the ring buffer
+						replay.add(new BufferedEvent(0, "progress",
+								Map.of("message", "Some earlier progress messages are no longer available.")));
+					}
+					for (BufferedEvent event : buffer) {
+						if (event.id() > lastEventId) replay.add(event);
+					}
+					completed = finished;
+					if (!completed) {
+						subscribers.add(emitter);
+					}
+				}
+				for (BufferedEvent event : replay) {
+					if (!send(emitter, event)) {
+						detach(emitter);
+						return;
+					}
+				}
+			}
+			if (completed) {
+				emitter.complete();
+				return;
+			}
+			Runnable detach = () -> detach(emitter);
+			emitter.onCompletion(detach);
+			emitter.onTimeout(detach);
+			emitter.onError(ex -> detach(emitter));
+		}
+
+		// Numbers, buffers and broadcasts a single event
+		public void emit(String name, Object data) {
+			BufferedEvent event;
+			List<SseEmitter> targets;
+			synchronized (this) {
+				if (finished) return;
+				event = new BufferedEvent(nextId++, name, data);
+				buffer.addLast(event);
+				while (buffer.size() > BUFFER_CAPACITY) {
+					buffer.removeFirst();
+				}
+				targets = new ArrayList<>(subscribers);
+			}
+			for (SseEmitter emitter : targets) {
+				boolean sent;
+				synchronized (emitter) {
+					sent = send(emitter, event);
+				}
+				if (!sent) {
+					detach(emitter);
+				}
+			}
+		}
+
+		// Marks the computation as done and closes every attached connection
+		public void finish() {
+			List<SseEmitter> attached;
+			synchronized (this) {
+				if (finished) return;
+				finished = true;
+				finishedAt = System.currentTimeMillis();
+				attached = new ArrayList<>(subscribers);
+				subscribers.clear();
+			}
+			for (SseEmitter emitter : attached) {
+				synchronized (emitter) {
+					try {
+						emitter.complete();
+					} catch (Exception ignored) {
+					}
+				}
+			}
+		}
+
+		private synchronized void detach(SseEmitter emitter) {
+			subscribers.remove(emitter);
+		}
+
+		private synchronized boolean isExpired(long now) {
+			return finished && now - finishedAt > FINISHED_RETENTION_MS;
+		}
+
+		private boolean send(SseEmitter emitter, BufferedEvent event) {
+			try {
+				SseEmitter.SseEventBuilder builder = SseEmitter.event().name(event.name()).data(event.data());
+				if (event.id() > 0) {
+					builder.id(String.valueOf(event.id()));
+				}
+				emitter.send(builder);
+				return true;
+			} catch (IOException | IllegalStateException ex) {
+				return false;
+			}
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package com.project.plaque.plaque_calculator.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RicDifferentialChecker: Recomputes a random sample of production requests on a second engine and raises an
+ * alert (log line starting with "[RIC] ALERT") when the matrices disagree numerically.
+ * - Only exact computations are compared, Monte Carlo results differ between runs by design
+ * - Checks run on one low-priority thread with a small queue; when it is full the sample is dropped
+ */
+@Component
+public class RicDifferentialChecker {
+
+	private final RicEngineSelector selector;
+	private final double sampleRate;
+	private final double tolerance;
+	private final ThreadPoolExecutor executor;
+
+	private final AtomicLong checked = new AtomicLong();
+	private final AtomicLong disagreements = new AtomicLong();
+	private final AtomicLong failures = new AtomicLong();
+
+	public RicDifferentialChecker(RicEngineSelector selector,
+								  @Value("${ric.engine.verify.sample-rate:0.02}") double sampleRate,
+								  @Value("${ric.engine.verify.tolerance:1e-9}") double tolerance) {
+		this.selector = selector;
+		this.sampleRate = Math.max(0.0, Math.min(1.0, sampleRate));
+		this.tolerance = Math.abs(tolerance);
+		this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(4), r -> {
+			Thread t = new Thread(r, "ric-differential-check");
+			t.setDaemon(true);
+			t.setPriority(Thread.MIN_PRIORITY);
+			return t;
+		});
+	}
+
+	/**
+	 * Called after a successful computation on the primary engine, decides whether this request is sampled.
+	 */
+	public void maybeVerify(RicEngine primary, RicEngine.Request request, double[][] primaryResult) {
+		if (sampleRate <= 0 || request.monteCarlo() || request.lowPriority()) return;
+		if (ThreadLocalRandom.current().nextDouble() >= sampleRate) return;
+		RicEngine reference = selector.reference(primary, request.ricJar());
+		if (reference == null) return;
+		try {
+			executor.execute(() -> verify(primary, reference, request, primaryResult));
+		} catch (RejectedExecutionException busy) {
+			// Verification is best effort
+		}
+	}
+
+	private void verify(RicEngine primary, RicEngine reference, RicEngine.Request request, double[][] primaryResult) {
+		double[][] referenceResult;
+		try {
+			referenceResult = reference.compute(request);
+		} catch (RuntimeException ex) {
+			failures.incrementAndGet();
+			System.out.println("[RIC] Differential check on " + reference.name() + " failed: " + ex.getMessage());
+			return;
+		}
+		checked.incrementAndGet();
+		String mismatch = compare(primaryResult, referenceResult);
+		if (mismatch != null) {
+			disagreements.incrementAndGet();
+			System.out.println("[RIC] ALERT: engines " + primary.name() + " and " + reference.name() + " disagree ("
+					+ mismatch + ") for table of " + request.manualEncoded().length() + " chars, FDs " + request.fds());
+		}
+	}
+
+	// Null when both matrices have the same shape and all cells are within the tolerance
+	private String compare(double[][] a, double[][] b) {
+		if (a.length != b.length) {
+			return "row count " + a.length + " vs " + b.length;
+		}
+		double maxDiff = 0;
+		for (int r = 0; r < a.length; r++) {
+			if (a[r].length != b[r].length) {
+				return "column count in row " + (r + 1) + ": " + a[r].length + " vs " + b[r].length;
+			}
+			for (int c = 0; c < a[r].length; c++) {
+				maxDiff = Math.max(maxDiff, Math.abs(a[r][c] - b[r][c]));
+			}
+		}
+		return maxDiff > tolerance ? "max difference " + maxDiff : null;
+	}
+
+	public long getChecked() {
+		return checked.get();
+	}
+
+	public long getDisagreements() {
+		return disagreements.get();
+	}
+
+	public long getFailures() {
+		return failures.get();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+}
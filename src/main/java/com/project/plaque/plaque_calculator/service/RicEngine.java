@@ -0,0 +1,33 @@
+package com.project.plaque.plaque_calculator.service;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * RicEngine: One way of executing the relational_information_content jar.
+ * Implementations: "subprocess" (fresh JVM per request), "pooled" (pre-started worker JVMs),
+ * "inprocess" (isolated class loader inside the server JVM). RicEngineSelector decides which one runs a request.
+ */
+public interface RicEngine {
+
+	/**
+	 * A single computation. fds are already split, table is the encoded "a,b;c,d" string.
+	 */
+	record Request(Path ricJar, String manualEncoded, List<String> fds, int timeLimitSeconds,
+				   boolean monteCarlo, int samples, boolean lowPriority) {
+		public Request {
+			fds = fds == null ? List.of() : List.copyOf(fds);
+		}
+	}
+
+	String name();
+
+	// False when the engine cannot run in this environment (e.g. class version of the jar not supported in-process)
+	boolean isAvailable(Path ricJar);
+
+	/**
+	 * Returns the RIC matrix. Throws RicService.RicTimeoutException when the time limit is exceeded,
+	 * any other RuntimeException for failures of the computation itself.
+	 */
+	double[][] compute(Request request);
+}
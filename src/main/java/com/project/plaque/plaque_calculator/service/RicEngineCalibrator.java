@@ -0,0 +1,135 @@
+package com.project.plaque.plaque_calculator.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * RicEngineCalibrator: Benchmarks the candidate engines once after startup (in the background) and records
+ * the fastest engine per table-size class in the RicEngineSelector. Only runs with ric.engine=auto.
+ * The benchmark tables are generated deterministically, so results are comparable between restarts.
+ */
+@Component
+public class RicEngineCalibrator {
+
+	private record BenchmarkTable(RicEngineSelector.SizeClass sizeClass, String manualEncoded, List<String> fds,
+								  boolean monteCarlo, int samples) { }
+
+	private static final int CALIBRATION_TIMEOUT_SECONDS = 20;
+
+	private final RicService ricService;
+	private final RicEngineSelector selector;
+	private final boolean enabled;
+	private final int runs;
+
+	public RicEngineCalibrator(RicService ricService,
+							   RicEngineSelector selector,
+							   @Value("${ric.engine.calibration.enabled:true}") boolean enabled,
+							   @Value("${ric.engine.calibration.runs:3}") int runs) {
+		this.ricService = ricService;
+		this.selector = selector;
+		this.enabled = enabled;
+		this.runs = Math.max(1, runs);
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void calibrateOnStartup() {
+		if (!enabled || !selector.isAutomatic()) return;
+		Thread t = new Thread(this::calibrate, "ric-engine-calibration");
+		t.setDaemon(true);
+		t.setPriority(Thread.MIN_PRIORITY);
+		t.start();
+	}
+
+	public void calibrate() {
+		Path jar = ricService.getRicJar();
+		List<RicEngine> candidates = selector.calibrationCandidates(jar);
+		if (candidates.size() < 2) {
+			System.out.println("[RIC] Engine calibration skipped, candidates available: " + names(candidates));
+			return;
+		}
+		for (RicEngine engine : candidates) {
+			if (engine instanceof PooledSubprocessRicEngine pooled) {
+				pooled.ensurePool(jar);
+			}
+		}
+
+		for (BenchmarkTable table : benchmarkTables()) {
+			RicEngine.Request request = new RicEngine.Request(jar, table.manualEncoded(), table.fds(),
+					CALIBRATION_TIMEOUT_SECONDS, table.monteCarlo(), table.samples(), false);
+			String fastest = null;
+			long fastestMs = Long.MAX_VALUE;
+			StringBuilder report = new StringBuilder();
+			for (RicEngine engine : candidates) {
+				long median = measure(engine, request);
+				report.append(' ').append(engine.name()).append('=')
+						.append(median == Long.MAX_VALUE ? "failed" : median + "ms");
+				if (median < fastestMs) {
+					fastestMs = median;
+					fastest = engine.name();
+				}
+			}
+			if (fastest != null) {
+				selector.recordCalibration(table.sizeClass(), fastest);
+			}
+			System.out.println("[RIC] Engine calibration " + table.sizeClass() + ":" + report
+					+ " -> " + (fastest == null ? SubprocessRicEngine.NAME + " (no engine succeeded)" : fastest));
+		}
+	}
+
+	// Median wall time of the runs, one untimed warm-up run first; Long.MAX_VALUE when the engine failed
+	private long measure(RicEngine engine, RicEngine.Request request) {
+		long[] times = new long[runs];
+		try {
+			engine.compute(request);
+			for (int i = 0; i < runs; i++) {
+				long start = System.nanoTime();
+				engine.compute(request);
+				times[i] = (System.nanoTime() - start) / 1_000_000;
+			}
+		} catch (RuntimeException ex) {
+			System.out.println("[RIC] Engine " + engine.name() + " failed during calibration: " + ex.getMessage());
+			return Long.MAX_VALUE;
+		}
+		Arrays.sort(times);
+		return times[runs / 2];
+	}
+
+	private List<BenchmarkTable> benchmarkTables() {
+		return List.of(
+				new BenchmarkTable(RicEngineSelector.SizeClass.SMALL, generateTable(8, 4), List.of("1->2"), false, 0),
+				new BenchmarkTable(RicEngineSelector.SizeClass.MEDIUM, generateTable(40, 6), List.of("1->2", "3->4"), false, 0),
+				new BenchmarkTable(RicEngineSelector.SizeClass.LARGE, generateTable(100, 8), List.of("1->2", "3->4"), true, 1_000)
+		);
+	}
+
+	// Column 2 depends on column 1 and column 4 on column 3, so the benchmark FDs always hold
+	private String generateTable(int rows, int cols) {
+		StringJoiner table = new StringJoiner(";");
+		for (int r = 0; r < rows; r++) {
+			StringJoiner row = new StringJoiner(",");
+			for (int c = 0; c < cols; c++) {
+				int value = switch (c) {
+					case 0 -> r % 5;
+					case 1 -> (r % 5) * 2;
+					case 2 -> r % 3;
+					case 3 -> (r % 3) + 10;
+					default -> (r * (c + 3) + c) % 7;
+				};
+				row.add(String.valueOf(value));
+			}
+			table.add(row.toString());
+		}
+		return table.toString();
+	}
+
+	private String names(List<RicEngine> engines) {
+		List<String> names = new ArrayList<>();
+		for (RicEngine engine : engines) names.add(engine.name());
+		return names.toString();
+	}
+}
@@ -0,0 +1,113 @@
+package com.project.plaque.plaque_calculator.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RicEngineSelector: Chooses the RicEngine for a request.
+ * - ric.engine=subprocess|pooled|inprocess pins one engine
+ * - ric.engine=auto uses the calibration result of the request's table-size class, the subprocess engine
+ *   until calibration finished (or when the calibrated engine is not available)
+ * - The in-process engine is never a calibration candidate (a timed out run cannot be stopped), it only runs
+ *   when pinned
+ */
+@Component
+public class RicEngineSelector {
+
+	public enum SizeClass {
+		SMALL, MEDIUM, LARGE;
+
+		// Size of a table in cells (rows x columns)
+		public static SizeClass of(String manualEncoded) {
+			if (manualEncoded == null || manualEncoded.isBlank()) return SMALL;
+			String[] rows = manualEncoded.split(";");
+			int cols = rows[0].split(",", -1).length;
+			long cells = (long) rows.length * cols;
+			if (cells <= 64) return SMALL;
+			if (cells <= 512) return MEDIUM;
+			return LARGE;
+		}
+	}
+
+	private final Map<String, RicEngine> engines = new LinkedHashMap<>();
+	private final String configuredEngine;
+	private final List<String> calibrationCandidates;
+	private final Map<SizeClass, String> calibrated = new ConcurrentHashMap<>();
+
+	public RicEngineSelector(List<RicEngine> engines,
+							 @Value("${ric.engine:auto}") String configuredEngine,
+							 @Value("${ric.engine.candidates:subprocess,pooled}") String candidates) {
+		for (RicEngine engine : engines) {
+			this.engines.put(engine.name(), engine);
+		}
+		this.configuredEngine = configuredEngine == null ? "auto" : configuredEngine.trim().toLowerCase(Locale.ROOT);
+		List<String> parsed = new ArrayList<>();
+		for (String candidate : (candidates == null ? "" : candidates).split(",")) {
+			String name = candidate.trim().toLowerCase(Locale.ROOT);
+			if (InProcessRicEngine.NAME.equals(name)) {
+				System.out.println("[RIC] WARNING: " + name + " is not used as a calibration candidate, pin it with ric.engine to use it");
+				continue;
+			}
+			if (this.engines.containsKey(name) && !parsed.contains(name)) parsed.add(name);
+		}
+		if (!parsed.contains(SubprocessRicEngine.NAME)) parsed.add(0, SubprocessRicEngine.NAME);
+		this.calibrationCandidates = List.copyOf(parsed);
+		if (!"auto".equals(this.configuredEngine) && !this.engines.containsKey(this.configuredEngine)) {
+			System.out.println("[RIC] WARNING: Unknown ric.engine '" + configuredEngine + "', using " + SubprocessRicEngine.NAME);
+		}
+	}
+
+	public RicEngine select(RicEngine.Request request) {
+		String name = configuredEngine;
+		if ("auto".equals(name)) {
+			name = calibrated.getOrDefault(SizeClass.of(request.manualEncoded()), SubprocessRicEngine.NAME);
+		}
+		RicEngine engine = engines.get(name);
+		if (engine == null || !engine.isAvailable(request.ricJar())) {
+			engine = engines.get(SubprocessRicEngine.NAME);
+		}
+		return engine;
+	}
+
+	/**
+	 * Second engine for differential verification: the subprocess engine as reference, or, when that is the primary,
+	 * another available candidate. Null when there is nothing to compare with.
+	 */
+	public RicEngine reference(RicEngine primary, Path ricJar) {
+		if (!SubprocessRicEngine.NAME.equals(primary.name())) {
+			return engines.get(SubprocessRicEngine.NAME);
+		}
+		for (String name : calibrationCandidates) {
+			RicEngine engine = engines.get(name);
+			if (engine != null && engine != primary && engine.isAvailable(ricJar)) {
+				return engine;
+			}
+		}
+		return null;
+	}
+
+	public boolean isAutomatic() {
+		return "auto".equals(configuredEngine);
+	}
+
+	public List<RicEngine> calibrationCandidates(Path ricJar) {
+		List<RicEngine> out = new ArrayList<>();
+		for (String name : calibrationCandidates) {
+			RicEngine engine = engines.get(name);
+			if (engine != null && engine.isAvailable(ricJar)) out.add(engine);
+		}
+		return out;
+	}
+
+	public void recordCalibration(SizeClass sizeClass, String engineName) {
+		calibrated.put(sizeClass, engineName);
+	}
+
+	public Map<SizeClass, String> calibration() {
+		return Map.copyOf(calibrated);
+	}
+}
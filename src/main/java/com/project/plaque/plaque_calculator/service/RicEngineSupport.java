@@ -0,0 +1,181 @@
+package com.project.plaque.plaque_calculator.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * RicEngineSupport: Helpers shared by the RIC engines (program arguments, process supervision, output parsing).
+ */
+final class RicEngineSupport {
+
+	private RicEngineSupport() { }
+
+	// Program arguments of the RIC Main class, everything after "-jar <jar>"
+	static List<String> programArguments(RicEngine.Request request, Path outFile) {
+		List<String> args = new ArrayList<>();
+		args.add(request.manualEncoded());
+		args.add("-e");
+		args.add("--closure");
+		args.add("--name");
+		args.add(outFile.toAbsolutePath().toString());
+		args.add("-i");
+		args.add("-s");
+		if (request.monteCarlo()) {
+			args.add("-r");
+			args.add(String.valueOf(request.samples()));
+		}
+		args.addAll(request.fds());
+		return args;
+	}
+
+	static Path createOutputFile() {
+		try {
+			Path outFile = Files.createTempFile("ric-out-", ".csv");
+			System.out.println("[RIC] Output file: " + outFile.toAbsolutePath());
+			return outFile;
+		} catch (IOException e) {
+			System.out.println("[RIC] ERROR: Cannot create temp file for RIC output");
+			throw new RuntimeException("Cannot create temp file for RIC output", e);
+		}
+	}
+
+	static void deleteQuietly(Path file) {
+		try {
+			if (file != null) {
+				Files.deleteIfExists(file);
+			}
+		} catch (IOException ignore) {}
+	}
+
+	// Drains stdout/stderr of the process into procOutput on a daemon thread
+	static Thread startOutputReader(Process process, StringBuilder procOutput) {
+		Thread reader = new Thread(() -> {
+			try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+				String line;
+				while ((line = in.readLine()) != null) {
+					synchronized (procOutput) {
+						procOutput.append(line).append(System.lineSeparator());
+					}
+				}
+			} catch (IOException ignore) {}
+		});
+		reader.setDaemon(true);
+		reader.start();
+		return reader;
+	}
+
+	/**
+	 * Waits for the process within the time limit and returns its exit code. The process is killed on timeout.
+	 */
+	static int awaitExit(Process process, Thread reader, int timeLimitSeconds) throws InterruptedException {
+		boolean finished = process.waitFor(Math.max(1, timeLimitSeconds), TimeUnit.SECONDS);
+		if (!finished) {
+			System.out.println("[RIC] ERROR: RIC process timed out after " + timeLimitSeconds + " seconds");
+			process.destroyForcibly();
+			reader.join(Math.min(TimeUnit.SECONDS.toMillis(timeLimitSeconds), 2000));
+			throw new RicService.RicTimeoutException("RIC process timed out after " + timeLimitSeconds + " seconds");
+		}
+		reader.join(TimeUnit.SECONDS.toMillis(2));
+		return process.exitValue();
+	}
+
+	static void stopReader(Thread reader) {
+		if (reader != null && reader.isAlive()) {
+			reader.interrupt();
+			try {
+				reader.join(200);
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Reads the matrix written by the jar (--name), falls back to parsing stdout when the file is missing or empty.
+	 */
+	static double[][] readMatrix(Path outFile, String stdout) throws IOException {
+		if (!Files.exists(outFile)) {
+			System.out.println("[RIC] WARNING: Output file not found, falling back to stdout parsing");
+			return parseRicFromStdout(stdout);
+		}
+
+		List<String> lines = Files.readAllLines(outFile);
+		System.out.println("[RIC] Output file line count: " + lines.size());
+		List<String> numericLines = lines.stream()
+			.map(String::trim)
+			.filter(s -> !s.isEmpty())
+			.collect(Collectors.toList());
+		System.out.println("[RIC] Numeric line count: " + numericLines.size());
+
+		List<double[]> rows = new ArrayList<>();
+		for (String l : numericLines) {
+			String[] parts = l.split("[,\s]+");
+			List<Double> vals = new ArrayList<>();
+			for (String tok : parts) {
+				if (tok == null || tok.isBlank()) continue;
+				try {
+					vals.add(Double.parseDouble(tok));
+				} catch (NumberFormatException nfe) {}
+			}
+			if (!vals.isEmpty()) {
+				double[] darr = new double[vals.size()];
+				for (int i = 0; i < vals.size(); i++) darr[i] = vals.get(i);
+				rows.add(darr);
+			}
+		}
+		System.out.println("[RIC] Parsed row count: " + rows.size());
+
+		if (rows.isEmpty()) {
+			System.out.println("[RIC] WARNING: No rows parsed from output file, falling back to stdout parsing");
+			return parseRicFromStdout(stdout);
+		}
+
+		int cols = rows.get(0).length;
+		double[][] out = new double[rows.size()][cols];
+		for (int r = 0; r < rows.size(); r++) {
+			double[] rr = rows.get(r);
+			if (rr.length != cols) {
+				double[] tmp = new double[cols];
+				Arrays.fill(tmp, 1.0);
+				System.arraycopy(rr, 0, tmp, 0, Math.min(rr.length, cols));
+				out[r] = tmp;
+			} else {
+				out[r] = rr;
+			}
+		}
+		System.out.println("[RIC] Final output matrix size: " + out.length + "x" + (out.length > 0 ? out[0].length : 0));
+		return out;
+	}
+
+	static double[][] parseRicFromStdout(String stdout) {
+		List<double[]> rows = new ArrayList<>();
+		for (String line : stdout.split("\\r?\\n")) {
+			String trimmed = line.trim();
+			if (trimmed.isEmpty()) continue;
+			if (trimmed.matches(".*[A-Za-z].*")) continue;
+			String[] toks = trimmed.split("[\\t\\s]+");
+			List<Double> vals = new ArrayList<>();
+			for (String t : toks) {
+				try { vals.add(Double.parseDouble(t)); }
+				catch (NumberFormatException nfe) { /* skip */ }
+			}
+			if (!vals.isEmpty()) {
+				double[] arr = vals.stream().mapToDouble(Double::doubleValue).toArray();
+				rows.add(arr);
+			}
+		}
+		if (rows.isEmpty()) return new double[0][0];
+		int cols = rows.get(0).length;
+		double[][] out = new double[rows.size()][cols];
+		for (int r = 0; r < rows.size(); r++) out[r] = rows.get(r);
+		return out;
+	}
+}
@@ -0,0 +1,210 @@
+package com.project.plaque.plaque_calculator.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * RicLaunchProfile: JVM flags used when spawning the external RIC jar.
+ * - Startup-oriented flags (heap sizing, GC, tiered compilation) are configurable through application.properties
+ * - TieredStopAtLevel (C1 only) is applied to short interactive launches only (time limit up to
+ *   ric.jvm.tiered-stop.max-seconds, not low priority): it shortens warm-up, but C1-only code is much slower in
+ *   long compute loops, so exact runs with long limits, background refinements and pooled workers keep C2
+ * - Maintains a dynamic AppCDS archive for the RIC jar. The first launch (or the first launch after the jar or
+ *   the JDK changed) dumps the loaded classes at exit, every later launch maps that archive instead of parsing
+ *   and verifying the same classes again.
+ */
+@Component
+public class RicLaunchProfile {
+
+	private static final String STAMP_SUFFIX = ".stamp";
+
+	private final boolean cdsEnabled;
+	private final String cdsArchiveSetting;
+	private final String initialHeap;
+	private final String maxHeap;
+	private final String gc;
+	private final String tieredStopAtLevel;
+	private final int tieredStopMaxSeconds;
+	private final String extraOptions;
+
+	// Only one launch at a time is allowed to dump the archive, concurrent launches simply run without it
+	private final AtomicBoolean trainingInProgress = new AtomicBoolean(false);
+
+	public RicLaunchProfile(
+			@Value("${ric.jvm.cds.enabled:true}") boolean cdsEnabled,
+			@Value("${ric.jvm.cds.archive:}") String cdsArchiveSetting,
+			@Value("${ric.jvm.heap.initial:64m}") String initialHeap,
+			@Value("${ric.jvm.heap.max:}") String maxHeap,
+			@Value("${ric.jvm.gc:SerialGC}") String gc,
+			@Value("${ric.jvm.tiered-stop-at-level:1}") String tieredStopAtLevel,
+			@Value("${ric.jvm.tiered-stop.max-seconds:10}") int tieredStopMaxSeconds,
+			@Value("${ric.jvm.extra-options:-XX:-UsePerfData}") String extraOptions) {
+		this.cdsEnabled = cdsEnabled;
+		this.cdsArchiveSetting = cdsArchiveSetting == null ? "" : cdsArchiveSetting.trim();
+		this.initialHeap = initialHeap == null ? "" : initialHeap.trim();
+		this.maxHeap = maxHeap == null ? "" : maxHeap.trim();
+		this.gc = gc == null ? "" : gc.trim();
+		this.tieredStopAtLevel = tieredStopAtLevel == null ? "" : tieredStopAtLevel.trim();
+		this.tieredStopMaxSeconds = tieredStopMaxSeconds;
+		this.extraOptions = extraOptions == null ? "" : extraOptions.trim();
+	}
+
+	/**
+	 * Returns the launch plan of a single RIC process: the full command prefix up to (and including) the jar path.
+	 * The caller appends the program arguments and has to call {@link LaunchPlan#finish(boolean)} once the
+	 * process ended, so a training run can publish its archive. shortRun adds the C1-only flag (see isShortRun).
+	 */
+	public LaunchPlan plan(Path ricJar, boolean shortRun) {
+		List<String> command = new ArrayList<>();
+		command.add(javaExecutable());
+		command.addAll(startupOptions(shortRun));
+
+		Path archive = null;
+		Path pendingArchive = null;
+		boolean training = false;
+		if (cdsEnabled) {
+			archive = resolveArchive(ricJar);
+			String stamp = stampFor(ricJar);
+			if (archiveIsCurrent(archive, stamp)) {
+				command.add("-XX:SharedArchiveFile=" + archive.toAbsolutePath());
+				command.add("-Xshare:auto");
+			} else if (trainingInProgress.compareAndSet(false, true)) {
+				training = true;
+				pendingArchive = archive.resolveSibling(archive.getFileName() + ".tmp");
+				try {
+					Files.createDirectories(archive.toAbsolutePath().getParent());
+					Files.deleteIfExists(pendingArchive);
+				} catch (IOException ex) {
+					System.out.println("[RIC] WARNING: Cannot prepare CDS archive directory: " + ex.getMessage());
+				}
+				command.add("-XX:ArchiveClassesAtExit=" + pendingArchive.toAbsolutePath());
+			}
+		}
+		command.add("-jar");
+		command.add(ricJar.toAbsolutePath().toString());
+		return new LaunchPlan(command, training, archive, pendingArchive, ricJar);
+	}
+
+	// Interactive attempt with a short time limit, where JIT warm-up dominates the run
+	public boolean isShortRun(RicEngine.Request request) {
+		return !request.lowPriority() && request.timeLimitSeconds() <= tieredStopMaxSeconds;
+	}
+
+	/**
+	 * Flags applied to every launch, plus the C1-only flag for short runs. Empty settings are skipped so the
+	 * JVM defaults stay in effect.
+	 */
+	public List<String> startupOptions(boolean shortRun) {
+		List<String> options = startupOptions();
+		if (shortRun && !tieredStopAtLevel.isEmpty()) options.add("-XX:TieredStopAtLevel=" + tieredStopAtLevel);
+		return options;
+	}
+
+	// Flags of long-running launches (no TieredStopAtLevel)
+	public List<String> startupOptions() {
+		List<String> options = new ArrayList<>();
+		if (!initialHeap.isEmpty()) options.add("-Xms" + initialHeap);
+		if (!maxHeap.isEmpty()) options.add("-Xmx" + maxHeap);
+		if (!gc.isEmpty()) options.add("-XX:+Use" + gc);
+		if (!extraOptions.isEmpty()) {
+			for (String opt : extraOptions.split("\\s+")) {
+				if (!opt.isBlank()) options.add(opt);
+			}
+		}
+		return options;
+	}
+
+	public boolean isCdsEnabled() {
+		return cdsEnabled;
+	}
+
+	public static String javaExecutable() {
+		return System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+	}
+
+	private Path resolveArchive(Path ricJar) {
+		if (!cdsArchiveSetting.isEmpty()) {
+			return Paths.get(cdsArchiveSetting);
+		}
+		String jarName = ricJar.getFileName() == null ? "ric" : ricJar.getFileName().toString();
+		return Paths.get(System.getProperty("java.io.tmpdir"), "plaque-ric-cds", jarName + ".jsa");
+	}
+
+	// The archive is only valid for the exact jar and JDK it was dumped with
+	private String stampFor(Path ricJar) {
+		long size = -1;
+		long modified = -1;
+		try {
+			size = Files.size(ricJar);
+			modified = Files.getLastModifiedTime(ricJar).toMillis();
+		} catch (IOException ignore) {}
+		return ricJar.toAbsolutePath() + "|" + size + "|" + modified + "|"
+				+ System.getProperty("java.vm.version") + "|" + startupOptions();
+	}
+
+	private boolean archiveIsCurrent(Path archive, String stamp) {
+		try {
+			Path stampFile = archive.resolveSibling(archive.getFileName() + STAMP_SUFFIX);
+			if (!Files.exists(archive) || Files.size(archive) == 0 || !Files.exists(stampFile)) {
+				return false;
+			}
+			return stamp.equals(Files.readString(stampFile, StandardCharsets.UTF_8));
+		} catch (IOException ex) {
+			return false;
+		}
+	}
+
+	public final class LaunchPlan {
+		private final List<String> command;
+		private final boolean training;
+		private final Path archive;
+		private final Path pendingArchive;
+		private final Path ricJar;
+
+		private LaunchPlan(List<String> command, boolean training, Path archive, Path pendingArchive, Path ricJar) {
+			this.command = List.copyOf(command);
+			this.training = training;
+			this.archive = archive;
+			this.pendingArchive = pendingArchive;
+			this.ricJar = ricJar;
+		}
+
+		public List<String> command() {
+			return command;
+		}
+
+		public boolean isTrainingRun() {
+			return training;
+		}
+
+		/**
+		 * Publishes the archive dumped by a training run. A killed or failed run leaves no usable archive,
+		 * so the next launch simply trains again.
+		 */
+		public void finish(boolean exitedNormally) {
+			if (!training) return;
+			try {
+				if (exitedNormally && Files.exists(pendingArchive) && Files.size(pendingArchive) > 0) {
+					Files.move(pendingArchive, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+					Path stampFile = archive.resolveSibling(archive.getFileName() + STAMP_SUFFIX);
+					Files.writeString(stampFile, stampFor(ricJar), StandardCharsets.UTF_8);
+					System.out.println("[RIC] CDS archive created at " + archive.toAbsolutePath());
+				} else {
+					Files.deleteIfExists(pendingArchive);
+				}
+			} catch (IOException ex) {
+				System.out.println("[RIC] WARNING: Could not publish CDS archive: " + ex.getMessage());
+			} finally {
+				trainingInProgress.set(false);
+			}
+		}
+	}
+}
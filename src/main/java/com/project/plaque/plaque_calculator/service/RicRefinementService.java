@@ -0,0 +1,154 @@
+package com.project.plaque.plaque_calculator.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * RicRefinementService: Continues the exact RIC computation in the background after the adaptive fallback
+ * answered with a Monte Carlo approximation.
+ * - Refinements run on a small pool of low-priority daemon threads (ric.refinement.parallelism) with a bounded
+ *   queue (ric.refinement.queue-capacity); the child JVM is started with nice where available, so interactive
+ *   computations keep priority. When the queue is full the refinement is refused and the approximation stays
+ * - The exact run is bounded by ric.refinement.timeout-seconds instead of the interactive 10 second cap
+ * - At most one refinement per session; a new computation of the session cancels the previous one
+ * - A refinement that waited in the queue longer than the session timeout is dropped, its session is gone
+ * - Progress and the outcome are published on the "refine:" progress stream of the session
+ */
+@Service
+public class RicRefinementService {
+
+	private final RicService ricService;
+	private final ProgressStreamRegistry progressStreams;
+	private final boolean enabled;
+	private final int timeoutSeconds;
+	private final long maxQueueWaitMillis;
+	private final ThreadPoolExecutor executor;
+	private final Map<String, FutureTask<Void>> running = new ConcurrentHashMap<>();
+
+	public RicRefinementService(RicService ricService,
+								ProgressStreamRegistry progressStreams,
+								@Value("${ric.refinement.enabled:true}") boolean enabled,
+								@Value("${ric.refinement.timeout-seconds:900}") int timeoutSeconds,
+								@Value("${ric.refinement.parallelism:2}") int parallelism,
+								@Value("${ric.refinement.queue-capacity:16}") int queueCapacity,
+								@Value("${server.servlet.session.timeout:30m}") Duration sessionTimeout) {
+		this.ricService = ricService;
+		this.progressStreams = progressStreams;
+		this.enabled = enabled;
+		this.timeoutSeconds = Math.max(1, timeoutSeconds);
+		this.maxQueueWaitMillis = sessionTimeout.toMillis();
+		int threads = Math.max(1, parallelism);
+		AtomicInteger threadCount = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(Math.max(1, queueCapacity)), r -> {
+			Thread t = new Thread(r, "ric-refinement-" + threadCount.incrementAndGet());
+			t.setDaemon(true);
+			t.setPriority(Thread.MIN_PRIORITY);
+			return t;
+		});
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public static String streamKey(String sessionId) {
+		return "refine:" + sessionId;
+	}
+
+	/**
+	 * Queues an exact computation for the session. onExact receives the exact matrix and decides whether the
+	 * stored result may still be upgraded (the user might have computed another table in the meantime).
+	 * Returns false when refinement is disabled or the queue is full.
+	 */
+	public boolean schedule(String sessionId, String manualEncoded, String fds, Consumer<double[][]> onExact) {
+		if (!enabled || sessionId == null) return false;
+		cancel(sessionId);
+		ProgressStreamRegistry.ProgressStream stream = progressStreams.open(streamKey(sessionId));
+		stream.emit("progress", Map.of("message", "Exact computation queued in the background."));
+
+		long queuedAt = System.currentTimeMillis();
+		Runnable work = () -> {
+			long start = System.currentTimeMillis();
+			try {
+				if (Thread.currentThread().isInterrupted()) return;
+				if (start - queuedAt > maxQueueWaitMillis) {
+					System.out.println("[RIC] Background refinement dropped after " + (start - queuedAt)
+							+ " ms in the queue for session " + sessionId);
+					stream.emit("refine-failed", Map.of("message",
+							"The exact computation waited too long in the background queue and was dropped."));
+					return;
+				}
+				stream.emit("progress", Map.of("message", "Exact computation running in the background (limit " + timeoutSeconds + "s)."));
+				double[][] exact = ricService.computeExactLowPriority(manualEncoded, fds, timeoutSeconds);
+				if (Thread.currentThread().isInterrupted()) return;
+				onExact.accept(exact);
+				long elapsed = System.currentTimeMillis() - start;
+				System.out.println("[RIC] Background refinement finished in " + elapsed + " ms for session " + sessionId);
+				stream.emit("refined", Map.of(
+						"finalStrategy", RicService.EXACT_STRATEGY,
+						"elapsedMs", elapsed,
+						"redirectUrl", "/calc-results"
+				));
+			} catch (Exception ex) {
+				if (!Thread.currentThread().isInterrupted()) {
+					System.out.println("[RIC] Background refinement failed: " + ex.getMessage());
+					stream.emit("refine-failed", Map.of("message",
+							"Exact values could not be computed in the background: " + (ex.getMessage() == null ? "unknown error" : ex.getMessage())));
+				}
+			} finally {
+				stream.finish();
+			}
+		};
+		FutureTask<Void> task = new FutureTask<>(work, null) {
+			@Override
+			protected void done() {
+				running.remove(sessionId, this);
+			}
+		};
+		running.put(sessionId, task);
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException full) {
+			running.remove(sessionId, task);
+			System.out.println("[RIC] Background refinement refused, queue full (session " + sessionId + ")");
+			stream.emit("refine-failed", Map.of("message", "The server is busy, exact values are not computed in the background."));
+			stream.finish();
+			return false;
+		}
+		return true;
+	}
+
+	public boolean isPending(String sessionId) {
+		FutureTask<Void> future = sessionId == null ? null : running.get(sessionId);
+		return future != null && !future.isDone();
+	}
+
+	// Interrupting the worker makes RicService destroy the child process
+	public void cancel(String sessionId) {
+		if (sessionId == null) return;
+		FutureTask<Void> previous = running.remove(sessionId);
+		if (previous != null) {
+			previous.cancel(true);
+			// A queued refinement also frees its place in the queue
+			executor.remove(previous);
+		}
+		ProgressStreamRegistry.ProgressStream stream = progressStreams.find(streamKey(sessionId));
+		if (stream != null && !stream.isFinished()) {
+			stream.emit("refine-failed", Map.of("message", "Background computation cancelled."));
+			stream.finish();
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+}
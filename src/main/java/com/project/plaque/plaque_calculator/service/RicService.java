@@ -7,17 +7,14 @@ import org.springframework.stereotype.Service;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import java.lang.reflect.Type;
-import java.io.*;
 import java.nio.file.*;
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
-import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -25,7 +22,7 @@ import java.util.stream.Collectors;
  * RicService: Computing relational information content(ric) matrix
  * - computeRic(columns, session) : Uses the initial/original table in the session
  * - computeRicFromManualData(manualData) : Uses the manualData string directly from the frontend
- * Uses ProcessBuilder to call external relational_information_content jar.
+ * The external relational_information_content jar is executed by a RicEngine chosen by the RicEngineSelector.
  */
 @Service
 public class RicService {
@@ -38,13 +35,27 @@ public class RicService {
 
 	private final Gson gson = new Gson();
 
-	public RicService() {
+	private final RicEngineSelector engineSelector;
+	private final RicDifferentialChecker differentialChecker;
+	private final FDValidator fdValidator;
+
+	public RicService(RicEngineSelector engineSelector, RicDifferentialChecker differentialChecker, FDValidator fdValidator) {
 		// ricJarPath injected by Spring, init in @PostConstruct
+		this.engineSelector = engineSelector;
+		this.differentialChecker = differentialChecker;
+		this.fdValidator = fdValidator;
 	}
 
 	private static record RicAttempt(boolean monteCarlo, int samples, int timeoutSeconds) { }
 
-	public record RicComputationResult(double[][] matrix, String finalStrategy, List<String> steps) { }
+	public static final String EXACT_STRATEGY = "with exact values";
+
+	public record RicComputationResult(double[][] matrix, String finalStrategy, List<String> steps) {
+		// True when the adaptive fallback ended on a Monte Carlo approximation
+		public boolean isApproximation() {
+			return !EXACT_STRATEGY.equals(finalStrategy);
+		}
+	}
 
 	public static class RicComputationException extends RuntimeException {
 		private final List<String> steps;
@@ -59,7 +70,8 @@ public class RicService {
 		}
 	}
 
-	private static class RicTimeoutException extends RuntimeException {
+	// Thrown by the engines when the time limit of a request is exceeded
+	static class RicTimeoutException extends RuntimeException {
 		RicTimeoutException(String message) {
 			super(message);
 		}
@@ -71,6 +83,10 @@ public class RicService {
 		System.out.println("RicService.init -> ricJar = " + ricJar.toAbsolutePath());
 	}
 
+	public Path getRicJar() {
+		return ricJar;
+	}
+
 	public double[][] computeRic(List<Integer> columns, HttpSession session) {
 		String initJson = (String) session.getAttribute("initialCalcTableJson");
 		if (initJson == null || initJson.trim().isEmpty() || "[]".equals(initJson)) {
@@ -111,7 +127,15 @@ public class RicService {
 	}
 	// (manual data + fds + monteCarlo flag + samples)
 	public double[][] computeRicFromManualData(String manualEncoded, String topLevelFds, boolean monteCarlo, int samples) {
-		return computeRicFromManualDataInternal(manualEncoded, topLevelFds, /*timeLimitSeconds*/30, monteCarlo, samples);
+		return computeRicFromManualDataInternal(manualEncoded, topLevelFds, /*timeLimitSeconds*/30, monteCarlo, samples, false);
+	}
+
+	/**
+	 * Exact computation for background refinement: no adaptive fallback, the given (large) time budget and,
+	 * where the OS provides it, a lowered scheduling priority for the child process.
+	 */
+	public double[][] computeExactLowPriority(String manualEncoded, String topLevelFds, int timeLimitSeconds) {
+		return computeRicFromManualDataInternal(manualEncoded, topLevelFds, timeLimitSeconds, false, 0, true);
 	}
 
 	/**
@@ -142,6 +166,16 @@ public class RicService {
 			}
 		};
 
+		// FDs that do not hold on the data would only be reported by the engine after a full JVM launch
+		FDValidator.ValidationResult validation = fdValidator.validate(manualEncoded, topLevelFds);
+		if (!validation.isValid()) {
+			String explanation = validation.explanation();
+			recordStep.accept("Functional dependency check failed after " + formatDuration(validation.elapsedMicros() / 1000)
+					+ ": " + explanation);
+			throw new RicComputationException("The functional dependencies do not hold on the given table. " + explanation,
+					List.copyOf(steps), null);
+		}
+
 		for (RicAttempt attempt : attempts) {
 			String description = describeAttempt(attempt);
 			recordStep.accept("Starting " + description + ".");
@@ -152,7 +186,8 @@ public class RicService {
 						topLevelFds,
 						attempt.timeoutSeconds(),
 						attempt.monteCarlo(),
-						attempt.samples()
+						attempt.samples(),
+						false
 				);
 				long elapsedMs = Duration.ofNanos(System.nanoTime() - startNs).toMillis();
 				recordStep.accept("Completed " + description + " in " + formatDuration(elapsedMs) + ".");
@@ -208,7 +243,7 @@ public class RicService {
 	// Producing a short summary for logging/UI to user.
 	private String describeAttempt(RicAttempt attempt) {
 		if (!attempt.monteCarlo()) {
-			return "with exact values";
+			return EXACT_STRATEGY;
 		}
 		return "Monte Carlo approximation with " + String.format(Locale.US, "%,d", attempt.samples()) + " samples";
 	}
@@ -221,11 +256,11 @@ public class RicService {
 	}
 
 	/**
-	 * Core implementation function that prepares the external process call, enforces a timeout and parses
-	 * the resulting ric matrix.
+	 * Core implementation function that prepares the request, lets the selected engine run it (within the timeout)
+	 * and hands a sample of the results to the differential checker.
 	 */
 	private double[][] computeRicFromManualDataInternal(String manualEncoded, String topLevelFds,
-						int timeLimitSeconds, boolean monteCarlo, int samples) {
+						int timeLimitSeconds, boolean monteCarlo, int samples, boolean lowPriority) {
 		if (manualEncoded == null) manualEncoded = "";
 		manualEncoded = manualEncoded.trim();
 
@@ -240,32 +275,6 @@ public class RicService {
 			throw new IllegalStateException("RIC jar not found at: " + ricJar.toAbsolutePath());
 		}
 
-		Path outFile = null;
-		Process process = null;
-		Thread outputReader = null;
-		try {
-			outFile = Files.createTempFile("ric-out-", ".csv");
-			System.out.println("[RIC] Output file: " + outFile.toAbsolutePath());
-		} catch (IOException e) {
-			System.out.println("[RIC] ERROR: Cannot create temp file for RIC output");
-			throw new RuntimeException("Cannot create temp file for RIC output", e);
-		}
-
-		List<String> args = new ArrayList<>();
-		args.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
-		args.add("-jar");
-		args.add(ricJar.toAbsolutePath().toString());
-		args.add(manualEncoded);
-		args.add("-e");
-		args.add("--closure");
-		args.add("--name");
-		args.add(outFile.toAbsolutePath().toString());
-		args.add("-i");
-		args.add("-s");
-		if (monteCarlo) {
-			args.add("-r");
-			args.add(String.valueOf(samples));
-		}
 		List<String> fdsList = new ArrayList<>();
 		if (topLevelFds != null && !topLevelFds.trim().isEmpty()) {
 			String norm = topLevelFds.replace('→', '-').replace("—", "-");
@@ -275,141 +284,13 @@ public class RicService {
 				if (!tok.isEmpty()) fdsList.add(tok);
 			}
 		}
-		if (!fdsList.isEmpty()) args.addAll(fdsList);
-		System.out.println("[RIC] Process args: " + args);
-
-		ProcessBuilder pb = new ProcessBuilder(args);
-		pb.redirectErrorStream(true);
-		pb.directory(Paths.get(".").toFile());
-
-		StringBuilder procOutput = new StringBuilder();
-		try {
-			process = pb.start();
-			final Process procRef = process;
-			Thread reader = new Thread(() -> {
-				try (BufferedReader in = new BufferedReader(new InputStreamReader(procRef.getInputStream()))) {
-					String line;
-					while ((line = in.readLine()) != null) {
-						procOutput.append(line).append(System.lineSeparator());
-					}
-				} catch (IOException ignore) {}
-			});
-			reader.setDaemon(true);
-			reader.start();
-			outputReader = reader;
-
-			boolean finished = process.waitFor(Math.max(1, timeLimitSeconds), TimeUnit.SECONDS);
-			if (!finished) {
-				System.out.println("[RIC] ERROR: RIC process timed out after " + timeLimitSeconds + " seconds");
-				process.destroyForcibly();
-				reader.join(Math.min(TimeUnit.SECONDS.toMillis(timeLimitSeconds), 2000));
-				throw new RicTimeoutException("RIC process timed out after " + timeLimitSeconds + " seconds");
-			}
-			reader.join(TimeUnit.SECONDS.toMillis(2));
-			int exit = process.exitValue();
-			System.out.println("[RIC] Process exit code: " + exit);
-			System.out.println("[RIC] Process output (stdout):\n" + procOutput);
-
-			if (!Files.exists(outFile)) {
-				System.out.println("[RIC] WARNING: Output file not found, falling back to stdout parsing");
-				return parseRicFromStdout(procOutput.toString());
-			}
 
-			List<String> lines = Files.readAllLines(outFile);
-			System.out.println("[RIC] Output file line count: " + lines.size());
-			List<String> numericLines = lines.stream()
-				.map(String::trim)
-				.filter(s -> !s.isEmpty())
-				.collect(Collectors.toList());
-			System.out.println("[RIC] Numeric line count: " + numericLines.size());
-
-			List<double[]> rows = new ArrayList<>();
-			for (String l : numericLines) {
-				String[] parts = l.split("[,\s]+");
-				List<Double> vals = new ArrayList<>();
-				for (String tok : parts) {
-					if (tok == null || tok.isBlank()) continue;
-					try {
-						vals.add(Double.parseDouble(tok));
-					} catch (NumberFormatException nfe) {}
-				}
-				if (!vals.isEmpty()) {
-					double[] darr = new double[vals.size()];
-					for (int i = 0; i < vals.size(); i++) darr[i] = vals.get(i);
-					rows.add(darr);
-				}
-			}
-			System.out.println("[RIC] Parsed row count: " + rows.size());
-
-			if (rows.isEmpty()) {
-				System.out.println("[RIC] WARNING: No rows parsed from output file, falling back to stdout parsing");
-				return parseRicFromStdout(procOutput.toString());
-			}
-
-			int cols = rows.get(0).length;
-			double[][] out = new double[rows.size()][cols];
-			for (int r = 0; r < rows.size(); r++) {
-				double[] rr = rows.get(r);
-				if (rr.length != cols) {
-					double[] tmp = new double[cols];
-					Arrays.fill(tmp, 1.0);
-					System.arraycopy(rr, 0, tmp, 0, Math.min(rr.length, cols));
-					out[r] = tmp;
-				} else {
-					out[r] = rr;
-				}
-			}
-			System.out.println("[RIC] Final output matrix size: " + out.length + "x" + (out.length > 0 ? out[0].length : 0));
-			return out;
-
-		} catch (InterruptedException ex) {
-			Thread.currentThread().interrupt();
-			System.out.println("[RIC] ERROR: RIC process was interrupted");
-			throw new RuntimeException("RIC process was interrupted", ex);
-		} catch (IOException ex) {
-			System.out.println("[RIC] ERROR: Failed to execute RIC jar: " + procOutput);
-			throw new RuntimeException("Failed to execute RIC jar: " + procOutput.toString(), ex);
-		} finally {
-			if (outputReader != null && outputReader.isAlive()) {
-				outputReader.interrupt();
-				try {
-					outputReader.join(200);
-				} catch (InterruptedException ie) {
-					Thread.currentThread().interrupt();
-				}
-			}
-			if (process != null && process.isAlive()) {
-				process.destroyForcibly();
-			}
-			try {
-				if (outFile != null) {
-					Files.deleteIfExists(outFile);
-				}
-			} catch (IOException ignore) {}
-		}
-	}
-
-	private double[][] parseRicFromStdout(String stdout) {
-		List<double[]> rows = new ArrayList<>();
-		for (String line : stdout.split("\\r?\\n")) {
-			String trimmed = line.trim();
-			if (trimmed.isEmpty()) continue;
-			if (trimmed.matches(".*[A-Za-z].*")) continue;
-			String[] toks = trimmed.split("[\\t\\s]+");
-			List<Double> vals = new ArrayList<>();
-			for (String t : toks) {
-				try { vals.add(Double.parseDouble(t)); }
-				catch (NumberFormatException nfe) { /* skip */ }
-			}
-			if (!vals.isEmpty()) {
-				double[] arr = vals.stream().mapToDouble(Double::doubleValue).toArray();
-				rows.add(arr);
-			}
-		}
-		if (rows.isEmpty()) return new double[0][0];
-		int cols = rows.get(0).length;
-		double[][] out = new double[rows.size()][cols];
-		for (int r = 0; r < rows.size(); r++) out[r] = rows.get(r);
-		return out;
+		RicEngine.Request request = new RicEngine.Request(ricJar, manualEncoded, fdsList, timeLimitSeconds,
+				monteCarlo, samples, lowPriority);
+		RicEngine engine = engineSelector.select(request);
+		System.out.println("[RIC] Engine: " + engine.name());
+		double[][] matrix = engine.compute(request);
+		differentialChecker.maybeVerify(engine, request, matrix);
+		return matrix;
 	}
 }
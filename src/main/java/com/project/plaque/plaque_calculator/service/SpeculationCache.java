@@ -0,0 +1,83 @@
+package com.project.plaque.plaque_calculator.service;
+
+import jakarta.servlet.http.HttpSession;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * SpeculationCache: Per-session memo of normalization results (projected FDs, table analyses, lossless /
+ * dependency-preservation checks, RIC matrices), filled by the student's requests and ahead of them by
+ * SpeculationService.
+ * - Bound to the session's CompiledSchema: once the input table or its FDs change, an empty cache replaces it,
+ *   so a result of an earlier input is never returned
+ * - Values are never updated or removed; past MAX_ENTRIES new results are still returned but not kept
+ */
+public final class SpeculationCache {
+
+	public static final String SESSION_KEY = "speculationCache";
+	private static final int MAX_ENTRIES = 1024;
+
+	private final CompiledSchema schema;
+	private final Map<String, Object> values = new ConcurrentHashMap<>();
+	private final AtomicInteger hits = new AtomicInteger();
+
+	private SpeculationCache(CompiledSchema schema) {
+		this.schema = schema;
+	}
+
+	// The session's cache for its current compiled schema, created (and stored) when missing or stale
+	public static SpeculationCache of(HttpSession session, FDService fdService) {
+		CompiledSchema schema = CompiledSchema.fromSession(session, fdService);
+		Object stored = session.getAttribute(SESSION_KEY);
+		if (stored instanceof SpeculationCache cache && cache.schema == schema) {
+			return cache;
+		}
+		SpeculationCache cache = new SpeculationCache(schema);
+		session.setAttribute(SESSION_KEY, cache);
+		return cache;
+	}
+
+	// False once the session moved on to another cache (new input) or ended
+	public boolean isCurrent(HttpSession session) {
+		try {
+			return session.getAttribute(SESSION_KEY) == this
+					&& session.getAttribute(CompiledSchema.SESSION_KEY) == schema;
+		} catch (IllegalStateException invalidated) {
+			return false;
+		}
+	}
+
+	public boolean contains(String key) {
+		return values.containsKey(key);
+	}
+
+	/**
+	 * The stored value for key, or compute's result (stored for later requests). Concurrent misses on the same
+	 * key compute independently, the first stored value wins.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(String key, Supplier<T> compute) {
+		Object stored = values.get(key);
+		if (stored != null) {
+			hits.incrementAndGet();
+			return (T) stored;
+		}
+		T computed = compute.get();
+		if (computed != null && values.size() < MAX_ENTRIES) {
+			Object previous = values.putIfAbsent(key, computed);
+			if (previous != null) return (T) previous;
+		}
+		return computed;
+	}
+
+	public int size() {
+		return values.size();
+	}
+
+	public int hits() {
+		return hits.get();
+	}
+}
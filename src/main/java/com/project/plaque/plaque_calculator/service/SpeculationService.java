@@ -0,0 +1,158 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * SpeculationService: Precomputes the likely next decomposition steps while the student works on the
+ * normalization page, so project-fds / decompose-all are answered from the session's SpeculationCache.
+ * - Likely steps: for each current relation, the splits along its first BCNF-violating determinants
+ *   (X+ ∩ R and X ∪ (R \ X+)), in the order the textbook algorithm would pick them
+ * - Runs on a small pool of low-priority daemon threads (normalization.speculation.threads) with a bounded
+ *   queue; when the queue is full the speculation is skipped. Per-table RIC only with normalization.speculation.ric
+ * - At most one speculation per session; a new page render or a new computation cancels the previous one,
+ *   and a running speculation stops once the session moved on to another input
+ */
+@Service
+public class SpeculationService {
+
+	private static final int MAX_SPLITS_PER_RELATION = 4;
+
+	private final DecomposeService decomposeService;
+	private final FDService fdService;
+	private final boolean enabled;
+	private final boolean withRic;
+	private final ThreadPoolExecutor executor;
+	private final Map<String, FutureTask<Void>> running = new ConcurrentHashMap<>();
+
+	public SpeculationService(DecomposeService decomposeService,
+							  FDService fdService,
+							  @Value("${normalization.speculation.enabled:true}") boolean enabled,
+							  @Value("${normalization.speculation.ric:false}") boolean withRic,
+							  @Value("${normalization.speculation.threads:2}") int threads,
+							  @Value("${normalization.speculation.queue-capacity:8}") int queueCapacity) {
+		this.decomposeService = decomposeService;
+		this.fdService = fdService;
+		this.enabled = enabled;
+		this.withRic = withRic;
+		int poolSize = Math.max(1, threads);
+		AtomicInteger threadCount = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(Math.max(1, queueCapacity)), r -> {
+			Thread t = new Thread(r, "normalization-speculation-" + threadCount.incrementAndGet());
+			t.setDaemon(true);
+			t.setPriority(Thread.MIN_PRIORITY);
+			return t;
+		});
+	}
+
+	/**
+	 * Queues the likely splits of the given relations (original column indexes per relation, an empty list
+	 * means the input relation). Does nothing before the first computation of the session.
+	 */
+	public void speculate(HttpSession session, List<? extends List<?>> relations) {
+		if (!enabled || session == null) return;
+		String sessionId = session.getId();
+		cancel(sessionId);
+
+		SpeculationCache cache;
+		try {
+			if (session.getAttribute("originalFDs") == null) return;
+			cache = SpeculationCache.of(session, fdService);
+		} catch (IllegalStateException invalidated) {
+			return;
+		}
+		List<List<Integer>> scopes = new ArrayList<>();
+		if (relations != null) {
+			for (List<?> columns : relations) {
+				if (columns == null || columns.isEmpty()) continue;
+				scopes.add(columns.stream()
+						.filter(Number.class::isInstance)
+						.map(c -> ((Number) c).intValue())
+						.distinct()
+						.sorted()
+						.collect(Collectors.toList()));
+			}
+		}
+		if (scopes.isEmpty()) {
+			scopes.add(List.of());
+		}
+
+		FutureTask<Void> task = new FutureTask<>(() -> run(session, cache, scopes), null) {
+			@Override
+			protected void done() {
+				running.remove(sessionId, this);
+			}
+		};
+		running.put(sessionId, task);
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException full) {
+			// Only an optimization: the student's requests compute what they need themselves
+			running.remove(sessionId, task);
+			System.out.println("[Speculation] Skipped, queue full (session " + sessionId + ")");
+		}
+	}
+
+	public boolean isPending(String sessionId) {
+		Future<?> future = sessionId == null ? null : running.get(sessionId);
+		return future != null && !future.isDone();
+	}
+
+	// Interrupting the worker also stops a speculative RIC run (RicService destroys the child process)
+	public void cancel(String sessionId) {
+		if (sessionId == null) return;
+		FutureTask<Void> previous = running.remove(sessionId);
+		if (previous != null) {
+			previous.cancel(true);
+			executor.remove(previous);
+		}
+	}
+
+	private void run(HttpSession session, SpeculationCache cache, List<List<Integer>> scopes) {
+		long start = System.currentTimeMillis();
+		int precomputed = 0;
+		try {
+			for (List<Integer> baseColumns : scopes) {
+				for (List<List<Integer>> split : likelySplits(baseColumns, session)) {
+					if (Thread.currentThread().isInterrupted() || !cache.isCurrent(session)) return;
+					decomposeService.precompute(baseColumns, split, withRic, session);
+					precomputed++;
+				}
+			}
+			System.out.println("[Speculation] " + precomputed + " likely splits precomputed in "
+					+ (System.currentTimeMillis() - start) + " ms (" + cache.size() + " cached results)");
+		} catch (RuntimeException ex) {
+			if (!Thread.currentThread().isInterrupted()) {
+				System.out.println("[Speculation] Stopped: " + ex.getMessage());
+			}
+		}
+	}
+
+	// Two-table splits along the first violating determinants of the relation, as original column indexes
+	List<List<List<Integer>>> likelySplits(List<Integer> baseColumns, HttpSession session) {
+		List<String> originalAttrOrder = decomposeService.getOriginalAttrOrder(session);
+		CompiledSchema schema = decomposeService.scopedSchema(baseColumns, session);
+		List<List<List<Integer>>> out = new ArrayList<>();
+		for (AttributeSet[] split : BcnfDecompositionSearch.splits(schema.relation(), schema.relationFds(),
+				schema::closure, schema.lattice())) {
+			if (out.size() >= MAX_SPLITS_PER_RELATION) break;
+			out.add(List.of(decomposeService.columns(split[0], schema, originalAttrOrder),
+					decomposeService.columns(split[1], schema, originalAttrOrder)));
+		}
+		return out;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+}
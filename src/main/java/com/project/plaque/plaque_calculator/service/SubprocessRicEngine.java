@@ -0,0 +1,92 @@
+package com.project.plaque.plaque_calculator.service;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SubprocessRicEngine: Starts a fresh JVM ("java -jar ric.jar ...") for every request.
+ * Flags and the CDS archive come from RicLaunchProfile, low-priority requests are started with nice.
+ * This is the reference engine, it is always available when the jar exists.
+ */
+@Component
+public class SubprocessRicEngine implements RicEngine {
+
+	public static final String NAME = "subprocess";
+
+	// Used to lower the priority of background refinement processes (not available on Windows)
+	private static final String NICE_BINARY = Files.isExecutable(Paths.get("/usr/bin/nice")) ? "/usr/bin/nice"
+			: Files.isExecutable(Paths.get("/bin/nice")) ? "/bin/nice" : null;
+
+	private final RicLaunchProfile launchProfile;
+
+	public SubprocessRicEngine(RicLaunchProfile launchProfile) {
+		this.launchProfile = launchProfile;
+	}
+
+	@Override
+	public String name() {
+		return NAME;
+	}
+
+	@Override
+	public boolean isAvailable(Path ricJar) {
+		return Files.exists(ricJar);
+	}
+
+	@Override
+	public double[][] compute(Request request) {
+		Path outFile = RicEngineSupport.createOutputFile();
+		Process process = null;
+		Thread outputReader = null;
+
+		// JVM flags and the CDS archive come from the launch profile
+		RicLaunchProfile.LaunchPlan launchPlan = launchProfile.plan(request.ricJar(), launchProfile.isShortRun(request));
+		boolean exitedNormally = false;
+		List<String> args = new ArrayList<>();
+		if (request.lowPriority() && NICE_BINARY != null) {
+			args.add(NICE_BINARY);
+			args.add("-n");
+			args.add("19");
+		}
+		args.addAll(launchPlan.command());
+		args.addAll(RicEngineSupport.programArguments(request, outFile));
+		System.out.println("[RIC] Process args: " + args);
+
+		ProcessBuilder pb = new ProcessBuilder(args);
+		pb.redirectErrorStream(true);
+		pb.directory(Paths.get(".").toFile());
+
+		StringBuilder procOutput = new StringBuilder();
+		try {
+			process = pb.start();
+			outputReader = RicEngineSupport.startOutputReader(process, procOutput);
+
+			int exit = RicEngineSupport.awaitExit(process, outputReader, request.timeLimitSeconds());
+			exitedNormally = exit == 0;
+			System.out.println("[RIC] Process exit code: " + exit);
+			System.out.println("[RIC] Process output (stdout):\n" + procOutput);
+			return RicEngineSupport.readMatrix(outFile, procOutput.toString());
+
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			System.out.println("[RIC] ERROR: RIC process was interrupted");
+			throw new RuntimeException("RIC process was interrupted", ex);
+		} catch (IOException ex) {
+			System.out.println("[RIC] ERROR: Failed to execute RIC jar: " + procOutput);
+			throw new RuntimeException("Failed to execute RIC jar: " + procOutput.toString(), ex);
+		} finally {
+			RicEngineSupport.stopReader(outputReader);
+			if (process != null && process.isAlive()) {
+				process.destroyForcibly();
+			}
+			launchPlan.finish(exitedNormally);
+			RicEngineSupport.deleteQuietly(outFile);
+		}
+	}
+}
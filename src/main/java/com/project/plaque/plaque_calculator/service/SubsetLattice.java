@@ -0,0 +1,186 @@
+package com.project.plaque.plaque_calculator.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntFunction;
+import java.util.function.LongPredicate;
+
+/**
+ * SubsetLattice: Parallel enumeration of attribute subsets as primitive long masks (relation attributes 0..n-1).
+ * - Mask ranges are split recursively across a fork/join pool, small ranges run serially on the caller
+ * - Visitors get the mask only, the engine itself allocates nothing per subset
+ * - Early termination: a visitor returning false stops all tasks (e.g. "found a BCNF violation")
+ * Used by the BCNF check and the candidate key search; independent sub-searches (FD projection per target
+ * attribute) are distributed with map().
+ */
+public final class SubsetLattice {
+
+	@FunctionalInterface
+	public interface MaskVisitor {
+		// false stops the enumeration
+		boolean visit(long mask);
+	}
+
+	// Masks fit in a long; beyond that the power set cannot be enumerated anyway
+	public static final int MAX_ATTRIBUTES = 62;
+	// Masks per leaf task, and below which a range is not split at all
+	private static final long LEAF_SIZE = 1L << 11;
+	// How often a leaf checks the stop flag
+	private static final int STOP_CHECK_INTERVAL = 64;
+
+	private final ForkJoinPool pool;
+
+	public SubsetLattice() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	public SubsetLattice(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	// All subsets of n attributes: masks [0, 2^n)
+	public static long fullMask(int attributeCount) {
+		if (attributeCount < 0 || attributeCount > MAX_ATTRIBUTES) {
+			throw new IllegalArgumentException("Subset enumeration supports at most " + MAX_ATTRIBUTES + " attributes, got " + attributeCount);
+		}
+		return (1L << attributeCount) - 1;
+	}
+
+	/**
+	 * Visits every mask in [from, to), in parallel for large ranges (in no particular order).
+	 * @return true if all masks were visited, false if a visitor stopped the enumeration
+	 */
+	public boolean forEach(long from, long to, MaskVisitor visitor) {
+		AtomicBoolean stopped = new AtomicBoolean();
+		if (to - from <= LEAF_SIZE) {
+			visitRange(from, to, visitor, stopped);
+		} else {
+			pool.invoke(new VisitTask(from, to, visitor, stopped));
+		}
+		return !stopped.get();
+	}
+
+	/**
+	 * Masks in [from, to) matching the predicate, sorted by size (bit count), then numerically.
+	 */
+	public long[] filter(long from, long to, LongPredicate predicate) {
+		long[] matches = to - from <= LEAF_SIZE
+				? filterRange(from, to, predicate)
+				: pool.invoke(new FilterTask(from, to, predicate));
+		Long[] boxed = Arrays.stream(matches).boxed().toArray(Long[]::new);
+		Arrays.sort(boxed, (a, b) -> {
+			int bySize = Integer.compare(Long.bitCount(a), Long.bitCount(b));
+			return bySize != 0 ? bySize : Long.compare(a, b);
+		});
+		return Arrays.stream(boxed).mapToLong(Long::longValue).toArray();
+	}
+
+	/**
+	 * Runs independent computations 0..count-1 on the pool and returns their results in index order.
+	 */
+	public <T> List<T> map(int count, IntFunction<T> computation) {
+		List<T> results = new ArrayList<>(count);
+		if (count <= 1) {
+			for (int i = 0; i < count; i++) results.add(computation.apply(i));
+			return results;
+		}
+		List<RecursiveTask<T>> tasks = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			final int index = i;
+			tasks.add(new RecursiveTask<>() {
+				@Override
+				protected T compute() {
+					return computation.apply(index);
+				}
+			});
+		}
+		pool.invoke(new RecursiveAction() {
+			@Override
+			protected void compute() {
+				invokeAll(tasks);
+			}
+		});
+		for (RecursiveTask<T> task : tasks) results.add(task.join());
+		return results;
+	}
+
+	private static void visitRange(long from, long to, MaskVisitor visitor, AtomicBoolean stopped) {
+		for (long mask = from; mask < to; mask++) {
+			if ((mask & (STOP_CHECK_INTERVAL - 1)) == 0 && stopped.get()) return;
+			if (!visitor.visit(mask)) {
+				stopped.set(true);
+				return;
+			}
+		}
+	}
+
+	private static long[] filterRange(long from, long to, LongPredicate predicate) {
+		long[] out = new long[8];
+		int size = 0;
+		for (long mask = from; mask < to; mask++) {
+			if (predicate.test(mask)) {
+				if (size == out.length) out = Arrays.copyOf(out, size * 2);
+				out[size++] = mask;
+			}
+		}
+		return Arrays.copyOf(out, size);
+	}
+
+	private static final class VisitTask extends RecursiveAction {
+		private final long from;
+		private final long to;
+		private final MaskVisitor visitor;
+		private final AtomicBoolean stopped;
+
+		VisitTask(long from, long to, MaskVisitor visitor, AtomicBoolean stopped) {
+			this.from = from;
+			this.to = to;
+			this.visitor = visitor;
+			this.stopped = stopped;
+		}
+
+		@Override
+		protected void compute() {
+			if (stopped.get()) return;
+			if (to - from <= LEAF_SIZE) {
+				visitRange(from, to, visitor, stopped);
+				return;
+			}
+			long mid = from + (to - from) / 2;
+			invokeAll(new VisitTask(from, mid, visitor, stopped), new VisitTask(mid, to, visitor, stopped));
+		}
+	}
+
+	private static final class FilterTask extends RecursiveTask<long[]> {
+		private final long from;
+		private final long to;
+		private final LongPredicate predicate;
+
+		FilterTask(long from, long to, LongPredicate predicate) {
+			this.from = from;
+			this.to = to;
+			this.predicate = predicate;
+		}
+
+		@Override
+		protected long[] compute() {
+			if (to - from <= LEAF_SIZE) {
+				return filterRange(from, to, predicate);
+			}
+			long mid = from + (to - from) / 2;
+			FilterTask left = new FilterTask(from, mid, predicate);
+			FilterTask right = new FilterTask(mid, to, predicate);
+			left.fork();
+			long[] r = right.compute();
+			long[] l = left.join();
+			long[] merged = Arrays.copyOf(l, l.length + r.length);
+			System.arraycopy(r, 0, merged, l.length, r.length);
+			return merged;
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import com.project.plaque.plaque_calculator.model.EncodedFD;
+
+import java.util.*;
+
+/**
+ * ThreeNFSynthesis: Bernstein's 3NF synthesis on the bitset encoding, polynomial in |F| and |R|.
+ * 1. Minimal cover of the FDs (CanonicalCoverEngine)
+ * 2. One schema per distinct LHS X: X ∪ all attributes X determines in the cover
+ * 3. If no schema contains a key of R, a candidate key is added as its own schema
+ * 4. Schemas contained in another schema are removed
+ * The result is lossless, dependency-preserving and every schema is in 3NF.
+ */
+public final class ThreeNFSynthesis {
+
+	private ThreeNFSynthesis() {
+	}
+
+	/**
+	 * @param relation attributes of the relation
+	 * @param fds FDs over the relation (no attribute outside it)
+	 * @param attributeCount size of the encoding
+	 * @return the schemas, in the order of the cover's left-hand sides, the key schema (if needed) last
+	 */
+	public static List<AttributeSet> synthesize(AttributeSet relation, List<EncodedFD> fds, int attributeCount) {
+		List<EncodedFD> cover = CanonicalCoverEngine.minimalCover(fds, attributeCount);
+
+		Map<AttributeSet, AttributeSet> byLhs = new LinkedHashMap<>();
+		for (EncodedFD fd : cover) {
+			byLhs.merge(fd.getLhs(), fd.getLhs().union(fd.getRhs()), AttributeSet::union);
+		}
+		List<AttributeSet> schemas = new ArrayList<>(byLhs.values());
+
+		FDClosureIndex index = FDClosureIndex.of(cover, attributeCount);
+		boolean hasKey = false;
+		for (AttributeSet schema : schemas) {
+			hasKey |= index.closure(schema).containsAll(relation);
+		}
+		if (!hasKey) {
+			schemas.add(candidateKey(relation, index));
+		}
+
+		// Drop schemas contained in another one (of equal schemas the first stays)
+		List<AttributeSet> result = new ArrayList<>();
+		for (int i = 0; i < schemas.size(); i++) {
+			AttributeSet schema = schemas.get(i);
+			boolean subsumed = false;
+			for (int j = 0; j < schemas.size() && !subsumed; j++) {
+				if (i == j || !schemas.get(j).containsAll(schema)) continue;
+				subsumed = !schema.equals(schemas.get(j)) || j < i;
+			}
+			if (!subsumed) result.add(schema);
+		}
+		return result;
+	}
+
+	// R minimized: attributes are dropped (highest index first) while the rest still determines R
+	private static AttributeSet candidateKey(AttributeSet relation, FDClosureIndex index) {
+		AttributeSet key = relation;
+		int[] attributes = relation.toArray();
+		for (int i = attributes.length - 1; i >= 0; i--) {
+			AttributeSet reduced = key.without(attributes[i]);
+			if (index.closure(reduced).containsAll(relation)) {
+				key = reduced;
+			}
+		}
+		return key;
+	}
+}
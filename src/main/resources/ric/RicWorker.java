@@ -0,0 +1,43 @@
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Worker started ahead of time by PooledSubprocessRicEngine ("java -cp ric.jar RicWorker.java <MainClass>").
+ * Loads the RIC main class, reports READY and blocks on stdin. The request arrives as a line with the argument
+ * count followed by one argument per line. Each worker serves exactly one request and exits, so the static
+ * state of the RIC jar never leaks between computations.
+ */
+public class RicWorker {
+
+	public static void main(String[] workerArgs) throws Exception {
+		String mainClass = workerArgs.length > 0 ? workerArgs[0] : "Main";
+		Method entry = Class.forName(mainClass).getMethod("main", String[].class);
+		System.out.println("RIC_WORKER_READY");
+		System.out.flush();
+
+		BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+		String countLine = in.readLine();
+		if (countLine == null || countLine.isBlank()) {
+			System.exit(0);
+		}
+		int count = Integer.parseInt(countLine.trim());
+		String[] args = new String[count];
+		for (int i = 0; i < count; i++) {
+			String line = in.readLine();
+			args[i] = line == null ? "" : line;
+		}
+
+		int status = 0;
+		try {
+			entry.invoke(null, (Object) args);
+		} catch (InvocationTargetException ex) {
+			ex.getCause().printStackTrace();
+			status = 1;
+		}
+		System.out.flush();
+		System.exit(status);
+	}
+}
@@ -259,6 +259,65 @@ document.addEventListener('DOMContentLoaded', function() {
         });
     }
 
+    // Rows of the manual table as "a,b;c,d", empty lines filtered
+    function collectManualData() {
+        const manualRows = Array.from(document.querySelectorAll('#manualDataTable tbody tr'));
+        return manualRows.map(row => {
+            // Only get contenteditable tds
+            const cells = Array.from(row.querySelectorAll('td[contenteditable]'));
+            return cells.map(cell => cell.textContent.trim()).join(',');
+        }).filter(line => line.replace(/,/g, '').trim() !== '').join(';');
+    }
+
+    // Discovering the FDs that hold in the entered data and filling the FD table with them
+    const discoverFdsBtn = document.getElementById('discoverFdsBtn');
+    if (discoverFdsBtn) {
+        discoverFdsBtn.addEventListener('click', () => {
+            const manualData = collectManualData();
+            if (!manualData) {
+                Swal.fire({
+                    icon: 'error',
+                    title: 'Table Data Missing',
+                    text: 'Please enter table data before discovering functional dependencies.',
+                    confirmButtonText: 'Close'
+                });
+                return;
+            }
+            const body = new URLSearchParams({
+                manualData,
+                maxError: document.getElementById('fdMaxErrorInput')?.value || '0'
+            });
+            discoverFdsBtn.disabled = true;
+            fetch('/compute/discover-fds', { method: 'POST', body })
+                .then(response => response.json().then(data => ({ ok: response.ok, data })))
+                .then(({ ok, data }) => {
+                    if (!ok) throw new Error(data.error || 'FD discovery failed.');
+                    // Only exact FDs go into the table, /compute rejects FDs that do not hold on every row
+                    const fdLines = data.fds ? data.fds.split(';') : [];
+                    populateFdTableFromCsv(fdLines);
+                    const approximate = data.approximate || [];
+                    let html = data.timedOut
+                        ? 'The time limit was reached, larger left-hand sides were not searched.'
+                        : `Search finished in ${data.elapsedMillis} ms.`;
+                    if (approximate.length > 0) {
+                        const items = approximate
+                            .map(a => `<li>${a.fd.replace('->', ' → ')} (error ${(a.error * 100).toFixed(1)}%)</li>`)
+                            .join('');
+                        html += `<br><br>${approximate.length} approximate FDs hold on all but a few rows and were not added`
+                            + ` to the table:<ul style="text-align:left">${items}</ul>`;
+                    }
+                    Swal.fire({
+                        icon: data.timedOut ? 'warning' : 'success',
+                        title: `${data.count} functional dependencies found`,
+                        html,
+                        confirmButtonText: 'Close'
+                    });
+                })
+                .catch(err => Swal.fire({ icon: 'error', title: 'FD discovery failed', text: err.message, confirmButtonText: 'Close' }))
+                .finally(() => { discoverFdsBtn.disabled = false; });
+        });
+    }
+
     // Collecting data with using form submit
     const form = document.getElementById('calcForm');
     if (!form) return console.error("Form could not be found.");
@@ -270,13 +329,7 @@ document.addEventListener('DOMContentLoaded', function() {
         let manualContent = '';
 
         // Always read from the table as the manual table is the only and editable data source
-        const manualRows = Array.from(document.querySelectorAll('#manualDataTable tbody tr'));
-        manualContent = manualRows.map(row => {
-            // Only get contenteditable tds
-            const cells = Array.from(row.querySelectorAll('td[contenteditable]'));
-            return cells.map(cell => cell.textContent.trim()).join(',');
-            // Filter empty lines
-        }).filter(line => line.replace(/,/g, '').trim() !== '').join(';');
+        manualContent = collectManualData();
         document.getElementById('manualData').value = manualContent;
 
         // Collecting functional dependencies
@@ -441,6 +494,8 @@ document.addEventListener('DOMContentLoaded', function() {
         });
 
         source.addEventListener('error', event => {
+            // Connection drops arrive here without data, onerror decides whether the browser reconnects
+            if (!event.data) return;
             let message = 'Unexpected error during computation.';
             try {
                 const payload = JSON.parse(event.data);
@@ -467,7 +522,16 @@ document.addEventListener('DOMContentLoaded', function() {
             source.close();
         });
 
+        // The browser reconnects on its own and sends Last-Event-ID, the server then replays the missed
+        // progress messages of the running computation. Give up only after repeated failures.
+        let reconnectAttempts = 0;
+        const MAX_RECONNECT_ATTEMPTS = 5;
+        source.addEventListener('progress', () => { reconnectAttempts = 0; });
         source.onerror = () => {
+            if (source.readyState === EventSource.CONNECTING && reconnectAttempts < MAX_RECONNECT_ATTEMPTS) {
+                reconnectAttempts++;
+                return;
+            }
             Swal.fire({
                 icon: 'error',
                 title: 'Connection lost',
@@ -82,6 +82,29 @@ document.addEventListener('DOMContentLoaded', () => {
         });
     }
 
+    // The exhaustive BCNF check of the input is still running on the server: ask until it is decided
+    // (BCNF, NOT_BCNF, or UNKNOWN once the check hit its time limit, failed or was refused)
+    if (!alreadyBcnf && window.bcnfCheckPending) {
+        const pollBcnfStatus = () => {
+            fetch('/compute/bcnf-status')
+                .then(response => response.json())
+                .then(data => {
+                    if (data.status === 'PENDING') {
+                        setTimeout(pollBcnfStatus, 1000);
+                    } else if (data.status === 'BCNF') {
+                        Swal.fire({
+                            icon: 'info',
+                            title: 'Already in BCNF',
+                            text: 'The check of all attribute subsets finished: this table is already in BCNF. Reload the page to continue.',
+                            confirmButtonText: 'Reload'
+                        }).then(() => window.location.reload());
+                    }
+                })
+                .catch(() => setTimeout(pollBcnfStatus, 5000));
+        };
+        pollBcnfStatus();
+    }
+
     const timeLimitInput     = document.getElementById('timeLimit');
     const mcCheckboxInput    = document.getElementById('mcCheckbox');
     const mcSamplesInput     = document.getElementById('samples');
@@ -628,8 +651,8 @@ document.addEventListener('DOMContentLoaded', () => {
     // Check if a relation is in BCNF (frontend)
     async function checkRelationBCNF(wrapper, columns, fds) {
         // If the wrapper has a data attribute indicating BCNF status from the backend, use that
-        if (wrapper && wrapper.dataset.normalForm === 'BCNF') {
-            return true;
+        if (wrapper && wrapper.dataset.normalForm) {
+            return wrapper.dataset.normalForm === 'BCNF';
         }
 
         if (!columns || columns.length === 0) return true; // Empty relation is trivially BCNF
@@ -642,37 +665,15 @@ document.addEventListener('DOMContentLoaded', () => {
                 return true;
             }
 
-            // If there are FDs, check each one
-            const fdList = fdsString.split(';').map(s => s.trim()).filter(Boolean);
-
-            if (fdList.length === 0) {
-                return true; // No FDs -> BCNF
-            }
-
-            // For more accurate check, we need to verify if each FD's LHS is a superkey
-            // Since we don't have full closure logic in frontend, we'll use a conservative approach:
-            // - If FDs exist and we can't verify, assume NOT BCNF to be safe
-            // - Exception: if all FDs have LHS equal to all columns (full key), then BCNF
-
-            const colSet = new Set(columns.map(c => String(c)));
-            const allFDsAreFullKey = fdList.every(fd => {
-                const parts = fd.split('->').map(s => s.trim());
-                if (parts.length !== 2) return false;
-                const lhs = parts[0].split(',').map(s => s.trim());
-                // Check if LHS contains all columns
-                return lhs.length === colSet.size && lhs.every(attr => {
-                    // Map attribute name back to column index
-                    // This is a simplification - in reality we need proper mapping
-                    return true; // Assume it's there
-                });
+            // Superkey test needs the closure, so the server decides; the badges of one render share a request
+            const result = await new Promise((resolve, reject) => {
+                pendingBadges.push({ cols: columns.map(Number), resolve, reject });
+                scheduleAnalysis();
             });
-
-            if (allFDsAreFullKey) {
-                return true; // All FDs have full key as LHS -> BCNF
+            if (result.normalForm && wrapper && !wrapper.dataset.normalForm) {
+                wrapper.dataset.normalForm = result.normalForm;
             }
-
-            // Conservative: if we have FDs and can't verify, assume NOT BCNF
-            return false;
+            return result.normalForm === 'BCNF';
 
         } catch (err) {
             console.error('BCNF check error:', err);
@@ -1239,29 +1240,120 @@ document.addEventListener('DOMContentLoaded', () => {
         return out;
     }
 
-    async function fetchProjectedFDs(wrapper, cols) {
+    // POST /normalize/analyze: projected FDs, normal form and violating FDs for several tables, lossless-join and
+    // dependency preservation of the whole set (against baseColumns when given), and stand-alone relations
+    async function postRelationAnalysis(columnLists, baseColumns = null, relations = []) {
+        const body = { tables: columnLists.map(cols => ({ columns: cols })) };
+        if (Array.isArray(baseColumns) && baseColumns.length > 0) body.baseColumns = baseColumns.map(Number);
+        if (relations.length > 0) body.relations = relations;
+        const resp = await fetch('/normalize/analyze', {
+            method: 'POST',
+            headers: { 'Content-Type': 'application/json' },
+            body: JSON.stringify(body)
+        });
+        if (!resp.ok) {
+            const text = await resp.text();
+            throw new Error(text || resp.statusText);
+        }
+        return resp.json();
+    }
+
+    // Decomposition a wrapper belongs to: its relation group (nested normalization) or the top level (null)
+    function analysisScopeOf(wrapper) {
+        const group = wrapper && wrapper.closest ? wrapper.closest('.relation-group') : null;
+        return group && relationMetaMap.has(group) ? group : null;
+    }
+
+    // Current tables of a decomposition and the columns of the relation it decomposes (null: the input)
+    function analysisScopeTables(group) {
+        if (group) {
+            const meta = relationMetaMap.get(group);
+            const wrappers = meta && meta.localContainer
+                ? Array.from(meta.localContainer.querySelectorAll('.decomposed-wrapper'))
+                : [];
+            const baseColumns = meta && meta.baseWrapper ? parseColumnsFromWrapper(meta.baseWrapper) : [];
+            return { wrappers, baseColumns: baseColumns.length ? baseColumns : null };
+        }
+        const wrappers = Array.from(document.querySelectorAll('.decomposed-wrapper'))
+            .filter(w => !w.closest('.relation-group'));
+        return { wrappers, baseColumns: null };
+    }
+
+    // Decompositions whose tables changed and relations waiting for their BCNF badge; collected for one tick,
+    // then analysed together: all current tables of a decomposition in one request, the badges along with it
+    const pendingScopes = new Set();
+    const pendingBadges = [];
+    let projectionTimer = null;
+
+    function scheduleAnalysis() {
+        if (projectionTimer) clearTimeout(projectionTimer);
+        projectionTimer = setTimeout(flushProjectedFDs, 0);
+    }
+
+    function fetchProjectedFDs(wrapper, cols) {
         if (!cols || cols.length === 0) {
             try { wrapper.dataset.projectedFds = JSON.stringify([]); } catch (e) { wrapper.dataset.projectedFds = '[]'; }
-            return;
+            delete wrapper.dataset.normalForm;
         }
-        const payload = { columns: cols };
-        try {
-            const resp = await fetch('/normalize/project-fds', {
-                method: 'POST',
-                headers: { 'Content-Type': 'application/json' },
-                body: JSON.stringify(payload)
-            });
-            if (!resp.ok) {
-                const text = await resp.text();
-                throw new Error(text || resp.statusText);
-            }
-            const json = await resp.json();
-            const list = json.projectedFDs || json.fds || [];
-            try { wrapper.dataset.projectedFds = JSON.stringify(list); } catch (e) { wrapper.dataset.projectedFds = '[]'; }
-        } catch (err) {
-            console.error('fetchProjectedFDs failed', err);
-            try { wrapper.dataset.projectedFds = JSON.stringify([]); } catch (e) {}
+        pendingScopes.add(analysisScopeOf(wrapper));
+        scheduleAnalysis();
+    }
+
+    // Lossless-join / dependency preservation of the current tables; refreshes a status box the student already opened
+    function applyDecompositionFlags(group, json) {
+        const target = group || document.getElementById('decomposedTablesContainer');
+        if (target) {
+            target.dataset.ljPreserved = String(json.ljPreserved === true);
+            target.dataset.dpPreserved = String(json.dpPreserved === true);
+        }
+        const box = group ? group.querySelector('.dpLjStatusBox') : document.getElementById('dpLjStatusBox');
+        if (box && box.style.display !== 'none') renderDpLjStatus(json, group);
+    }
+
+    async function flushProjectedFDs() {
+        projectionTimer = null;
+        const scopes = Array.from(pendingScopes);
+        const badges = pendingBadges.splice(0);
+        pendingScopes.clear();
+
+        const requests = [];
+        scopes.forEach(group => {
+            const { wrappers, baseColumns } = analysisScopeTables(group);
+            const tables = wrappers
+                .map(w => ({ wrapper: w, cols: parseColumnsFromWrapper(w) }))
+                .filter(t => t.cols.length > 0);
+            if (tables.length > 0) requests.push({ group, tables, baseColumns, badges: [] });
+        });
+        if (badges.length > 0) {
+            if (requests.length === 0) requests.push({ group: null, tables: [], baseColumns: null, badges: [] });
+            requests[0].badges = badges;
         }
+
+        await Promise.all(requests.map(async request => {
+            try {
+                const json = await postRelationAnalysis(request.tables.map(t => t.cols), request.baseColumns,
+                    request.badges.map(badge => badge.cols));
+                const relationResults = json.relationResults || [];
+                request.badges.forEach((badge, i) => badge.resolve(relationResults[i] || {}));
+
+                // A newer change of this decomposition is already queued
+                if (request.tables.length === 0 || pendingScopes.has(request.group)) return;
+                const results = json.tableResults || [];
+                request.tables.forEach(({ wrapper }, i) => {
+                    const result = results[i] || {};
+                    const list = result.projectedFDs || [];
+                    try { wrapper.dataset.projectedFds = JSON.stringify(list); } catch (e) { wrapper.dataset.projectedFds = '[]'; }
+                    if (result.normalForm) wrapper.dataset.normalForm = result.normalForm;
+                });
+                applyDecompositionFlags(request.group, json);
+            } catch (err) {
+                console.error('fetchProjectedFDs failed', err);
+                request.badges.forEach(badge => badge.reject(err));
+                request.tables.forEach(({ wrapper }) => {
+                    try { wrapper.dataset.projectedFds = JSON.stringify([]); } catch (e) {}
+                });
+            }
+        }));
     }
 
     // Sortable for original table — enable cloning into decomposed tables but prevent reordering in original
@@ -2093,8 +2185,19 @@ document.addEventListener('DOMContentLoaded', () => {
                 }
             });
 
+            // EventSource reconnects by itself with Last-Event-ID, the server replays missed events
+            // and re-attaches to the running normalization instead of restarting it
+            let reconnectAttempts = 0;
+            const MAX_RECONNECT_ATTEMPTS = 5;
+            source.addEventListener('progress', () => { reconnectAttempts = 0; });
+
             source.onerror = () => {
                 if (streamClosed || awaitingUserConfirm) return;
+                if (source.readyState === EventSource.CONNECTING && reconnectAttempts < MAX_RECONNECT_ATTEMPTS) {
+                    reconnectAttempts++;
+                    if (reconnectAttempts === 1) appendProgress('Connection interrupted, reconnecting...');
+                    return;
+                }
                 appendProgress('Connection lost.', 'error');
                 source.close();
                 streamClosed = true;
@@ -2852,6 +2955,37 @@ document.addEventListener('DOMContentLoaded', () => {
         addTableBtn.addEventListener('click', () => createDecomposedTable());
     }
 
+    // One-click suggestion: 3NF synthesis on the server, one decomposed table per column group
+    const suggest3nfBtn = document.getElementById('suggest3nfBtn');
+    if (suggest3nfBtn) {
+        suggest3nfBtn.addEventListener('click', async () => {
+            if (document.querySelector('.decomposed-wrapper:not(.orig-as-original)')) {
+                Swal.fire({
+                    icon: 'info',
+                    title: 'Decomposed tables exist',
+                    text: 'Please remove the current decomposed tables before applying a suggestion.',
+                    confirmButtonText: 'Close'
+                });
+                return;
+            }
+            suggest3nfBtn.disabled = true;
+            try {
+                const resp = await fetch('/normalize/synthesize-3nf', {
+                    method: 'POST',
+                    headers: { 'Content-Type': 'application/json' },
+                    body: JSON.stringify({})
+                });
+                const data = await resp.json();
+                if (!resp.ok) throw new Error(data.error || 'Synthesis failed.');
+                (data.tables || []).forEach(table => createDecomposedTable({ initialColumns: table.columns }));
+            } catch (err) {
+                Swal.fire({ icon: 'error', title: '3NF suggestion failed', text: err.message, confirmButtonText: 'Close' });
+            } finally {
+                suggest3nfBtn.disabled = false;
+            }
+        });
+    }
+
     // DP/LJ render + Continue button
     function renderDpLjStatus(resp, relationGroup = null) {
         let box;
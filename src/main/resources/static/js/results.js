@@ -103,4 +103,29 @@ document.addEventListener('DOMContentLoaded', () => {
     } else {
         console.warn('Buttons or tables not found on the results page. Check element IDs.');
     }
+
+    // Background refinement: the approximation shown here is replaced by exact values once they are ready
+    const refinementStatus = document.getElementById('ricRefinementStatus');
+    if (window.ricRefinementPending && refinementStatus && typeof EventSource !== 'undefined') {
+        const refineSource = new EventSource('/compute/refinement-stream');
+        const closeWith = (text) => {
+            refinementStatus.textContent = text;
+            refineSource.close();
+        };
+        refineSource.addEventListener('refined', () => {
+            refinementStatus.textContent = 'Exact values are ready. ';
+            const reloadLink = document.createElement('a');
+            reloadLink.href = '/calc-results';
+            reloadLink.textContent = 'Show exact values';
+            refinementStatus.appendChild(reloadLink);
+            refineSource.close();
+        });
+        refineSource.addEventListener('refine-failed', (event) => {
+            const data = event.data ? JSON.parse(event.data) : {};
+            closeWith(data.message || 'Exact values could not be computed in the background.');
+        });
+        refineSource.addEventListener('refine-idle', () => {
+            closeWith('No background computation is running.');
+        });
+    }
 });
\ No newline at end of file
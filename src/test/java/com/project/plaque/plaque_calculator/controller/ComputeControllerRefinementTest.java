@@ -0,0 +1,88 @@
+package com.project.plaque.plaque_calculator.controller;
+
+import com.project.plaque.plaque_calculator.service.ProgressStreamRegistry;
+import com.project.plaque.plaque_calculator.service.RicRefinementService;
+import com.project.plaque.plaque_calculator.service.RicService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The exact matrix of a background refinement replaces the session's approximation only while the session still
+ * shows the same input, and an expired session is left alone.
+ */
+class ComputeControllerRefinementTest {
+
+	private static final String MANUAL = "a,b;c,d";
+	private static final String FDS = "1->2";
+
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final ProgressStreamRegistry streams = new ProgressStreamRegistry();
+	private final RicRefinementService refinementService = new RicRefinementService(new RicService(null, null, null) {
+		@Override
+		public double[][] computeExactLowPriority(String manualEncoded, String topLevelFds, int timeLimitSeconds) {
+			try {
+				release.await();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return new double[][]{{1.0, 1.0}, {1.0, 1.0}};
+		}
+	}, streams, true, 60, 1, 4, Duration.ofMinutes(30));
+	private final ComputeController controller = new ComputeController(null, null, null, null, streams,
+			refinementService, null, null, null);
+
+	@AfterEach
+	void shutdown() {
+		release.countDown();
+		refinementService.shutdown();
+	}
+
+	@Test
+	void sameInputIsUpgraded() throws Exception {
+		MockHttpSession session = sessionShowing(MANUAL, FDS);
+		assertTrue(controller.scheduleRefinement(session, MANUAL, FDS));
+		finish(session);
+
+		assertEquals(RicService.EXACT_STRATEGY, session.getAttribute("calcResultsRicFinalStrategy"));
+	}
+
+	@Test
+	void newerInputIsNotOverwritten() throws Exception {
+		MockHttpSession session = sessionShowing(MANUAL, FDS);
+		assertTrue(controller.scheduleRefinement(session, MANUAL, FDS));
+		session.setAttribute("calcResultsFdList", "2->1");
+		finish(session);
+
+		assertEquals("with Monte Carlo", session.getAttribute("calcResultsRicFinalStrategy"));
+	}
+
+	@Test
+	void expiredSessionIsIgnored() throws Exception {
+		MockHttpSession session = sessionShowing(MANUAL, FDS);
+		assertTrue(controller.scheduleRefinement(session, MANUAL, FDS));
+		session.invalidate();
+		finish(session);
+
+		assertTrue(streams.find(RicRefinementService.streamKey(session.getId())).isFinished());
+	}
+
+	private MockHttpSession sessionShowing(String manual, String fds) {
+		MockHttpSession session = new MockHttpSession();
+		session.setAttribute("calcResultsInputData", manual);
+		session.setAttribute("calcResultsFdList", fds);
+		session.setAttribute("calcResultsRicFinalStrategy", "with Monte Carlo");
+		return session;
+	}
+
+	private void finish(MockHttpSession session) throws InterruptedException {
+		release.countDown();
+		for (int i = 0; i < 500 && refinementService.isPending(session.getId()); i++) Thread.sleep(10);
+		assertFalse(refinementService.isPending(session.getId()));
+	}
+}
@@ -0,0 +1,127 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+import jakarta.servlet.http.HttpSessionEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The session shows PENDING until the subset scan decided, then BCNF / NOT_BCNF; a cancelled scan stops
+ * and frees its check thread. Scans past the time limit, failing scans and checks refused while every check
+ * thread is busy end UNKNOWN; an ended session cancels its scan.
+ */
+class BcnfCheckServiceTest {
+
+	private final FDService fdService = new FDService();
+	private final List<BcnfCheckService> services = new ArrayList<>();
+	private BcnfCheckService service = service(2, 120);
+
+	@AfterEach
+	void shutdown() {
+		services.forEach(BcnfCheckService::shutdown);
+	}
+
+	@Test
+	void scanDecidesTheStatus() throws Exception {
+		// A → D → B over {A, B, C}: A → B holds, A is no key
+		MockHttpSession notBcnf = session(List.of("A", "B", "C"),
+				List.of(fd("A", "D"), fd("D", "B")));
+		// A → C → B over {A, B}: A → B holds, A is a key
+		MockHttpSession bcnf = session(List.of("A", "B"), List.of(fd("A", "C"), fd("C", "B")));
+
+		await(notBcnf);
+		await(bcnf);
+
+		assertEquals(BcnfCheckService.Status.NOT_BCNF, BcnfCheckService.status(notBcnf));
+		assertEquals(BcnfCheckService.Status.BCNF, BcnfCheckService.status(bcnf));
+	}
+
+	@Test
+	void cancelStopsTheScan() throws Exception {
+		// 30 attributes in BCNF: the scan would visit all 2^30 subsets unless cancelled
+		MockHttpSession slow = session(wide(30), List.of(fd("X0", "Y")));
+		Thread.sleep(200);
+		assertTrue(service.isPending(slow.getId()));
+		assertEquals(BcnfCheckService.Status.PENDING, BcnfCheckService.status(slow));
+		service.cancel(slow.getId());
+		assertFalse(service.isPending(slow.getId()));
+		assertEquals(BcnfCheckService.Status.PENDING, BcnfCheckService.status(slow));
+
+		// Its check thread is free again
+		MockHttpSession next = session(List.of("A", "B"), List.of(fd("A", "C"), fd("C", "B")));
+		await(next);
+		assertEquals(BcnfCheckService.Status.BCNF, BcnfCheckService.status(next));
+	}
+
+	@Test
+	void timeLimitAndFailureEndUndecided() throws Exception {
+		service = service(2, 1);
+		MockHttpSession slow = session(wide(30), List.of(fd("X0", "Y")));
+		// More attributes than a subset mask holds: the scan throws
+		MockHttpSession failing = session(wide(70), List.of(fd("X0", "Y")));
+
+		await(failing);
+		assertEquals(BcnfCheckService.Status.UNKNOWN, BcnfCheckService.status(failing));
+		for (int i = 0; i < 300 && service.isPending(slow.getId()); i++) Thread.sleep(10);
+		assertFalse(service.isPending(slow.getId()));
+		assertEquals(BcnfCheckService.Status.UNKNOWN, BcnfCheckService.status(slow));
+	}
+
+	@Test
+	void busyChecksAreRefusedAndEndedSessionsCancelled() throws Exception {
+		service = service(1, 120);
+		MockHttpSession slow = session(wide(30), List.of(fd("X0", "Y")));
+		Thread.sleep(100);
+
+		// The only check thread scans the wide input: the next check is refused instead of waiting behind it
+		MockHttpSession refused = session(List.of("A", "B"), List.of(fd("A", "C"), fd("C", "B")));
+		assertFalse(service.isPending(refused.getId()));
+		assertEquals(BcnfCheckService.Status.UNKNOWN, BcnfCheckService.status(refused));
+
+		service.sessionDestroyed(new HttpSessionEvent(slow));
+		assertFalse(service.isPending(slow.getId()));
+		MockHttpSession next = session(List.of("A", "B"), List.of(fd("A", "C"), fd("C", "B")));
+		for (int i = 0; i < 100 && BcnfCheckService.status(next) == BcnfCheckService.Status.UNKNOWN; i++) {
+			Thread.sleep(10);
+			service.start(next, (CompiledSchema) next.getAttribute(CompiledSchema.SESSION_KEY));
+		}
+		await(next);
+		assertEquals(BcnfCheckService.Status.BCNF, BcnfCheckService.status(next));
+	}
+
+	private BcnfCheckService service(int maxConcurrent, int timeLimitSeconds) {
+		BcnfCheckService created = new BcnfCheckService(new NormalFormChecker(fdService), 2, maxConcurrent, timeLimitSeconds);
+		services.add(created);
+		return created;
+	}
+
+	private List<String> wide(int attributes) {
+		List<String> out = new ArrayList<>();
+		for (int i = 0; i < attributes; i++) out.add("X" + i);
+		return out;
+	}
+
+	private MockHttpSession session(List<String> attrs, List<FD> fds) {
+		MockHttpSession session = new MockHttpSession();
+		CompiledSchema schema = fdService.compile(attrs, fds);
+		session.setAttribute(CompiledSchema.SESSION_KEY, schema);
+		service.start(session, schema);
+		return session;
+	}
+
+	private void await(MockHttpSession session) throws InterruptedException {
+		for (int i = 0; i < 500 && service.isPending(session.getId()); i++) Thread.sleep(10);
+		assertFalse(service.isPending(session.getId()));
+	}
+
+	private FD fd(String lhs, String rhs) {
+		return new FD(Set.of(lhs), Set.of(rhs));
+	}
+}
@@ -0,0 +1,73 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import com.project.plaque.plaque_calculator.model.EncodedFD;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every decomposition found covers R, is lossless (chase), has no subsumed schema and only BCNF schemas
+ * (brute force over the subsets of each schema). After the deadline exactly the textbook one is left.
+ */
+class BcnfDecompositionSearchTest {
+
+	private final SubsetLattice lattice = new SubsetLattice();
+
+	@Test
+	void decompositionsAreLosslessAndBCNF() {
+		Random random = new Random(37);
+		for (int round = 0; round < 500; round++) {
+			int n = 1 + random.nextInt(7);
+			List<EncodedFD> fds = new ArrayList<>();
+			for (int i = random.nextInt(7); i > 0; i--) {
+				AttributeSet lhs = random.nextInt(3) == 0
+						? AttributeSet.of(random.nextInt(n), random.nextInt(n))
+						: AttributeSet.of(random.nextInt(n));
+				fds.add(new EncodedFD(lhs, AttributeSet.of(random.nextInt(n))));
+			}
+			AttributeSet relation = AttributeSet.range(n);
+			FDClosureIndex index = FDClosureIndex.of(fds, n);
+			String context = "FDs " + fds + " on " + n + " attributes";
+
+			List<List<AttributeSet>> decompositions =
+					new BcnfDecompositionSearch(fds, index::closure, lattice, 64, Long.MAX_VALUE).decompositions(relation);
+
+			assertFalse(decompositions.isEmpty(), context);
+			assertEquals(decompositions.size(), new HashSet<>(decompositions).size(), context);
+			for (List<AttributeSet> schemas : decompositions) {
+				AttributeSet covered = AttributeSet.empty();
+				for (AttributeSet schema : schemas) covered = covered.union(schema);
+				assertEquals(relation, covered, context);
+				assertTrue(LosslessJoinChase.isLossless(n, schemas, fds), schemas + " in " + context);
+				for (int i = 0; i < schemas.size(); i++) {
+					for (int j = 0; j < schemas.size(); j++) {
+						assertFalse(i != j && schemas.get(j).containsAll(schemas.get(i)), context);
+					}
+					assertTrue(isBCNF(schemas.get(i), index), schemas.get(i) + " in " + context);
+				}
+			}
+
+			BcnfDecompositionSearch late = new BcnfDecompositionSearch(fds, index::closure, lattice, 64, System.nanoTime() - 1);
+			List<List<AttributeSet>> textbook = late.decompositions(relation);
+			assertEquals(1, textbook.size(), context);
+			assertEquals(decompositions.get(0), textbook.get(0), context);
+		}
+	}
+
+	// Every subset X of the schema determines either nothing new in it or all of it
+	private boolean isBCNF(AttributeSet schema, FDClosureIndex index) {
+		int[] attributes = schema.toArray();
+		for (long mask = 0; mask < (1L << attributes.length); mask++) {
+			AttributeSet x = AttributeSet.empty();
+			for (int i = 0; i < attributes.length; i++) {
+				if ((mask >> i & 1) != 0) x = x.with(attributes[i]);
+			}
+			AttributeSet determined = index.closure(x).intersect(schema);
+			if (!determined.equals(x) && !determined.containsAll(schema)) return false;
+		}
+		return true;
+	}
+}
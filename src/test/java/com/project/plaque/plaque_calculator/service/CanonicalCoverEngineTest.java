@@ -0,0 +1,116 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Validates the canonical cover engine against the previous pairwise transitive-FD search:
+ * every FD the old search found (exact RHS/LHS chains) has to be derived with the same display string, exactly
+ * those where the old search is complete (single-attribute sides), and everything derived or in the minimal
+ * cover has to be implied by the original FDs.
+ */
+class CanonicalCoverEngineTest {
+
+	private final FDService fdService = new FDService();
+
+	@Test
+	void derivedFdsContainEveryPairwiseChain() {
+		Random random = new Random(2024);
+		for (int round = 0; round < 2000; round++) {
+			List<FD> fds = randomFds(random, 2 + random.nextInt(7), 1 + random.nextInt(8));
+
+			Set<String> derived = strings(fdService.findTransitiveFDs(fds));
+			Set<String> legacy = strings(legacyTransitiveFds(fds));
+			assertTrue(derived.containsAll(legacy), "missing chains for " + fds + ": " + legacy + " vs " + derived);
+
+			for (FD fd : fdService.findTransitiveFDs(fds)) {
+				assertTrue(fdService.computeClosure(fd.getLhs(), fds).containsAll(fd.getRhs()), fd + " not implied by " + fds);
+			}
+			List<FD> cover = fdService.computeMinimalCover(fds);
+			for (FD fd : fds) {
+				assertTrue(fdService.computeClosure(fd.getLhs(), cover).containsAll(fd.getRhs()), "cover " + cover + " loses " + fd);
+			}
+			for (FD fd : cover) {
+				assertEquals(1, fd.getRhs().size());
+				assertTrue(fdService.computeClosure(fd.getLhs(), fds).containsAll(fd.getRhs()), fd + " not implied by " + fds);
+			}
+		}
+	}
+
+	@Test
+	void singleAttributeChainsMatchThePairwiseSearch() {
+		// With one attribute on either side, the pairwise search follows every chain: both find the same FDs
+		Random random = new Random(2025);
+		for (int round = 0; round < 2000; round++) {
+			int attributes = 2 + random.nextInt(7);
+			List<FD> fds = new ArrayList<>();
+			for (int i = 1 + random.nextInt(8); i > 0; i--) {
+				fds.add(new FD(Set.of("A" + random.nextInt(attributes)), Set.of("A" + random.nextInt(attributes))));
+			}
+
+			assertEquals(strings(legacyTransitiveFds(fds)), strings(fdService.findTransitiveFDs(fds)), "chains for " + fds);
+		}
+	}
+
+	@Test
+	void exampleChainsKeepTheirDisplayStrings() {
+		List<FD> fds = fdService.parseFDString("A->B;B->C;C,D->E");
+		assertEquals(List.of("A→C"), fdService.findTransitiveFDs(fds).stream().map(FD::toString).toList());
+
+		// Chain through a combined left-hand side, not reachable by exact matches
+		fds = fdService.parseFDString("A->B;A->C;B,C->D");
+		assertEquals(List.of("A→D"), fdService.findTransitiveFDs(fds).stream().map(FD::toString).toList());
+	}
+
+	private Set<String> strings(List<FD> fds) {
+		Set<String> out = new TreeSet<>();
+		for (FD fd : fds) out.add(fd.toString());
+		return out;
+	}
+
+	private List<FD> randomFds(Random random, int attributes, int count) {
+		List<FD> out = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Set<String> lhs = new HashSet<>();
+			Set<String> rhs = new HashSet<>();
+			int lhsSize = 1 + random.nextInt(2);
+			for (int k = 0; k < lhsSize; k++) lhs.add("A" + random.nextInt(attributes));
+			rhs.add("A" + random.nextInt(attributes));
+			if (random.nextInt(4) == 0) rhs.add("A" + random.nextInt(attributes));
+			out.add(new FD(lhs, rhs));
+		}
+		return out;
+	}
+
+	// The previous FDService.findTransitiveFDs: pairwise chaining of exact RHS/LHS matches until nothing new appears
+	private List<FD> legacyTransitiveFds(List<FD> originalFDs) {
+		Set<FD> transitiveFDs = new HashSet<>();
+		Set<FD> knownFDs = new HashSet<>(originalFDs);
+		List<FD> newlyFound = new ArrayList<>(originalFDs);
+		while (!newlyFound.isEmpty()) {
+			Set<FD> foundInThisIteration = new HashSet<>();
+			for (FD newFd : newlyFound) {
+				for (FD existingFd : knownFDs) {
+					if (newFd.getRhs().equals(existingFd.getLhs())) {
+						FD candidate = new FD(newFd.getLhs(), existingFd.getRhs());
+						if (!knownFDs.contains(candidate)) foundInThisIteration.add(candidate);
+					}
+					if (existingFd.getRhs().equals(newFd.getLhs())) {
+						FD candidate = new FD(existingFd.getLhs(), newFd.getRhs());
+						if (!knownFDs.contains(candidate)) foundInThisIteration.add(candidate);
+					}
+				}
+			}
+			newlyFound = new ArrayList<>(foundInThisIteration);
+			knownFDs.addAll(newlyFound);
+			transitiveFDs.addAll(newlyFound);
+		}
+		transitiveFDs.removeIf(fd -> fd.getLhs().containsAll(fd.getRhs()));
+		return new ArrayList<>(transitiveFDs);
+	}
+}
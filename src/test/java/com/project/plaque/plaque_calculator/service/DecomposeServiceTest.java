@@ -0,0 +1,130 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.dto.DecomposeAllRequest;
+import com.project.plaque.plaque_calculator.dto.DecomposeAllResponse;
+import com.project.plaque.plaque_calculator.dto.DecomposeRequest;
+import com.project.plaque.plaque_calculator.dto.DecomposeResponse;
+import com.project.plaque.plaque_calculator.model.FD;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The decompose stream computes the RIC of all tables and the global RIC at the same time, and the aggregate
+ * is built from those per-table results without computing any of them again. analyze checks the whole table
+ * set against the nested relation and answers stand-alone relations in the same request, without any RIC.
+ */
+class DecomposeServiceTest {
+
+	private static final List<String> ATTRS = List.of("A", "B", "C", "D", "E", "F");
+
+	private final FDService fdService = new FDService();
+	private final AtomicInteger calls = new AtomicInteger();
+	// Five tables and the global RIC: released only once all six runs are in flight together
+	private final CountDownLatch allRunning = new CountDownLatch(6);
+
+	// RIC of a table {A, X}: every cell is X's position, the global RIC is 0
+	private final RicService ricService = new RicService(null, null, null) {
+		@Override
+		public RicComputationResult computeRicAdaptive(String manualEncoded, String topLevelFds, boolean initialMonteCarlo,
+													   int initialSamples, Consumer<String> progressCallback) {
+			calls.incrementAndGet();
+			allRunning.countDown();
+			try {
+				if (!allRunning.await(5, TimeUnit.SECONDS)) throw new IllegalStateException("RIC runs were not concurrent");
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(ex);
+			}
+			String[] firstRow = manualEncoded.split(";")[0].split(",");
+			double value = firstRow.length == 2 ? ATTRS.indexOf(firstRow[1].substring(0, 1).toUpperCase()) : 0;
+			return new RicComputationResult(new double[][]{{value}}, RicService.EXACT_STRATEGY,
+					List.of("RIC " + firstRow.length + " columns"));
+		}
+	};
+	private final DecomposeService service = new DecomposeService(fdService, ricService, new NormalFormChecker(fdService), 8);
+
+	@Test
+	void tablesRunConcurrentlyAndTheAggregateReusesThem() {
+		MockHttpSession session = session();
+		DecomposeAllRequest request = new DecomposeAllRequest();
+		List<DecomposeRequest> tables = new ArrayList<>();
+		for (int column = 1; column < ATTRS.size(); column++) {
+			DecomposeRequest table = new DecomposeRequest();
+			table.setColumns(List.of(0, column));
+			tables.add(table);
+		}
+		request.setTables(tables);
+
+		List<String> progress = Collections.synchronizedList(new ArrayList<>());
+		DecomposeAllResponse response = service.decomposeAllWithProgress(request, session, progress::add);
+
+		assertEquals(6, calls.get());
+		assertEquals(5, response.getTableResults().size());
+		for (int i = 0; i < 5; i++) {
+			DecomposeResponse table = response.getTableResults().get(i);
+			assertArrayEquals(new double[]{i + 1}, table.getRicMatrix()[0]);
+			assertEquals(List.of("Decomposed Table " + (i + 1) + ": RIC 2 columns"), table.getSteps());
+			assertEquals("BCNF", table.getNormalForm());
+		}
+		assertArrayEquals(new double[]{0}, response.getGlobalRic()[0]);
+		assertTrue(response.isBCNFDecomposition());
+		assertTrue(response.isLjPreserved());
+		assertTrue(response.isDpPreserved());
+
+		// The same decomposition again is answered from the session's cache
+		service.decomposeAllWithProgress(request, session, progress::add);
+		assertEquals(6, calls.get());
+	}
+
+	@Test
+	void analyzeChecksTheWholeTableSetAndStandAloneRelations() {
+		MockHttpSession session = session();
+		DecomposeAllRequest request = new DecomposeAllRequest();
+		// {A, B, C} decomposed into {A, B} and {A, C}, plus the relations {A, B, C} and {B, C} for their badges
+		request.setBaseColumns(List.of(0, 1, 2));
+		List<DecomposeRequest> tables = new ArrayList<>();
+		for (List<Integer> columns : List.of(List.of(0, 1), List.of(0, 2))) {
+			DecomposeRequest table = new DecomposeRequest();
+			table.setColumns(columns);
+			tables.add(table);
+		}
+		request.setTables(tables);
+		request.setRelations(List.of(List.of(0, 1, 2), List.of(1, 2)));
+
+		DecomposeAllResponse response = service.analyzeRelations(request, session);
+
+		assertEquals(2, response.getTableResults().size());
+		assertTrue(response.isLjPreserved());
+		assertTrue(response.isDpPreserved());
+		assertEquals(2, response.getRelationResults().size());
+		assertEquals("BCNF", response.getRelationResults().get(0).getNormalForm());
+		assertEquals("BCNF", response.getRelationResults().get(1).getNormalForm());
+
+		// Without the second table the set no longer covers {A, B, C}
+		request.setTables(tables.subList(0, 1));
+		request.setRelations(null);
+		assertFalse(service.analyzeRelations(request, session).isLjPreserved());
+		assertEquals(0, calls.get());
+	}
+
+	// A → B, C, D, E, F: every {A, X} is in BCNF and the decomposition is lossless and preserving
+	private MockHttpSession session() {
+		MockHttpSession session = new MockHttpSession();
+		List<FD> fds = new ArrayList<>();
+		for (String attr : ATTRS.subList(1, ATTRS.size())) fds.add(new FD(Set.of("A"), Set.of(attr)));
+		session.setAttribute("originalAttrOrder", ATTRS);
+		session.setAttribute("originalFDs", fds);
+		session.setAttribute("originalTuples", List.of(List.of("a1", "b1", "c1", "d1", "e1", "f1"),
+				List.of("a2", "b2", "c2", "d2", "e2", "f2")));
+		CompiledSchema.fromSession(session, fdService);
+		return session;
+	}
+}
@@ -0,0 +1,102 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.dto.DecomposeAllRequest;
+import com.project.plaque.plaque_calculator.dto.DecomposeRequest;
+import com.project.plaque.plaque_calculator.dto.DecompositionSearchResponse;
+import com.project.plaque.plaque_calculator.model.FD;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Candidates are ranked by mean RIC and cut to the top k; every table is computed once in the requested mode,
+ * which each candidate reports.
+ */
+class DecompositionSearchServiceTest {
+
+	private final FDService fdService = new FDService();
+	private final List<String> modes = new CopyOnWriteArrayList<>();
+	private final List<String> tables = new CopyOnWriteArrayList<>();
+
+	// Every cell of a table gets the same value: BC 0.9, AB 0.5, AC 0.1 (the rows start with the table's values)
+	private final RicService ricService = new RicService(null, null, null) {
+		@Override
+		public double[][] computeRicFromManualData(String manualEncoded, String topLevelFds, boolean monteCarlo, int samples) {
+			modes.add(monteCarlo + ":" + samples);
+			String table = manualEncoded.substring(0, 1) + manualEncoded.substring(3, 4);
+			tables.add(table);
+			double value = switch (table) {
+				case "bc" -> 0.9;
+				case "ab" -> 0.5;
+				default -> 0.1;
+			};
+			return new double[][]{{value, value}, {value, value}};
+		}
+	};
+	private final DecomposeService decomposeService =
+			new DecomposeService(fdService, ricService, new NormalFormChecker(fdService), 2);
+	private final DecompositionSearchService service =
+			new DecompositionSearchService(decomposeService, ricService, fdService, 2, 2);
+
+	@AfterEach
+	void shutdown() {
+		service.shutdown();
+	}
+
+	@Test
+	void rankedByMeanRicAndCutToTopK() {
+		MockHttpSession session = session();
+
+		DecompositionSearchResponse all = service.search(new DecomposeAllRequest(), 5, session);
+		// Splitting on B → C gives {A, B} {B, C}, splitting on A → C gives {A, B} {A, C}
+		assertEquals(2, all.getDecompositionsScored());
+		assertEquals(List.of(List.of(List.of(0, 1), List.of(1, 2)), List.of(List.of(0, 1), List.of(0, 2))),
+				all.getCandidates().stream().map(DecompositionSearchServiceTest::columns).collect(Collectors.toList()));
+		assertEquals(0.7, all.getCandidates().get(0).getScore(), 1e-9);
+		assertEquals(0.3, all.getCandidates().get(1).getScore(), 1e-9);
+		// {A, B} is shared by both candidates and computed once
+		assertEquals(3, tables.size());
+		assertEquals(Set.of("ab", "ac", "bc"), new HashSet<>(tables));
+
+		DecompositionSearchResponse top = service.search(new DecomposeAllRequest(), 1, session);
+		assertEquals(1, top.getCandidates().size());
+		assertEquals(List.of(List.of(0, 1), List.of(1, 2)), columns(top.getCandidates().get(0)));
+	}
+
+	@Test
+	void scoresUseTheRequestedModeOnly() throws Exception {
+		MockHttpSession session = session();
+
+		DecompositionSearchResponse exact = service.searchAsync(new DecomposeAllRequest(), 5, session).get();
+		assertTrue(exact.getCandidates().stream().noneMatch(DecompositionSearchResponse.Candidate::isApproximate));
+		assertEquals(Set.of("false:0"), new HashSet<>(modes));
+
+		modes.clear();
+		DecomposeAllRequest monteCarlo = new DecomposeAllRequest();
+		monteCarlo.setMonteCarlo(true);
+		monteCarlo.setSamples(5_000);
+		DecompositionSearchResponse approximate = service.search(monteCarlo, 5, session);
+		assertTrue(approximate.getCandidates().stream().allMatch(DecompositionSearchResponse.Candidate::isApproximate));
+		assertEquals(Set.of("true:5000"), new HashSet<>(modes));
+	}
+
+	private static List<List<Integer>> columns(DecompositionSearchResponse.Candidate candidate) {
+		return candidate.getTables().stream().map(DecomposeRequest::getColumns).collect(Collectors.toList());
+	}
+
+	// A → C and B → C over {A, B, C}, key AB: two BCNF decompositions
+	private MockHttpSession session() {
+		MockHttpSession session = new MockHttpSession();
+		session.setAttribute("originalAttrOrder", List.of("A", "B", "C"));
+		session.setAttribute("originalFDs", List.of(new FD(Set.of("A"), Set.of("C")), new FD(Set.of("B"), Set.of("C"))));
+		session.setAttribute("originalTuples", List.of(List.of("a1", "b1", "c1"), List.of("a2", "b2", "c1")));
+		CompiledSchema.fromSession(session, fdService);
+		return session;
+	}
+}
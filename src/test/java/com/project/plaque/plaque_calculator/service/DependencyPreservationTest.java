@@ -0,0 +1,59 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import com.project.plaque.plaque_calculator.model.EncodedFD;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The polynomial preservation test against the previous approach: project the FDs onto every component
+ * and check that the union of the projections implies every original FD.
+ */
+class DependencyPreservationTest {
+
+	private final SubsetLattice lattice = new SubsetLattice();
+
+	@Test
+	void matchesClosureOverProjectedFds() {
+		Random random = new Random(3);
+		for (int round = 0; round < 2000; round++) {
+			int n = 3 + random.nextInt(6);
+			List<EncodedFD> fds = new ArrayList<>();
+			for (int i = 1 + random.nextInt(6); i > 0; i--) {
+				AttributeSet lhs = random.nextInt(3) == 0
+						? AttributeSet.of(random.nextInt(n), random.nextInt(n))
+						: AttributeSet.of(random.nextInt(n));
+				fds.add(new EncodedFD(lhs, AttributeSet.of(random.nextInt(n))));
+			}
+			List<AttributeSet> components = new ArrayList<>();
+			for (int t = 1 + random.nextInt(4); t > 0; t--) {
+				AttributeSet component = AttributeSet.empty();
+				for (int a = 0; a < n; a++) {
+					if (random.nextInt(2) == 0) component = component.with(a);
+				}
+				components.add(component);
+			}
+			FDClosureIndex index = FDClosureIndex.of(fds, n);
+
+			List<EncodedFD> projected = new ArrayList<>();
+			for (AttributeSet component : components) {
+				projected.addAll(FDProjection.project(component, fds, index::closure, lattice));
+			}
+			FDClosureIndex projectedIndex = FDClosureIndex.of(projected, n);
+			EncodedFD expectedWitness = null;
+			for (EncodedFD fd : fds) {
+				if (!projectedIndex.closure(fd.getLhs()).containsAll(fd.getRhs())) {
+					expectedWitness = fd;
+					break;
+				}
+			}
+
+			DependencyPreservation.Result result = DependencyPreservation.check(fds, components, index::closure);
+			assertEquals(expectedWitness == null, result.preserved(), "components " + components + " of " + fds);
+			assertEquals(expectedWitness, result.witness());
+		}
+	}
+}
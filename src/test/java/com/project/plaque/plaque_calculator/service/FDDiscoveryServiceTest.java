@@ -0,0 +1,128 @@
+package com.project.plaque.plaque_calculator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TANE discovery against brute force on random tables: exact FDs must be exactly the minimal FDs
+ * (constant columns as B → A), approximate ones must stay within the g3 threshold and be minimal,
+ * and stay out of the FD string the form sends to /compute.
+ */
+class FDDiscoveryServiceTest {
+
+	private final FDDiscoveryService discovery = new FDDiscoveryService(new FDService());
+
+	@Test
+	void exactFdsAreTheMinimalFds() {
+		Random random = new Random(23);
+		for (int round = 0; round < 300; round++) {
+			int n = 2 + random.nextInt(5);
+			String[][] table = randomTable(random, n, 1 + random.nextInt(12));
+
+			Set<String> expected = new TreeSet<>();
+			for (long lhs = 0; lhs < (1L << n); lhs++) {
+				for (int a = 0; a < n; a++) {
+					if ((lhs >> a & 1) != 0 || g3(table, lhs, a) > 0) continue;
+					boolean minimal = true;
+					for (long rest = lhs; rest != 0; rest &= rest - 1) {
+						minimal &= g3(table, lhs & ~Long.lowestOneBit(rest), a) > 0;
+					}
+					if (!minimal) continue;
+					if (lhs == 0) {
+						for (int b = 0; b < n; b++) if (b != a) expected.add(format(1L << b, a));
+					} else {
+						expected.add(format(lhs, a));
+					}
+				}
+			}
+
+			FDDiscoveryService.Result result = discovery.discover(encode(table), 0, 10_000);
+			Set<String> actual = new TreeSet<>();
+			result.fds().forEach(fd -> actual.add(fd.format()));
+			assertEquals(expected, actual, "table " + encode(table));
+			assertFalse(result.timedOut());
+		}
+	}
+
+	@Test
+	void approximateFdsStayWithinTheThreshold() {
+		Random random = new Random(29);
+		for (int round = 0; round < 200; round++) {
+			int n = 2 + random.nextInt(4);
+			String[][] table = randomTable(random, n, 4 + random.nextInt(16));
+			double maxError = 0.1 + random.nextInt(3) * 0.1;
+			int maxErrorRows = (int) Math.floor(maxError * table.length + 1e-9);
+
+			for (FDDiscoveryService.DiscoveredFD fd : discovery.discover(encode(table), maxError, 10_000).fds()) {
+				long lhs = 0;
+				for (int a : fd.lhs()) lhs |= 1L << a;
+				int error = g3(table, lhs, fd.rhs());
+				assertTrue(error <= maxErrorRows, fd.format() + " in " + encode(table));
+				assertEquals((double) error / table.length, fd.error(), 1e-9, fd.format() + " in " + encode(table));
+				if (fd.lhs().length > 1) {
+					for (int b : fd.lhs()) {
+						assertTrue(g3(table, lhs & ~(1L << b), fd.rhs()) > maxErrorRows, fd.format() + " is not minimal");
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void outputFeedsTheFdParser() {
+		String table = "1,a,x;2,a,x;3,b,y;4,b,y";
+		FDDiscoveryService.Result result = discovery.discover(table, 0, 10_000);
+		assertEquals("1->2,3;2->3;3->2", result.fdString());
+		assertEquals(3, new FDService().parseFDString(result.fdString()).size());
+	}
+
+	@Test
+	void formOutputHoldsOnTheData() {
+		// 2 → 3 holds on all rows but the last one
+		String table = "1,a,x;2,a,x;3,a,x;4,b,y;5,b,y;6,b,z";
+		FDDiscoveryService.Result result = discovery.discover(table, 0.2, 10_000);
+
+		assertTrue(result.approximateFds().stream().anyMatch(fd -> fd.format().equals("2->3")));
+		assertFalse(result.fdString().contains("2->3"));
+		assertTrue(new FDValidator().validate(table, result.fdString()).isValid(), result.fdString());
+	}
+
+	private String[][] randomTable(Random random, int n, int rows) {
+		String[][] table = new String[rows][n];
+		for (int r = 0; r < rows; r++) {
+			for (int c = 0; c < n; c++) table[r][c] = "v" + random.nextInt(c == 0 ? 2 : 3);
+		}
+		return table;
+	}
+
+	// Rows to remove so that lhs → a holds: per LHS group, all but the most frequent RHS value
+	private int g3(String[][] table, long lhs, int a) {
+		Map<String, Map<String, Integer>> groups = new HashMap<>();
+		for (String[] row : table) {
+			StringBuilder key = new StringBuilder();
+			for (int c = 0; c < row.length; c++) if ((lhs >> c & 1) != 0) key.append(row[c]).append('|');
+			groups.computeIfAbsent(key.toString(), k -> new HashMap<>()).merge(row[a], 1, Integer::sum);
+		}
+		int error = 0;
+		for (Map<String, Integer> counts : groups.values()) {
+			int total = counts.values().stream().mapToInt(Integer::intValue).sum();
+			error += total - Collections.max(counts.values());
+		}
+		return error;
+	}
+
+	private String format(long lhs, int a) {
+		StringJoiner text = new StringJoiner(",");
+		for (long rest = lhs; rest != 0; rest &= rest - 1) text.add(String.valueOf(Long.numberOfTrailingZeros(rest) + 1));
+		return text + "->" + (a + 1);
+	}
+
+	private String encode(String[][] table) {
+		StringJoiner rows = new StringJoiner(";");
+		for (String[] row : table) rows.add(String.join(",", row));
+		return rows.toString();
+	}
+}
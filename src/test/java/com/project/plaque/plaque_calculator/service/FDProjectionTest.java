@@ -0,0 +1,139 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import com.project.plaque.plaque_calculator.model.EncodedFD;
+import com.project.plaque.plaque_calculator.model.FD;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * FDProjection against the full subset enumeration with LHS minimization on small random schemas,
+ * and on a 40-attribute schema the enumeration cannot handle. Incremental projections (one attribute
+ * added or removed at a time) against projections from scratch. A nested relation compiled from its
+ * parent's projection has the same FDs as when projected from the input.
+ */
+class FDProjectionTest {
+
+	private final SubsetLattice lattice = new SubsetLattice();
+
+	@Test
+	void matchesSubsetEnumerationWithMinimization() {
+		Random random = new Random(11);
+		for (int round = 0; round < 1500; round++) {
+			int attributeCount = 3 + random.nextInt(8);
+			List<EncodedFD> fds = new ArrayList<>();
+			for (int i = 1 + random.nextInt(8); i > 0; i--) {
+				AttributeSet lhs = random.nextInt(3) == 0
+						? AttributeSet.of(random.nextInt(attributeCount), random.nextInt(attributeCount))
+						: AttributeSet.of(random.nextInt(attributeCount));
+				fds.add(new EncodedFD(lhs, AttributeSet.of(random.nextInt(attributeCount))));
+			}
+			FDClosureIndex index = FDClosureIndex.of(fds, attributeCount);
+			AttributeSet relation = AttributeSet.range(attributeCount - random.nextInt(3));
+
+			List<EncodedFD> projected = FDProjection.project(relation, fds, index::closure, lattice);
+			assertEquals(bruteForce(relation, index), projected, "projection of " + fds + " onto " + relation);
+		}
+	}
+
+	@Test
+	void projectsWideSchemas() {
+		// Chain A0 → A1 → ... → A39 (beyond the 31 attributes an int mask can hold)
+		int attributeCount = 40;
+		List<EncodedFD> fds = new ArrayList<>();
+		for (int i = 0; i + 1 < attributeCount; i++) {
+			fds.add(new EncodedFD(AttributeSet.of(i), AttributeSet.of(i + 1)));
+		}
+		FDClosureIndex index = FDClosureIndex.of(fds, attributeCount);
+
+		List<EncodedFD> projected = FDProjection.project(AttributeSet.range(attributeCount), fds, index::closure, lattice);
+		// Every attribute determines all later ones by itself
+		assertEquals(attributeCount * (attributeCount - 1) / 2, projected.size());
+		for (EncodedFD fd : projected) {
+			assertEquals(1, fd.getLhs().size());
+			assertTrue(fd.getLhs().nextSetBit(0) < fd.getRhs().nextSetBit(0));
+		}
+	}
+
+	@Test
+	void incrementalProjectionMatchesProjectionFromScratch() {
+		Random random = new Random(41);
+		for (int round = 0; round < 300; round++) {
+			int attributeCount = 3 + random.nextInt(8);
+			List<EncodedFD> fds = new ArrayList<>();
+			for (int i = 1 + random.nextInt(8); i > 0; i--) {
+				AttributeSet lhs = random.nextInt(3) == 0
+						? AttributeSet.of(random.nextInt(attributeCount), random.nextInt(attributeCount))
+						: AttributeSet.of(random.nextInt(attributeCount));
+				fds.add(new EncodedFD(lhs, AttributeSet.of(random.nextInt(attributeCount))));
+			}
+			FDClosureIndex index = FDClosureIndex.of(fds, attributeCount);
+			IncrementalProjection incremental = new IncrementalProjection(fds, index::closure, lattice, attributeCount);
+
+			// Random walk: one column dragged in or out per step
+			AttributeSet relation = AttributeSet.of(random.nextInt(attributeCount));
+			for (int step = 0; step < 20; step++) {
+				assertEquals(FDProjection.project(relation, fds, index::closure, lattice), incremental.project(relation),
+						"projection of " + fds + " onto " + relation);
+				int a = random.nextInt(attributeCount);
+				relation = relation.contains(a) ? relation.without(a) : relation.with(a);
+			}
+			assertTrue(incremental.fullCount() <= 2, "walk should be derived incrementally");
+		}
+	}
+
+	@Test
+	void nestedProjectionMatchesProjectionOfTheInput() {
+		FDService fdService = new FDService();
+		Random random = new Random(53);
+		for (int round = 0; round < 300; round++) {
+			int attributeCount = 3 + random.nextInt(8);
+			List<String> attrs = new ArrayList<>();
+			for (int i = 0; i < attributeCount; i++) attrs.add("A" + i);
+			List<FD> fds = new ArrayList<>();
+			for (int i = 1 + random.nextInt(8); i > 0; i--) {
+				Set<String> lhs = new HashSet<>(List.of(attrs.get(random.nextInt(attributeCount))));
+				if (random.nextInt(3) == 0) lhs.add(attrs.get(random.nextInt(attributeCount)));
+				fds.add(new FD(lhs, Set.of(attrs.get(random.nextInt(attributeCount)))));
+			}
+			CompiledSchema input = fdService.compile(attrs, fds);
+
+			// Drop one attribute per level, each level compiled from the previous one
+			CompiledSchema nested = input;
+			List<String> scope = new ArrayList<>(attrs);
+			while (scope.size() > 1) {
+				scope.remove(random.nextInt(scope.size()));
+				nested = nested.project(scope, fdService);
+				assertEquals(new HashSet<>(input.project(scope, fdService).originalFds()),
+						new HashSet<>(nested.originalFds()), "projection of " + fds + " onto " + scope);
+			}
+		}
+	}
+
+	// Every subset X, RHS (X+ ∩ R) \ X, LHS reduced while a smaller set still determines the attribute
+	private List<EncodedFD> bruteForce(AttributeSet relation, FDClosureIndex index) {
+		int n = relation.size();
+		Set<EncodedFD> out = new LinkedHashSet<>();
+		for (int mask = 1; mask < (1 << n); mask++) {
+			AttributeSet x = AttributeSet.fromWords(new long[]{mask});
+			AttributeSet rhs = index.closure(x).intersect(relation).minus(x);
+			for (int a : rhs.toArray()) {
+				AttributeSet lhs = x;
+				for (int b : x.toArray()) {
+					if (lhs.size() > 1 && index.closure(lhs.without(b)).contains(a)) {
+						lhs = lhs.without(b);
+					}
+				}
+				out.add(new EncodedFD(lhs, AttributeSet.of(a)));
+			}
+		}
+		List<EncodedFD> sorted = new ArrayList<>(out);
+		sorted.sort(Comparator.comparingLong((EncodedFD fd) -> fd.getLhs().toWords(1)[0])
+				.thenComparingInt(fd -> fd.getRhs().nextSetBit(0)));
+		return sorted;
+	}
+}
@@ -0,0 +1,68 @@
+package com.project.plaque.plaque_calculator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Violations name the first offending row pair and column, FDs with the same LHS share one partition,
+ * at most ten violations are reported, and input the engine rejects itself passes as valid.
+ */
+class FDValidatorTest {
+
+	private final FDValidator validator = new FDValidator();
+
+	@Test
+	void reportsTheOffendingRowsAndColumn() {
+		FDValidator.ValidationResult result = validator.validate("a,1,x;b,2,y;a,1,z;b,2,y", "1->2;1,2->3");
+
+		assertFalse(result.isValid());
+		assertEquals(1, result.violations().size());
+		FDValidator.Violation violation = result.violations().get(0);
+		assertEquals("1,2->3", violation.fd());
+		assertEquals(1, violation.firstRow());
+		assertEquals(3, violation.secondRow());
+		assertEquals(3, violation.column());
+		assertEquals("x", violation.firstValue());
+		assertEquals("z", violation.secondValue());
+	}
+
+	@Test
+	void fdsWithTheSameLhsShareOnePartition() {
+		FDValidator.ValidationResult result = validator.validate("a,1,x,p;a,1,x,p;b,2,y,q", "1->2;1->3;1->4;2,1->3;1,2->4");
+
+		assertTrue(result.isValid(), result.explanation());
+		assertEquals(5, result.checkedFds());
+		// {1} and {1,2} (written as "2,1" and "1,2")
+		assertEquals(2, result.partitions());
+	}
+
+	@Test
+	void capsTheReportedViolations() {
+		// Column 1 is constant, every other column differs between the two rows
+		StringBuilder first = new StringBuilder("k");
+		StringBuilder second = new StringBuilder("k");
+		List<String> fds = new ArrayList<>();
+		for (int c = 2; c <= 15; c++) {
+			first.append(",a").append(c);
+			second.append(",b").append(c);
+			fds.add("1->" + c);
+		}
+		FDValidator.ValidationResult result = validator.validate(first + ";" + second, String.join(";", fds));
+
+		assertEquals(10, result.violations().size());
+	}
+
+	@Test
+	void uninterpretableInputIsLeftToTheEngine() {
+		assertTrue(validator.validate("a,b;c", "1->2").isValid());
+		assertTrue(validator.validate("", "1->2").isValid());
+		assertTrue(validator.validate(null, null).isValid());
+		assertTrue(validator.validate("a,b;a,c", "").isValid());
+		// Cell values are not column names: "a" is left to the engine's format check
+		assertTrue(validator.validate("a,b;a,c", "a->2").isValid());
+	}
+}
@@ -0,0 +1,59 @@
+package com.project.plaque.plaque_calculator.service;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * RicEngine stand-in for the engine tests: answers with a fixed matrix after a delay, or fails.
+ */
+class FakeRicEngine implements RicEngine {
+
+	private final String name;
+	private final long delayMillis;
+	private final double[][] result;
+	private volatile boolean available = true;
+	private volatile boolean failing;
+	private final AtomicInteger calls = new AtomicInteger();
+
+	FakeRicEngine(String name, long delayMillis, double[][] result) {
+		this.name = name;
+		this.delayMillis = delayMillis;
+		this.result = result;
+	}
+
+	FakeRicEngine unavailable() {
+		available = false;
+		return this;
+	}
+
+	FakeRicEngine failing() {
+		failing = true;
+		return this;
+	}
+
+	int calls() {
+		return calls.get();
+	}
+
+	@Override
+	public String name() {
+		return name;
+	}
+
+	@Override
+	public boolean isAvailable(Path ricJar) {
+		return available;
+	}
+
+	@Override
+	public double[][] compute(Request request) {
+		calls.incrementAndGet();
+		try {
+			Thread.sleep(delayMillis);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		if (failing) throw new IllegalStateException(name + " failed");
+		return result;
+	}
+}
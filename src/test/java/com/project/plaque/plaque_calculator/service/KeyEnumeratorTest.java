@@ -0,0 +1,61 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import com.project.plaque.plaque_calculator.model.FD;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Candidate keys from the Lucchesi–Osborn enumeration against all minimal superkeys found by brute force,
+ * including FDs that mention attributes outside the relation.
+ */
+class KeyEnumeratorTest {
+
+	private final FDService fdService = new FDService();
+
+	@Test
+	void matchesMinimalSuperkeys() {
+		Random random = new Random(17);
+		for (int round = 0; round < 1500; round++) {
+			int attributeCount = 2 + random.nextInt(8);
+			List<FD> fds = new ArrayList<>();
+			for (int i = 1 + random.nextInt(7); i > 0; i--) {
+				Set<String> lhs = new HashSet<>();
+				for (int k = 1 + random.nextInt(2); k > 0; k--) lhs.add("A" + random.nextInt(attributeCount + 1));
+				fds.add(new FD(lhs, Set.of("A" + random.nextInt(attributeCount + 1))));
+			}
+			// A<attributeCount> is outside the relation
+			List<String> attributes = new ArrayList<>();
+			for (int a = 0; a < attributeCount; a++) attributes.add("A" + a);
+
+			CompiledSchema schema = fdService.compile(attributes, fds);
+			List<AttributeSet> expected = bruteForceKeys(schema);
+			assertEquals(expected, schema.candidateKeys(), "keys of " + attributes + " under " + fds);
+
+			AttributeSet prime = AttributeSet.empty();
+			for (AttributeSet key : expected) prime = prime.union(key);
+			for (int a = 0; a < attributeCount; a++) {
+				assertEquals(prime.contains(a), fdService.compile(attributes, fds).isPrime(a));
+			}
+		}
+	}
+
+	private List<AttributeSet> bruteForceKeys(CompiledSchema schema) {
+		int n = schema.relation().size();
+		List<AttributeSet> keys = new ArrayList<>();
+		for (int mask = 0; mask < (1 << n); mask++) {
+			AttributeSet x = AttributeSet.ofMask(mask);
+			if (!schema.isSuperkey(x)) continue;
+			boolean minimal = true;
+			for (int a : x.toArray()) {
+				minimal &= !schema.isSuperkey(x.without(a));
+			}
+			if (minimal) keys.add(x);
+		}
+		keys.sort(Comparator.comparingInt(AttributeSet::size).thenComparing((a, b) -> Arrays.compare(a.toArray(), b.toArray())));
+		return keys;
+	}
+}
@@ -0,0 +1,74 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import com.project.plaque.plaque_calculator.model.FD;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The single-pass analysis against the separate level checks on fresh schemas, the polynomial BCNF test
+ * against all subsets, and every reported witness against the definition of the level it violates.
+ */
+class NormalFormAnalysisTest {
+
+	private final FDService fdService = new FDService();
+	private final NormalFormChecker checker = new NormalFormChecker(fdService);
+
+	@Test
+	void matchesSeparateChecks() {
+		Random random = new Random(11);
+		for (int round = 0; round < 1500; round++) {
+			int attributeCount = 2 + random.nextInt(7);
+			List<FD> fds = new ArrayList<>();
+			for (int i = 1 + random.nextInt(6); i > 0; i--) {
+				Set<String> lhs = new HashSet<>();
+				for (int k = 1 + random.nextInt(2); k > 0; k--) lhs.add("A" + random.nextInt(attributeCount));
+				fds.add(new FD(lhs, Set.of("A" + random.nextInt(attributeCount))));
+			}
+			List<String> attributes = new ArrayList<>();
+			for (int a = 0; a < attributeCount; a++) attributes.add("A" + a);
+
+			CompiledSchema schema = fdService.compile(attributes, fds);
+			NormalFormAnalysis analysis = checker.analyze(schema);
+			String context = attributes + " under " + fds;
+
+			boolean bcnf = checker.isBCNFComprehensive(fdService.compile(attributes, fds));
+			boolean thirdNf = checker.is3NF(fdService.compile(attributes, fds));
+			boolean secondNf = checker.is2NF(fdService.compile(attributes, fds));
+			assertEquals(bruteForceBCNF(schema), bcnf, context);
+			String expected = bcnf ? "BCNF" : thirdNf ? "3NF" : secondNf ? "2NF" : "1NF";
+			assertEquals(expected, analysis.normalForm(), context);
+			assertSame(analysis, checker.analyze(schema), "analysis is cached in the schema");
+
+			assertEquals(bcnf, analysis.bcnfViolation() == null, context);
+			if (analysis.bcnfViolation() != null) {
+				AttributeSet lhs = schema.dictionary().encode(analysis.bcnfViolation().getLhs());
+				AttributeSet rhs = schema.dictionary().encode(analysis.bcnfViolation().getRhs());
+				assertFalse(schema.isSuperkey(lhs), context);
+				assertTrue(schema.closure(lhs).containsAll(rhs) && !lhs.containsAll(rhs), context);
+			}
+			if (analysis.thirdNfViolation() != null) {
+				assertFalse(thirdNf, context);
+				AttributeSet lhs = schema.dictionary().encode(analysis.thirdNfViolation().getLhs());
+				AttributeSet rhs = schema.dictionary().encode(analysis.thirdNfViolation().getRhs());
+				assertFalse(schema.isSuperkey(lhs), context);
+				assertFalse(schema.primeAttributes().containsAll(rhs.minus(lhs)), context);
+			}
+			if (analysis.secondNfViolation() != null) {
+				assertFalse(secondNf, context);
+			}
+		}
+	}
+
+	private boolean bruteForceBCNF(CompiledSchema schema) {
+		for (int mask = 1; mask < (1 << schema.relation().size()); mask++) {
+			AttributeSet x = AttributeSet.ofMask(mask);
+			AttributeSet implied = schema.closure(x).intersect(schema.relation()).minus(x);
+			if (!implied.isEmpty() && !schema.isSuperkey(x)) return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,109 @@
+package com.project.plaque.plaque_calculator.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A reconnect replays the events after its Last-Event-ID, evicted events are announced instead of replayed,
+ * and a client that stalls while receiving does not block the stream for others.
+ */
+class ProgressStreamRegistryTest {
+
+	private static final Pattern ID = Pattern.compile("(?m)^id:(\\d+)$");
+
+	private final ProgressStreamRegistry registry = new ProgressStreamRegistry();
+
+	@Test
+	void replaysTheEventsAfterTheLastEventId() {
+		ProgressStreamRegistry.ProgressStream stream = registry.open("compute:s1");
+		for (int i = 1; i <= 5; i++) stream.emit("progress", Map.of("message", "step " + i));
+
+		RecordingEmitter reconnect = new RecordingEmitter();
+		stream.attach(reconnect, ProgressStreamRegistry.parseLastEventId("3"));
+		stream.emit("progress", Map.of("message", "step 6"));
+
+		assertEquals(List.of(4L, 5L, 6L), reconnect.ids);
+		assertSame(stream, registry.find("compute:s1"));
+	}
+
+	@Test
+	void evictedEventsAreAnnounced() {
+		ProgressStreamRegistry.ProgressStream stream = registry.open("compute:s1");
+		for (int i = 1; i <= 300; i++) stream.emit("progress", Map.of("message", "step " + i));
+		stream.finish();
+
+		RecordingEmitter reconnect = new RecordingEmitter();
+		stream.attach(reconnect, 10);
+
+		// The ring buffer keeps the last 256 events: 45..300
+		assertTrue(reconnect.texts.get(0).contains("no longer available"));
+		assertEquals(256, reconnect.ids.size());
+		assertEquals(45L, reconnect.ids.get(0));
+		assertEquals(300L, reconnect.ids.get(255));
+	}
+
+	@Test
+	void stalledClientDoesNotBlockTheStream() throws Exception {
+		ProgressStreamRegistry.ProgressStream stream = registry.open("compute:s1");
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingEmitter stalled = new RecordingEmitter(release);
+		stream.attach(stalled, 0);
+
+		ExecutorService worker = Executors.newSingleThreadExecutor();
+		try {
+			Future<?> emitting = worker.submit(() -> stream.emit("progress", Map.of("message", "step 1")));
+			Thread.sleep(100);
+			assertFalse(emitting.isDone(), "the emit should be waiting on the stalled client");
+
+			// The stream's lock is free: other clients attach and replay meanwhile
+			RecordingEmitter other = new RecordingEmitter();
+			CompletableFuture.runAsync(() -> stream.attach(other, 0)).get(2, TimeUnit.SECONDS);
+			assertEquals(List.of(1L), other.ids);
+			assertFalse(stream.isFinished());
+
+			release.countDown();
+			emitting.get(2, TimeUnit.SECONDS);
+			assertEquals(List.of(1L), stalled.ids);
+		} finally {
+			release.countDown();
+			worker.shutdownNow();
+		}
+	}
+
+	// Records the id and text of every event, optionally blocking in send until released
+	private static final class RecordingEmitter extends SseEmitter {
+		final List<Long> ids = new CopyOnWriteArrayList<>();
+		final List<String> texts = new CopyOnWriteArrayList<>();
+		private final CountDownLatch release;
+
+		RecordingEmitter() {
+			this(new CountDownLatch(0));
+		}
+
+		RecordingEmitter(CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) {
+			try {
+				release.await();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			StringBuilder text = new StringBuilder();
+			for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) text.append(part.getData());
+			texts.add(text.toString());
+			Matcher id = ID.matcher(text);
+			if (id.find()) ids.add(Long.parseLong(id.group(1)));
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package com.project.plaque.plaque_calculator.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sampled exact requests are recomputed on the reference engine; differences within the tolerance pass,
+ * larger ones count as disagreements. Monte Carlo, low-priority and unsampled requests are never recomputed.
+ */
+class RicDifferentialCheckerTest {
+
+	private static final double[][] PRIMARY = {{1.0, 0.5}, {0.25, 1.0}};
+
+	private final FakeRicEngine subprocess = new FakeRicEngine(SubprocessRicEngine.NAME, 0, PRIMARY);
+	private RicDifferentialChecker checker;
+
+	@AfterEach
+	void shutdown() {
+		if (checker != null) checker.shutdown();
+	}
+
+	@Test
+	void differencesWithinTheToleranceAgree() throws Exception {
+		FakeRicEngine pooled = new FakeRicEngine("pooled", 0, new double[][]{{1.0, 0.5 + 1e-12}, {0.25, 1.0}});
+		checker = checker(pooled, 1.0);
+
+		checker.maybeVerify(pooled, request(false, false), PRIMARY);
+		awaitChecked(1);
+		assertEquals(0, checker.getDisagreements());
+	}
+
+	@Test
+	void largerDifferencesAreDisagreements() throws Exception {
+		FakeRicEngine pooled = new FakeRicEngine("pooled", 0, PRIMARY);
+		checker = checker(pooled, 1.0);
+
+		checker.maybeVerify(pooled, request(false, false), new double[][]{{1.0, 0.4}, {0.25, 1.0}});
+		awaitChecked(1);
+		checker.maybeVerify(pooled, request(false, false), new double[][]{{1.0}});
+		awaitChecked(2);
+		assertEquals(2, checker.getDisagreements());
+	}
+
+	@Test
+	void onlySampledExactRequestsAreRecomputed() throws Exception {
+		FakeRicEngine pooled = new FakeRicEngine("pooled", 0, PRIMARY);
+		checker = checker(pooled, 1.0);
+		checker.maybeVerify(pooled, request(true, false), PRIMARY);
+		checker.maybeVerify(pooled, request(false, true), PRIMARY);
+
+		RicDifferentialChecker never = checker(pooled, 0.0);
+		never.maybeVerify(pooled, request(false, false), PRIMARY);
+		never.shutdown();
+
+		Thread.sleep(100);
+		assertEquals(0, subprocess.calls());
+		assertEquals(0, checker.getChecked());
+	}
+
+	@Test
+	void failingReferenceIsCountedApart() throws Exception {
+		FakeRicEngine pooled = new FakeRicEngine("pooled", 0, PRIMARY);
+		subprocess.failing();
+		checker = checker(pooled, 1.0);
+
+		checker.maybeVerify(pooled, request(false, false), PRIMARY);
+		for (int i = 0; i < 500 && checker.getFailures() == 0; i++) Thread.sleep(10);
+		assertEquals(1, checker.getFailures());
+		assertEquals(0, checker.getDisagreements());
+	}
+
+	private RicDifferentialChecker checker(FakeRicEngine pooled, double sampleRate) {
+		RicEngineSelector selector = new RicEngineSelector(List.of(subprocess, pooled), "pooled", "subprocess,pooled");
+		return new RicDifferentialChecker(selector, sampleRate, 1e-9);
+	}
+
+	private RicEngine.Request request(boolean monteCarlo, boolean lowPriority) {
+		return new RicEngine.Request(Path.of("ric.jar"), "1,2;3,4", List.of("1->2"), 10, monteCarlo, 1000, lowPriority);
+	}
+
+	private void awaitChecked(long count) throws InterruptedException {
+		for (int i = 0; i < 500 && checker.getChecked() < count; i++) Thread.sleep(10);
+		assertEquals(count, checker.getChecked());
+	}
+}
@@ -0,0 +1,64 @@
+package com.project.plaque.plaque_calculator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Calibration records the fastest engine for every size class, skips a failing engine, and does nothing
+ * with a single candidate.
+ */
+class RicEngineCalibratorTest {
+
+	private final RicService ricService = new RicService(null, null, null) {
+		@Override
+		public Path getRicJar() {
+			return Path.of("ric.jar");
+		}
+	};
+
+	@Test
+	void fastestEngineWinsEverySizeClass() {
+		FakeRicEngine subprocess = new FakeRicEngine(SubprocessRicEngine.NAME, 15, new double[0][]);
+		FakeRicEngine pooled = new FakeRicEngine("pooled", 0, new double[0][]);
+		RicEngineSelector selector = selector(subprocess, pooled);
+
+		new RicEngineCalibrator(ricService, selector, true, 1).calibrate();
+
+		assertEquals(Map.of(RicEngineSelector.SizeClass.SMALL, "pooled",
+				RicEngineSelector.SizeClass.MEDIUM, "pooled",
+				RicEngineSelector.SizeClass.LARGE, "pooled"), selector.calibration());
+		// One warm-up and one timed run per size class
+		assertEquals(6, pooled.calls());
+	}
+
+	@Test
+	void failingEngineIsNotChosen() {
+		FakeRicEngine subprocess = new FakeRicEngine(SubprocessRicEngine.NAME, 15, new double[0][]);
+		FakeRicEngine pooled = new FakeRicEngine("pooled", 0, new double[0][]).failing();
+		RicEngineSelector selector = selector(subprocess, pooled);
+
+		new RicEngineCalibrator(ricService, selector, true, 1).calibrate();
+
+		assertTrue(selector.calibration().values().stream().allMatch(SubprocessRicEngine.NAME::equals));
+	}
+
+	@Test
+	void singleCandidateIsNotCalibrated() {
+		FakeRicEngine subprocess = new FakeRicEngine(SubprocessRicEngine.NAME, 0, new double[0][]);
+		RicEngineSelector selector = selector(subprocess, new FakeRicEngine("pooled", 0, new double[0][]).unavailable());
+
+		new RicEngineCalibrator(ricService, selector, true, 1).calibrate();
+
+		assertTrue(selector.calibration().isEmpty());
+		assertEquals(0, subprocess.calls());
+	}
+
+	private RicEngineSelector selector(RicEngine... engines) {
+		return new RicEngineSelector(List.of(engines), "auto", "subprocess,pooled");
+	}
+}
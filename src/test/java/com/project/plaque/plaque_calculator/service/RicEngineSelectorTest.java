@@ -0,0 +1,62 @@
+package com.project.plaque.plaque_calculator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Engine choice per table-size class, the subprocess fallback, pinned engines, and the in-process engine
+ * never being a calibration candidate.
+ */
+class RicEngineSelectorTest {
+
+	private static final Path JAR = Path.of("ric.jar");
+	private static final String SMALL_TABLE = "1,2;3,4";
+	private static final String LARGE_TABLE = "1,2,3,4,5,6,7,8;".repeat(100);
+
+	private final FakeRicEngine subprocess = new FakeRicEngine(SubprocessRicEngine.NAME, 0, new double[0][]);
+	private final FakeRicEngine pooled = new FakeRicEngine("pooled", 0, new double[0][]);
+	private final FakeRicEngine inProcess = new FakeRicEngine(InProcessRicEngine.NAME, 0, new double[0][]);
+
+	@Test
+	void calibratedEnginePerSizeClass() {
+		RicEngineSelector selector = new RicEngineSelector(List.of(subprocess, pooled, inProcess), "auto",
+				"subprocess,pooled");
+		assertSame(subprocess, selector.select(request(SMALL_TABLE)));
+
+		selector.recordCalibration(RicEngineSelector.SizeClass.SMALL, "pooled");
+		assertSame(pooled, selector.select(request(SMALL_TABLE)));
+		assertSame(subprocess, selector.select(request(LARGE_TABLE)));
+		assertEquals(RicEngineSelector.SizeClass.LARGE, RicEngineSelector.SizeClass.of(LARGE_TABLE));
+
+		pooled.unavailable();
+		assertSame(subprocess, selector.select(request(SMALL_TABLE)));
+	}
+
+	@Test
+	void pinnedEngineIgnoresCalibration() {
+		RicEngineSelector selector = new RicEngineSelector(List.of(subprocess, pooled, inProcess), "inprocess",
+				"subprocess,pooled");
+		selector.recordCalibration(RicEngineSelector.SizeClass.SMALL, "pooled");
+
+		assertFalse(selector.isAutomatic());
+		assertSame(inProcess, selector.select(request(SMALL_TABLE)));
+	}
+
+	@Test
+	void inProcessEngineIsNeverACandidate() {
+		RicEngineSelector selector = new RicEngineSelector(List.of(subprocess, pooled, inProcess), "auto",
+				"inprocess,pooled");
+
+		assertEquals(List.of(subprocess, pooled), selector.calibrationCandidates(JAR));
+		assertSame(pooled, selector.reference(subprocess, JAR));
+		assertSame(subprocess, selector.reference(pooled, JAR));
+	}
+
+	private RicEngine.Request request(String table) {
+		return new RicEngine.Request(JAR, table, List.of("1->2"), 10, false, 0, false);
+	}
+}
@@ -0,0 +1,92 @@
+package com.project.plaque.plaque_calculator.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark for the RIC child JVM launch: spawn-to-first-output latency of a plain "java -jar" launch
+ * compared to a launch with the RicLaunchProfile flags and its AppCDS archive.
+ * Only runs when requested explicitly (needs a JDK that can execute the RIC jar):
+ * mvn test -Dtest=RicLaunchBenchmark -Dric.benchmark=true [-Dric.benchmark.runs=15]
+ */
+@EnabledIfSystemProperty(named = "ric.benchmark", matches = "true")
+class RicLaunchBenchmark {
+
+	private static final String SAMPLE_TABLE = "A,B,C;1,2,3;1,2,4;2,3,4;2,3,5";
+
+	@Test
+	void spawnToFirstOutputLatency() throws Exception {
+		Path jar = Paths.get(System.getProperty("ric.jar.path",
+				"libs/relational_information_content-1.0-SNAPSHOT-jar-with-dependencies.jar"));
+		assertTrue(Files.exists(jar), "RIC jar not found at " + jar.toAbsolutePath());
+		int runs = Integer.getInteger("ric.benchmark.runs", 10);
+
+		Path archive = Files.createTempDirectory("ric-cds-bench").resolve("bench.jsa");
+		RicLaunchProfile profile = new RicLaunchProfile(true, archive.toString(),
+				"64m", "", "SerialGC", "1", 10, "-XX:-UsePerfData");
+
+		// Training run that dumps the archive
+		RicLaunchProfile.LaunchPlan training = profile.plan(jar, true);
+		assertTrue(training.isTrainingRun(), "first launch should dump the CDS archive");
+		long trainingMs = firstOutputMillis(training.command(), true);
+		training.finish(true);
+
+		List<String> plain = List.of(RicLaunchProfile.javaExecutable(), "-jar", jar.toAbsolutePath().toString());
+		long[] before = new long[runs];
+		long[] after = new long[runs];
+		for (int i = 0; i < runs; i++) {
+			before[i] = firstOutputMillis(plain, false);
+			RicLaunchProfile.LaunchPlan plan = profile.plan(jar, true);
+			after[i] = firstOutputMillis(plan.command(), false);
+			plan.finish(true);
+		}
+
+		System.out.println(String.format(Locale.US, "[RIC benchmark] training run (archive dump): %d ms", trainingMs));
+		System.out.println(String.format(Locale.US, "[RIC benchmark] plain java -jar      : median %d ms, min %d ms",
+				median(before), Arrays.stream(before).min().orElse(0)));
+		System.out.println(String.format(Locale.US, "[RIC benchmark] profile + AppCDS     : median %d ms, min %d ms",
+				median(after), Arrays.stream(after).min().orElse(0)));
+	}
+
+	// Time from ProcessBuilder.start() until the first line on stdout, the process is then drained to completion
+	private long firstOutputMillis(List<String> commandPrefix, boolean waitForExit) throws Exception {
+		Path out = Files.createTempFile("ric-bench-", ".csv");
+		List<String> command = new ArrayList<>(commandPrefix);
+		command.addAll(List.of(SAMPLE_TABLE, "-e", "--closure", "--name", out.toAbsolutePath().toString(), "-i", "-s"));
+		ProcessBuilder pb = new ProcessBuilder(command).redirectErrorStream(true);
+		long start = System.nanoTime();
+		Process process = pb.start();
+		long firstOutput = -1;
+		try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				if (firstOutput < 0 && !line.isBlank()) {
+					firstOutput = (System.nanoTime() - start) / 1_000_000;
+				}
+			}
+		}
+		if (waitForExit || process.isAlive()) {
+			process.waitFor();
+		}
+		Files.deleteIfExists(out);
+		return firstOutput;
+	}
+
+	private long median(long[] values) {
+		long[] copy = values.clone();
+		Arrays.sort(copy);
+		return copy[copy.length / 2];
+	}
+}
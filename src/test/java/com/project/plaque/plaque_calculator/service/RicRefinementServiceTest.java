@@ -0,0 +1,118 @@
+package com.project.plaque.plaque_calculator.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Scheduling, cancellation and the pending state of background refinements with a RicService stub that blocks
+ * until released. The queue is bounded, and refinements that waited longer than the session timeout are dropped.
+ */
+class RicRefinementServiceTest {
+
+	private static final double[][] EXACT = {{1.0}};
+
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final AtomicInteger started = new AtomicInteger();
+	private final ProgressStreamRegistry streams = new ProgressStreamRegistry();
+	private final RicService ricService = new RicService(null, null, null) {
+		@Override
+		public double[][] computeExactLowPriority(String manualEncoded, String topLevelFds, int timeLimitSeconds) {
+			started.incrementAndGet();
+			try {
+				release.await();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("interrupted", ex);
+			}
+			return EXACT;
+		}
+	};
+	private RicRefinementService service;
+
+	@AfterEach
+	void shutdown() {
+		release.countDown();
+		if (service != null) service.shutdown();
+	}
+
+	@Test
+	void scheduledRefinementDeliversTheExactMatrix() throws Exception {
+		service = service(1, 4, Duration.ofMinutes(30));
+		CompletableFuture<double[][]> delivered = new CompletableFuture<>();
+
+		assertTrue(service.schedule("s1", "a,b", "1->2", delivered::complete));
+		assertTrue(service.isPending("s1"));
+		release.countDown();
+
+		assertSame(EXACT, delivered.get(5, TimeUnit.SECONDS));
+		awaitNotPending("s1");
+		assertTrue(streams.find(RicRefinementService.streamKey("s1")).isFinished());
+	}
+
+	@Test
+	void cancelStopsTheRefinement() throws Exception {
+		service = service(1, 4, Duration.ofMinutes(30));
+		CompletableFuture<double[][]> delivered = new CompletableFuture<>();
+
+		assertTrue(service.schedule("s1", "a,b", "1->2", delivered::complete));
+		awaitStarted(1);
+		service.cancel("s1");
+
+		assertFalse(service.isPending("s1"));
+		assertTrue(streams.find(RicRefinementService.streamKey("s1")).isFinished());
+		release.countDown();
+		assertThrows(TimeoutException.class, () -> delivered.get(200, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	void fullQueueRefusesFurtherSessions() throws Exception {
+		service = service(1, 1, Duration.ofMinutes(30));
+
+		assertTrue(service.schedule("s1", "a,b", "1->2", exact -> { }));
+		awaitStarted(1);
+		assertTrue(service.schedule("s2", "a,b", "1->2", exact -> { }));
+		assertFalse(service.schedule("s3", "a,b", "1->2", exact -> { }));
+		assertFalse(service.isPending("s3"));
+
+		// Cancelling the queued refinement frees its place
+		service.cancel("s2");
+		assertTrue(service.schedule("s3", "a,b", "1->2", exact -> { }));
+	}
+
+	@Test
+	void refinementOlderThanTheSessionIsDropped() throws Exception {
+		service = service(1, 4, Duration.ofMillis(100));
+		CompletableFuture<double[][]> delivered = new CompletableFuture<>();
+
+		assertTrue(service.schedule("s1", "a,b", "1->2", exact -> { }));
+		awaitStarted(1);
+		assertTrue(service.schedule("s2", "a,b", "1->2", delivered::complete));
+		Thread.sleep(300);
+		release.countDown();
+
+		awaitNotPending("s2");
+		assertEquals(1, started.get());
+		assertFalse(delivered.isDone());
+		assertTrue(streams.find(RicRefinementService.streamKey("s2")).isFinished());
+	}
+
+	private RicRefinementService service(int parallelism, int queueCapacity, Duration sessionTimeout) {
+		return new RicRefinementService(ricService, streams, true, 60, parallelism, queueCapacity, sessionTimeout);
+	}
+
+	private void awaitStarted(int count) throws InterruptedException {
+		for (int i = 0; i < 500 && started.get() < count; i++) Thread.sleep(10);
+		assertEquals(count, started.get());
+	}
+
+	private void awaitNotPending(String sessionId) throws InterruptedException {
+		for (int i = 0; i < 500 && service.isPending(sessionId); i++) Thread.sleep(10);
+		assertFalse(service.isPending(sessionId), sessionId + " still pending");
+	}
+}
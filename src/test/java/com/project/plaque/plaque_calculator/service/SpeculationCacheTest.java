@@ -0,0 +1,52 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.FD;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The cache answers repeated keys without recomputing, and is dropped once the session holds another input.
+ */
+class SpeculationCacheTest {
+
+	private final FDService fdService = new FDService();
+
+	@Test
+	void cachedUntilTheInputChanges() {
+		MockHttpSession session = new MockHttpSession();
+		input(session, List.of("A", "B", "C"), List.of(new FD(Set.of("A"), Set.of("B"))));
+		AtomicInteger computations = new AtomicInteger();
+
+		SpeculationCache cache = SpeculationCache.of(session, fdService);
+		assertEquals("x", cache.get("k", () -> {
+			computations.incrementAndGet();
+			return "x";
+		}));
+		assertEquals("x", SpeculationCache.of(session, fdService).get("k", () -> "y"));
+		assertSame(cache, SpeculationCache.of(session, fdService));
+		assertEquals(1, cache.hits());
+		assertTrue(cache.isCurrent(session));
+
+		input(session, List.of("A", "B", "C"), List.of(new FD(Set.of("B"), Set.of("C"))));
+		assertFalse(cache.isCurrent(session));
+		SpeculationCache next = SpeculationCache.of(session, fdService);
+		assertNotSame(cache, next);
+		assertFalse(next.contains("k"));
+		assertEquals("y", next.get("k", () -> "y"));
+		assertEquals(1, computations.get());
+
+		session.invalidate();
+		assertFalse(next.isCurrent(session));
+	}
+
+	private void input(MockHttpSession session, List<String> attrs, List<FD> fds) {
+		session.setAttribute("originalAttrOrder", attrs);
+		session.setAttribute("originalFDs", fds);
+		CompiledSchema.fromSession(session, fdService);
+	}
+}
@@ -0,0 +1,117 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.dto.DecomposeAllRequest;
+import com.project.plaque.plaque_calculator.dto.DecomposeRequest;
+import com.project.plaque.plaque_calculator.model.FD;
+import jakarta.servlet.http.HttpSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpSession;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A cancelled speculation stops at the split it is working on, and a finished one answers the student's
+ * decompose-all from the session's cache.
+ */
+class SpeculationServiceTest {
+
+	private final FDService fdService = new FDService();
+	private final RicService ricService = new RicService(null, null, null) {
+		@Override
+		public RicComputationResult computeRicAdaptive(String manualEncoded, String topLevelFds, boolean initialMonteCarlo,
+													   int initialSamples, Consumer<String> progressCallback) {
+			return new RicComputationResult(new double[0][0], "exact", List.of());
+		}
+	};
+	private final List<Runnable> shutdowns = new ArrayList<>();
+
+	@AfterEach
+	void shutdown() {
+		shutdowns.forEach(Runnable::run);
+	}
+
+	@Test
+	void cancelStopsTheSpeculation() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		AtomicInteger precomputed = new AtomicInteger();
+		AtomicBoolean interrupted = new AtomicBoolean();
+		DecomposeService blocking = new DecomposeService(fdService, ricService, new NormalFormChecker(fdService), 2) {
+			@Override
+			void precompute(List<Integer> baseColumns, List<List<Integer>> tables, boolean withRic,
+							HttpSession session) {
+				precomputed.incrementAndGet();
+				started.countDown();
+				try {
+					new CountDownLatch(1).await();
+				} catch (InterruptedException ex) {
+					interrupted.set(true);
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		SpeculationService service = service(blocking);
+		MockHttpSession session = session();
+
+		service.speculate(session, null);
+		assertTrue(started.await(2, TimeUnit.SECONDS));
+		service.cancel(session.getId());
+
+		for (int i = 0; i < 200 && !interrupted.get(); i++) Thread.sleep(10);
+		assertTrue(interrupted.get());
+		assertFalse(service.isPending(session.getId()));
+		// Two violating determinants, but the second split is never started
+		assertEquals(2, service.likelySplits(List.of(), session).size());
+		Thread.sleep(50);
+		assertEquals(1, precomputed.get());
+	}
+
+	@Test
+	void decomposeAllIsServedFromTheSpeculation() throws Exception {
+		DecomposeService decomposeService = new DecomposeService(fdService, ricService, new NormalFormChecker(fdService), 2);
+		SpeculationService service = service(decomposeService);
+		MockHttpSession session = session();
+
+		service.speculate(session, null);
+		for (int i = 0; i < 500 && service.isPending(session.getId()); i++) Thread.sleep(10);
+		assertFalse(service.isPending(session.getId()));
+
+		List<List<Integer>> split = service.likelySplits(List.of(), session).get(0);
+		SpeculationCache cache = SpeculationCache.of(session, fdService);
+		int hitsBefore = cache.hits();
+		DecomposeAllRequest request = new DecomposeAllRequest();
+		List<DecomposeRequest> tables = new ArrayList<>();
+		for (List<Integer> columns : split) {
+			DecomposeRequest table = new DecomposeRequest();
+			table.setColumns(columns);
+			tables.add(table);
+		}
+		request.setTables(tables);
+		decomposeService.decomposeAll(request, session);
+
+		// Both table analyses and the lossless / preservation checks came from the cache
+		assertTrue(cache.hits() - hitsBefore >= 3, "hits: " + (cache.hits() - hitsBefore));
+	}
+
+	private SpeculationService service(DecomposeService decomposeService) {
+		SpeculationService service = new SpeculationService(decomposeService, fdService, true, false, 2, 8);
+		shutdowns.add(service::shutdown);
+		return service;
+	}
+
+	// A → B and C → D over {A, B, C, D}: two BCNF-violating determinants, two likely splits
+	private MockHttpSession session() {
+		MockHttpSession session = new MockHttpSession();
+		session.setAttribute("originalAttrOrder", List.of("A", "B", "C", "D"));
+		session.setAttribute("originalFDs", List.of(new FD(Set.of("A"), Set.of("B")), new FD(Set.of("C"), Set.of("D"))));
+		CompiledSchema.fromSession(session, fdService);
+		return session;
+	}
+}
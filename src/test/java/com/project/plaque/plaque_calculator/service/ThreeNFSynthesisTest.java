@@ -0,0 +1,63 @@
+package com.project.plaque.plaque_calculator.service;
+
+import com.project.plaque.plaque_calculator.model.AttributeSet;
+import com.project.plaque.plaque_calculator.model.EncodedFD;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every synthesized decomposition covers R, is lossless (chase), dependency-preserving, has no subsumed
+ * schema and only 3NF schemas (checked on the projected FDs).
+ */
+class ThreeNFSynthesisTest {
+
+	private final SubsetLattice lattice = new SubsetLattice();
+
+	@Test
+	void decompositionsAreLosslessPreservingAnd3NF() {
+		Random random = new Random(31);
+		for (int round = 0; round < 1000; round++) {
+			int n = 1 + random.nextInt(8);
+			List<EncodedFD> fds = new ArrayList<>();
+			for (int i = random.nextInt(7); i > 0; i--) {
+				AttributeSet lhs = random.nextInt(3) == 0
+						? AttributeSet.of(random.nextInt(n), random.nextInt(n))
+						: AttributeSet.of(random.nextInt(n));
+				fds.add(new EncodedFD(lhs, AttributeSet.of(random.nextInt(n))));
+			}
+			AttributeSet relation = AttributeSet.range(n);
+			FDClosureIndex index = FDClosureIndex.of(fds, n);
+			String context = "FDs " + fds + " on " + n + " attributes";
+
+			List<AttributeSet> schemas = ThreeNFSynthesis.synthesize(relation, fds, n);
+
+			AttributeSet covered = AttributeSet.empty();
+			for (AttributeSet schema : schemas) covered = covered.union(schema);
+			assertEquals(relation, covered, context);
+			assertTrue(LosslessJoinChase.isLossless(n, schemas, fds), context);
+			assertTrue(DependencyPreservation.check(fds, schemas, index::closure).preserved(), context);
+			for (int i = 0; i < schemas.size(); i++) {
+				for (int j = 0; j < schemas.size(); j++) {
+					assertFalse(i != j && schemas.get(j).containsAll(schemas.get(i)), context);
+				}
+				assertTrue(is3NF(schemas.get(i), fds, index), schemas.get(i) + " in " + context);
+			}
+		}
+	}
+
+	// Projected FDs: no non-superkey LHS with a non-prime attribute on the right
+	private boolean is3NF(AttributeSet schema, List<EncodedFD> fds, FDClosureIndex index) {
+		List<EncodedFD> projected = FDProjection.project(schema, fds, index::closure, lattice);
+		KeyEnumerator keys = new KeyEnumerator(schema, projected, x -> index.closure(x).intersect(schema));
+		for (EncodedFD fd : projected) {
+			if (index.closure(fd.getLhs()).containsAll(schema)) continue;
+			for (int a : fd.getRhs().minus(fd.getLhs()).toArray()) {
+				if (!keys.isPrime(a)) return false;
+			}
+		}
+		return true;
+	}
+}